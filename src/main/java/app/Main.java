@@ -1,56 +1,169 @@
 package app;
 
+import app.cli.CliApplication;
+import app.history.ScanHistory;
+import app.metrics.HandshakeMetrics;
+import app.metrics.MetricsServer;
+import app.metrics.TruststoreMetrics;
 import app.tls.TlsValidationService;
-import app.truststore.CertificateViewService;
 import app.truststore.TruststoreLoader;
-import app.ui.MainScreen;
-import com.googlecode.lanterna.TerminalSize;
-import com.googlecode.lanterna.gui2.BasicWindow;
-import com.googlecode.lanterna.gui2.MultiWindowTextGUI;
-import com.googlecode.lanterna.input.KeyStroke;
-import com.googlecode.lanterna.screen.Screen;
-import com.googlecode.lanterna.terminal.DefaultTerminalFactory;
+import app.ui.TuiLauncher;
 import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.time.Duration;
 
 public final class Main {
+    private static final String ENV_SCAN_PARALLELISM = "TRUSTSTORE_SCAN_PARALLELISM";
+    private static final String ENV_CHAIN_CACHE_TTL_SECONDS = "TRUSTSTORE_CHAIN_CACHE_TTL_SECONDS";
+    private static final String ENV_METRICS_PORT = "TRUSTSTORE_METRICS_PORT";
+    private static final String ENV_METRICS_HOST = "TRUSTSTORE_METRICS_HOST";
+    private static final String ENV_HISTORY_DIR = "TRUSTSTORE_HISTORY_DIR";
+    private static final String ENV_CACHE_DIR = "TRUSTSTORE_CACHE_DIR";
+    private static final String ENV_DOWNLOAD_STALL_SECONDS = "TRUSTSTORE_DOWNLOAD_STALL_SECONDS";
+
     private Main() {
     }
 
     public static void main(String[] args) {
-        DefaultTerminalFactory terminalFactory = new DefaultTerminalFactory();
-        terminalFactory.setInitialTerminalSize(new TerminalSize(140, 42));
+        TlsValidationService tlsValidationService = createTlsValidationService();
+        TruststoreLoader truststoreLoader = createTruststoreLoader();
+        MetricsServer metricsServer = startMetricsServer(tlsValidationService, truststoreLoader);
+        ScanHistory history = createScanHistory();
+        if (args.length > 0) {
+            int exitCode;
+            try {
+                exitCode = new CliApplication(tlsValidationService, truststoreLoader, history, System.out, System.err)
+                    .run(args);
+            } finally {
+                closeMetricsServer(metricsServer);
+                closeHistory(history);
+                tlsValidationService.close();
+            }
+            System.exit(exitCode);
+            return;
+        }
 
         try {
-            Screen screen = terminalFactory.createScreen();
-            screen.startScreen();
-
-            MultiWindowTextGUI gui = new MultiWindowTextGUI(screen);
-            final MainScreen[] mainScreenRef = new MainScreen[1];
-            BasicWindow window = new BasicWindow("Truststore TUI") {
-                @Override
-                public boolean handleInput(KeyStroke keyStroke) {
-                    if (mainScreenRef[0] != null && mainScreenRef[0].handleGlobalKey(keyStroke)) {
-                        return true;
-                    }
-                    return super.handleInput(keyStroke);
-                }
-            };
-
-            MainScreen mainScreen = new MainScreen(
-                gui,
-                window,
-                new TruststoreLoader(),
-                new CertificateViewService(),
-                new TlsValidationService()
-            );
-            mainScreenRef[0] = mainScreen;
-
-            window.setComponent(mainScreen.create());
-            gui.addWindowAndWait(window);
-            screen.stopScreen();
+            TuiLauncher.run(tlsValidationService, truststoreLoader, history);
         } catch (IOException e) {
             System.err.println("Failed to start TUI: " + e.getMessage());
             System.exit(1);
+        } finally {
+            closeMetricsServer(metricsServer);
+            closeHistory(history);
+            tlsValidationService.close();
+        }
+    }
+
+    private static TruststoreLoader createTruststoreLoader() {
+        Path cacheDirectory = downloadCacheDirectory();
+        int stallSeconds = intFromEnv(
+            ENV_DOWNLOAD_STALL_SECONDS,
+            (int) TruststoreLoader.DEFAULT_STALL_TIMEOUT.toSeconds()
+        );
+        try {
+            return new TruststoreLoader(cacheDirectory, Duration.ofSeconds(stallSeconds));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Ignoring invalid download settings: " + e.getMessage());
+            return new TruststoreLoader(cacheDirectory);
+        }
+    }
+
+    // Nothing is written under the home directory unless a cache directory is configured.
+    private static Path downloadCacheDirectory() {
+        return directoryFromEnv(ENV_CACHE_DIR);
+    }
+
+    private static ScanHistory createScanHistory() {
+        Path directory = directoryFromEnv(ENV_HISTORY_DIR);
+        return directory == null ? null : new ScanHistory(directory);
+    }
+
+    private static Path directoryFromEnv(String name) {
+        String directory = System.getenv(name);
+        if (directory == null || directory.isBlank()) {
+            return null;
+        }
+        return Path.of(directory.trim());
+    }
+
+    private static void closeHistory(ScanHistory history) {
+        if (history == null) {
+            return;
+        }
+        try {
+            history.close();
+        } catch (IOException e) {
+            System.err.println("Failed to save scan history index: " + e.getMessage());
+        }
+    }
+
+    // The server's dispatcher thread is not a daemon, so callers must close it on the way out.
+    private static MetricsServer startMetricsServer(
+        TlsValidationService tlsValidationService,
+        TruststoreLoader truststoreLoader
+    ) {
+        String port = System.getenv(ENV_METRICS_PORT);
+        if (port == null || port.isBlank()) {
+            return null;
+        }
+        String host = System.getenv(ENV_METRICS_HOST);
+        TruststoreMetrics truststoreMetrics = new TruststoreMetrics();
+        HandshakeMetrics handshakeMetrics = new HandshakeMetrics();
+        MetricsServer metricsServer;
+        try {
+            metricsServer = new MetricsServer(
+                new InetSocketAddress(
+                    host == null || host.isBlank() ? MetricsServer.DEFAULT_HOST : host.trim(),
+                    intFromEnv(ENV_METRICS_PORT, MetricsServer.DEFAULT_PORT)
+                ),
+                truststoreMetrics,
+                handshakeMetrics
+            );
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Metrics endpoint disabled: " + e.getMessage());
+            return null;
+        }
+        truststoreLoader.addLoadListener(truststoreMetrics::truststoreLoaded);
+        tlsValidationService.addValidationListener(handshakeMetrics);
+        return metricsServer;
+    }
+
+    private static void closeMetricsServer(MetricsServer metricsServer) {
+        if (metricsServer != null) {
+            metricsServer.close();
+        }
+    }
+
+    private static TlsValidationService createTlsValidationService() {
+        int parallelism = intFromEnv(ENV_SCAN_PARALLELISM, TlsValidationService.defaultAliasScanParallelism());
+        int ttlSeconds = intFromEnv(
+            ENV_CHAIN_CACHE_TTL_SECONDS,
+            (int) TlsValidationService.DEFAULT_PEER_CHAIN_TTL.toSeconds()
+        );
+        try {
+            return new TlsValidationService(
+                parallelism,
+                TlsValidationService.DEFAULT_TRUST_CACHE_SIZE,
+                Duration.ofSeconds(ttlSeconds)
+            );
+        } catch (IllegalArgumentException e) {
+            System.err.println("Ignoring invalid TLS settings: " + e.getMessage());
+            return new TlsValidationService();
+        }
+    }
+
+    private static int intFromEnv(String name, int defaultValue) {
+        String value = System.getenv(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Ignoring invalid " + name + "=" + value + ": " + e.getMessage());
+            return defaultValue;
         }
     }
 }
@@ -0,0 +1,6 @@
+package app.batch;
+
+public enum BatchEngine {
+    BLOCKING,
+    NIO
+}
@@ -0,0 +1,13 @@
+package app.batch;
+
+import app.tls.ValidationResult;
+import java.time.Instant;
+
+public record BatchEntryResult(
+    int lineNumber,
+    String endpoint,
+    EndpointTarget target,
+    ValidationResult result,
+    Instant checkedAt
+) {
+}
@@ -0,0 +1,11 @@
+package app.batch;
+
+public enum BatchOutputFormat {
+    NDJSON,
+    CSV;
+
+    public static BatchOutputFormat fromFileName(String fileName) {
+        String normalized = fileName == null ? "" : fileName.toLowerCase();
+        return normalized.endsWith(".csv") ? CSV : NDJSON;
+    }
+}
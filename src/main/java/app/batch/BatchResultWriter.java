@@ -0,0 +1,16 @@
+package app.batch;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+
+public interface BatchResultWriter extends Closeable {
+    void write(BatchEntryResult entry) throws IOException;
+
+    static BatchResultWriter create(BatchOutputFormat format, Writer out) throws IOException {
+        return switch (format) {
+            case NDJSON -> new NdjsonResultWriter(out);
+            case CSV -> new CsvResultWriter(out);
+        };
+    }
+}
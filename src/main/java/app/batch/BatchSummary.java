@@ -0,0 +1,4 @@
+package app.batch;
+
+public record BatchSummary(int checked, int succeeded, int failed, int invalid, boolean cancelled) {
+}
@@ -0,0 +1,248 @@
+package app.batch;
+
+import app.tls.HandshakeMode;
+import app.tls.TlsValidationService;
+import app.tls.ValidationResult;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+public class BatchValidationService {
+    public static final int DEFAULT_GLOBAL_CONCURRENCY = 32;
+    public static final int DEFAULT_PER_HOST_CONCURRENCY = 2;
+
+    private final TlsValidationService validationService;
+    private final int globalConcurrency;
+    private final int perHostConcurrency;
+    private final BatchEngine engine;
+    private final HandshakeMode handshakeMode;
+
+    public BatchValidationService(TlsValidationService validationService) {
+        this(validationService, DEFAULT_GLOBAL_CONCURRENCY, DEFAULT_PER_HOST_CONCURRENCY);
+    }
+
+    public BatchValidationService(
+        TlsValidationService validationService,
+        int globalConcurrency,
+        int perHostConcurrency
+    ) {
+        this(validationService, globalConcurrency, perHostConcurrency, BatchEngine.BLOCKING, HandshakeMode.FULL);
+    }
+
+    public BatchValidationService(
+        TlsValidationService validationService,
+        int globalConcurrency,
+        int perHostConcurrency,
+        BatchEngine engine,
+        HandshakeMode handshakeMode
+    ) {
+        if (globalConcurrency < 1) {
+            throw new IllegalArgumentException("Global concurrency must be positive: " + globalConcurrency);
+        }
+        if (perHostConcurrency < 1) {
+            throw new IllegalArgumentException("Per-host concurrency must be positive: " + perHostConcurrency);
+        }
+        this.validationService = validationService;
+        this.globalConcurrency = globalConcurrency;
+        this.perHostConcurrency = perHostConcurrency;
+        this.engine = engine;
+        this.handshakeMode = handshakeMode;
+    }
+
+    public BatchSummary run(
+        Path endpointList,
+        KeyStore sourceStore,
+        String alias,
+        BatchResultWriter writer,
+        Consumer<BatchSummary> progressCallback,
+        BooleanSupplier cancelled
+    ) throws IOException {
+        if (engine == BatchEngine.NIO) {
+            return runNonBlocking(endpointList, sourceStore, alias, writer, progressCallback, cancelled);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(globalConcurrency, new BatchThreadFactory());
+        try {
+            return schedule(endpointList, writer, progressCallback, cancelled, executor, target ->
+                CompletableFuture.completedFuture(
+                    validationService.validate(target.host(), target.port(), sourceStore, alias, handshakeMode)
+                )
+            );
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private BatchSummary runNonBlocking(
+        Path endpointList,
+        KeyStore sourceStore,
+        String alias,
+        BatchResultWriter writer,
+        Consumer<BatchSummary> progressCallback,
+        BooleanSupplier cancelled
+    ) throws IOException {
+        // Handshakes run on the NIO engine; one thread is enough to start them.
+        ExecutorService launcher = Executors.newSingleThreadExecutor(new BatchThreadFactory());
+        try {
+            return schedule(endpointList, writer, progressCallback, cancelled, launcher, target ->
+                validationService.validateAsync(target.host(), target.port(), sourceStore, alias, handshakeMode)
+            );
+        } finally {
+            launcher.shutdownNow();
+        }
+    }
+
+    private BatchSummary schedule(
+        Path endpointList,
+        BatchResultWriter writer,
+        Consumer<BatchSummary> progressCallback,
+        BooleanSupplier cancelled,
+        ExecutorService launcher,
+        Function<EndpointTarget, CompletableFuture<ValidationResult>> check
+    ) throws IOException {
+        Tally tally = new Tally(progressCallback);
+        AtomicReference<IOException> writeError = new AtomicReference<>();
+        HostScheduler scheduler = new HostScheduler(
+            globalConcurrency,
+            perHostConcurrency,
+            HostScheduler.DEFAULT_MAX_QUEUED,
+            launcher
+        );
+        boolean interrupted = false;
+
+        try (BufferedReader reader = Files.newBufferedReader(endpointList, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (cancelled.getAsBoolean() || writeError.get() != null) {
+                    break;
+                }
+                String endpoint = EndpointTarget.stripComment(line);
+                if (endpoint.isEmpty()) {
+                    continue;
+                }
+                EndpointTarget target;
+                try {
+                    target = EndpointTarget.parse(endpoint);
+                } catch (IllegalArgumentException e) {
+                    ValidationResult invalid = new ValidationResult(
+                        false,
+                        "Invalid endpoint: " + e.getMessage(),
+                        List.of()
+                    );
+                    emit(writer, new BatchEntryResult(lineNumber, endpoint, null, invalid, Instant.now()), writeError);
+                    tally.invalid();
+                    continue;
+                }
+
+                int entryLine = lineNumber;
+                scheduler.submit(target.host(), () -> {
+                    if (cancelled.getAsBoolean()) {
+                        scheduler.finished(target.host());
+                        return;
+                    }
+                    CompletableFuture<ValidationResult> pending;
+                    try {
+                        pending = check.apply(target);
+                    } catch (RuntimeException e) {
+                        pending = CompletableFuture.failedFuture(e);
+                    }
+                    pending.whenComplete((result, error) -> {
+                        try {
+                            ValidationResult effective = result != null
+                                ? result
+                                : new ValidationResult(false, "TLS validation failed: " + error, List.of());
+                            emit(
+                                writer,
+                                new BatchEntryResult(entryLine, endpoint, target, effective, Instant.now()),
+                                writeError
+                            );
+                            tally.checked(effective.success());
+                        } finally {
+                            scheduler.finished(target.host());
+                        }
+                    });
+                });
+            }
+            scheduler.awaitIdle();
+        } catch (InterruptedException e) {
+            interrupted = true;
+            Thread.currentThread().interrupt();
+        }
+        if (writeError.get() != null) {
+            throw writeError.get();
+        }
+        return tally.summary(interrupted || cancelled.getAsBoolean());
+    }
+
+    private void emit(BatchResultWriter writer, BatchEntryResult entry, AtomicReference<IOException> writeError) {
+        try {
+            writer.write(entry);
+        } catch (IOException e) {
+            writeError.compareAndSet(null, e);
+        }
+    }
+
+    private static final class Tally {
+        private final Consumer<BatchSummary> progressCallback;
+        private int checked;
+        private int succeeded;
+        private int failed;
+        private int invalid;
+
+        private Tally(Consumer<BatchSummary> progressCallback) {
+            this.progressCallback = progressCallback;
+        }
+
+        private synchronized void checked(boolean success) {
+            checked++;
+            if (success) {
+                succeeded++;
+            } else {
+                failed++;
+            }
+            report();
+        }
+
+        private synchronized void invalid() {
+            checked++;
+            invalid++;
+            report();
+        }
+
+        private synchronized BatchSummary summary(boolean cancelled) {
+            return new BatchSummary(checked, succeeded, failed, invalid, cancelled);
+        }
+
+        private void report() {
+            if (progressCallback != null) {
+                progressCallback.accept(new BatchSummary(checked, succeeded, failed, invalid, false));
+            }
+        }
+    }
+
+    private static final class BatchThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, "batch-check-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package app.batch;
+
+import app.tls.ChainCertificateInfo;
+import app.tls.PhaseTimings;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Duration;
+
+final class CsvResultWriter implements BatchResultWriter {
+    private static final String HEADER = "line,endpoint,host,port,success,message,checked_at,peer_subject,peer_not_after,dns_ms,connect_ms,handshake_ms,trust_ms\n";
+
+    private final Writer out;
+
+    CsvResultWriter(Writer out) throws IOException {
+        this.out = out;
+        out.write(HEADER);
+        out.flush();
+    }
+
+    @Override
+    public synchronized void write(BatchEntryResult entry) throws IOException {
+        ChainCertificateInfo leaf = entry.result().peerChain().isEmpty() ? null : entry.result().peerChain().get(0);
+        PhaseTimings timings = entry.result().timings();
+        StringBuilder line = new StringBuilder(256);
+        line.append(entry.lineNumber()).append(',')
+            .append(field(entry.endpoint())).append(',')
+            .append(field(entry.target() == null ? "" : entry.target().host())).append(',')
+            .append(entry.target() == null ? "" : String.valueOf(entry.target().port())).append(',')
+            .append(entry.result().success()).append(',')
+            .append(field(entry.result().message())).append(',')
+            .append(entry.checkedAt()).append(',')
+            .append(field(leaf == null ? "" : leaf.subject())).append(',')
+            .append(leaf == null ? "" : leaf.notAfter().toString()).append(',')
+            .append(millis(timings.dns())).append(',')
+            .append(millis(timings.connect())).append(',')
+            .append(millis(timings.handshake())).append(',')
+            .append(millis(timings.trust()))
+            .append('\n');
+        out.write(line.toString());
+        out.flush();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        out.close();
+    }
+
+    private static String millis(Duration duration) {
+        String value = NdjsonResultWriter.millis(duration);
+        return "null".equals(value) ? "" : value;
+    }
+
+    private static String field(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
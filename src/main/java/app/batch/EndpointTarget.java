@@ -0,0 +1,91 @@
+package app.batch;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public record EndpointTarget(String host, int port) {
+    public static final int DEFAULT_PORT = 443;
+
+    public static String stripComment(String line) {
+        int hash = line.indexOf('#');
+        String withoutComment = hash >= 0 ? line.substring(0, hash) : line;
+        return withoutComment.trim();
+    }
+
+    public static List<EndpointTarget> readAll(Path endpointList) throws IOException {
+        List<EndpointTarget> targets = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(endpointList, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                String endpoint = stripComment(line);
+                if (endpoint.isEmpty()) {
+                    continue;
+                }
+                try {
+                    targets.add(parse(endpoint));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Line " + lineNumber + ": " + e.getMessage());
+                }
+            }
+        }
+        return targets;
+    }
+
+    public static EndpointTarget parse(String value) {
+        String trimmed = value == null ? "" : value.trim();
+        if (trimmed.isEmpty()) {
+            throw new IllegalArgumentException("Endpoint is empty");
+        }
+        String host;
+        String portText = null;
+        if (trimmed.startsWith("[")) {
+            int closing = trimmed.indexOf(']');
+            if (closing < 0) {
+                throw new IllegalArgumentException("Invalid IPv6 endpoint: " + trimmed);
+            }
+            host = trimmed.substring(1, closing);
+            String rest = trimmed.substring(closing + 1);
+            if (!rest.isEmpty()) {
+                if (!rest.startsWith(":")) {
+                    throw new IllegalArgumentException("Invalid endpoint: " + trimmed);
+                }
+                portText = rest.substring(1);
+            }
+        } else {
+            int colon = trimmed.lastIndexOf(':');
+            if (colon >= 0 && trimmed.indexOf(':') == colon) {
+                host = trimmed.substring(0, colon);
+                portText = trimmed.substring(colon + 1);
+            } else {
+                host = trimmed;
+            }
+        }
+        if (host.isBlank()) {
+            throw new IllegalArgumentException("Endpoint host is empty: " + trimmed);
+        }
+        int port = DEFAULT_PORT;
+        if (portText != null) {
+            try {
+                port = Integer.parseInt(portText.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Endpoint port is not a number: " + trimmed);
+            }
+        }
+        if (port < 1 || port > 65535) {
+            throw new IllegalArgumentException("Endpoint port is out of range: " + trimmed);
+        }
+        return new EndpointTarget(host, port);
+    }
+
+    @Override
+    public String toString() {
+        return host.indexOf(':') >= 0 ? "[" + host + "]:" + port : host + ":" + port;
+    }
+}
@@ -0,0 +1,111 @@
+package app.batch;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+
+// Entries wait in per-host queues and only take one of the global slots once their host has a
+// free permit, so a list dominated by one host cannot park every slot on that host.
+final class HostScheduler {
+    static final int DEFAULT_MAX_QUEUED = 10_000;
+
+    private final int globalLimit;
+    private final int perHostLimit;
+    private final Executor launcher;
+    private final Semaphore queueCapacity;
+    private final Map<String, HostQueue> hosts = new HashMap<>();
+    private final Deque<HostQueue> runnable = new ArrayDeque<>();
+    private int running;
+
+    HostScheduler(int globalLimit, int perHostLimit, int maxQueued, Executor launcher) {
+        this.globalLimit = globalLimit;
+        this.perHostLimit = perHostLimit;
+        this.launcher = launcher;
+        this.queueCapacity = new Semaphore(maxQueued);
+    }
+
+    // The task must call finished(host) exactly once when it is done, from any thread.
+    void submit(String host, Runnable task) throws InterruptedException {
+        queueCapacity.acquire();
+        List<Runnable> start;
+        synchronized (this) {
+            HostQueue queue = hosts.computeIfAbsent(host.toLowerCase(Locale.ROOT), ignored -> new HostQueue());
+            queue.waiting.add(task);
+            markRunnable(queue);
+            start = dispatch();
+        }
+        launch(start);
+    }
+
+    void finished(String host) {
+        List<Runnable> start;
+        synchronized (this) {
+            running--;
+            String key = host.toLowerCase(Locale.ROOT);
+            HostQueue queue = hosts.get(key);
+            if (queue != null) {
+                queue.active--;
+                if (queue.active == 0 && queue.waiting.isEmpty()) {
+                    hosts.remove(key);
+                } else {
+                    markRunnable(queue);
+                }
+            }
+            start = dispatch();
+            if (running == 0 && hosts.isEmpty()) {
+                notifyAll();
+            }
+        }
+        queueCapacity.release();
+        launch(start);
+    }
+
+    synchronized void awaitIdle() throws InterruptedException {
+        while (running > 0 || !hosts.isEmpty()) {
+            wait();
+        }
+    }
+
+    synchronized int running() {
+        return running;
+    }
+
+    private void markRunnable(HostQueue queue) {
+        if (!queue.listed && !queue.waiting.isEmpty() && queue.active < perHostLimit) {
+            queue.listed = true;
+            runnable.add(queue);
+        }
+    }
+
+    private List<Runnable> dispatch() {
+        List<Runnable> start = new ArrayList<>();
+        while (running < globalLimit && !runnable.isEmpty()) {
+            // Round-robin over hosts so one busy host does not take every freed slot.
+            HostQueue queue = runnable.poll();
+            queue.listed = false;
+            start.add(queue.waiting.poll());
+            queue.active++;
+            running++;
+            markRunnable(queue);
+        }
+        return start;
+    }
+
+    private void launch(List<Runnable> start) {
+        for (Runnable task : start) {
+            launcher.execute(task);
+        }
+    }
+
+    private static final class HostQueue {
+        private final Deque<Runnable> waiting = new ArrayDeque<>();
+        private int active;
+        private boolean listed;
+    }
+}
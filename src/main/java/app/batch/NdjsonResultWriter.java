@@ -0,0 +1,61 @@
+package app.batch;
+
+import app.tls.ChainCertificateInfo;
+import app.tls.PhaseTimings;
+import app.util.Json;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Duration;
+import java.util.Locale;
+
+final class NdjsonResultWriter implements BatchResultWriter {
+    private final Writer out;
+
+    NdjsonResultWriter(Writer out) {
+        this.out = out;
+    }
+
+    @Override
+    public synchronized void write(BatchEntryResult entry) throws IOException {
+        StringBuilder line = new StringBuilder(256);
+        line.append("{\"line\":").append(entry.lineNumber())
+            .append(",\"endpoint\":").append(Json.quote(entry.endpoint()))
+            .append(",\"host\":").append(Json.quote(entry.target() == null ? null : entry.target().host()))
+            .append(",\"port\":").append(entry.target() == null ? "null" : String.valueOf(entry.target().port()))
+            .append(",\"success\":").append(entry.result().success())
+            .append(",\"message\":").append(Json.quote(entry.result().message()))
+            .append(",\"checkedAt\":").append(Json.quote(entry.checkedAt().toString()))
+            .append(",\"peerChain\":[");
+        boolean first = true;
+        for (ChainCertificateInfo cert : entry.result().peerChain()) {
+            if (!first) {
+                line.append(',');
+            }
+            first = false;
+            line.append("{\"subject\":").append(Json.quote(cert.subject()))
+                .append(",\"issuer\":").append(Json.quote(cert.issuer()))
+                .append(",\"notAfter\":").append(Json.quote(cert.notAfter().toString()))
+                .append('}');
+        }
+        PhaseTimings timings = entry.result().timings();
+        line.append("],\"timingsMs\":{\"dns\":").append(millis(timings.dns()))
+            .append(",\"connect\":").append(millis(timings.connect()))
+            .append(",\"handshake\":").append(millis(timings.handshake()))
+            .append(",\"trust\":").append(millis(timings.trust()))
+            .append("}}\n");
+        out.write(line.toString());
+        out.flush();
+    }
+
+    static String millis(Duration duration) {
+        if (duration == null) {
+            return "null";
+        }
+        return String.format(Locale.ROOT, "%.3f", duration.toNanos() / 1_000_000.0);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,522 @@
+package app.cli;
+
+import app.batch.BatchEngine;
+import app.batch.BatchEntryResult;
+import app.batch.BatchOutputFormat;
+import app.batch.BatchResultWriter;
+import app.batch.BatchSummary;
+import app.batch.BatchValidationService;
+import app.batch.EndpointTarget;
+import app.history.AnchorSighting;
+import app.history.ChainChange;
+import app.history.HistoryEntry;
+import app.history.ScanHistory;
+import app.tls.AddressValidationResult;
+import app.tls.AliasScanMode;
+import app.tls.AliasScanResult;
+import app.tls.HandshakeMode;
+import app.tls.PreparedCertificateFile;
+import app.tls.ProbeStatus;
+import app.tls.ProtocolProbeMatrix;
+import app.tls.ProtocolProbeResult;
+import app.tls.ScanCancellation;
+import app.tls.TlsValidationService;
+import app.tls.ValidationResult;
+import app.truststore.CertificateInfo;
+import app.truststore.CertificateViewService;
+import app.truststore.LoadedTruststore;
+import app.truststore.StoreSourceType;
+import app.truststore.TruststoreLoader;
+import app.watch.EndpointWatcher;
+import app.watch.WatchSettings;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+public class CliApplication {
+    public static final int EXIT_OK = 0;
+    public static final int EXIT_CHECK_FAILED = 1;
+    public static final int EXIT_USAGE = 2;
+    public static final int EXIT_LOAD_FAILED = 3;
+
+    private static final String ENV_PASSWORD = "TRUSTSTORE_PASSWORD";
+    private static final String ENV_PATH = "TRUSTSTORE_PATH";
+    private static final String ENV_URL = "TRUSTSTORE_URL";
+    private static final String DEFAULT_PASSWORD = "changeit";
+    private static final Set<String> KNOWN_OPTIONS = Set.of(
+        "store",
+        "url",
+        "password-env",
+        "host",
+        "port",
+        "alias",
+        "file",
+        "pkcs12-password-env",
+        "mode",
+        "endpoints",
+        "output",
+        "format",
+        "concurrency",
+        "per-host",
+        "engine",
+        "interval",
+        "expiry-days"
+    );
+    private static final String USAGE = """
+        Usage: java -jar truststore-tui.jar <command> [options]
+
+        Without arguments the interactive TUI is started.
+
+        Commands:
+          list                         print certificates as NDJSON
+          check --host H [--port P] [--alias A] [--certificate-only]
+                [--all-addresses]      TLS check against the full store or one alias;
+                                       --all-addresses checks every resolved IP
+          scan --host H [--port P] [--mode single|per-alias]
+                                       find aliases that validate the endpoint chain
+          probe --host H [--port P] [--alias A]
+                                       probe TLS versions and cipher groups (one line per probe)
+          cert-file --file F [--alias A] [--pkcs12-password-env VAR]
+                                       validate a certificate file
+          batch --endpoints F [--output F|-] [--format ndjson|csv]
+                [--concurrency N] [--per-host N] [--engine blocking|nio]
+                [--certificate-only]
+                                       validate an endpoint list
+          watch --endpoints F [--interval SECONDS] [--expiry-days N] [--alias A]
+                [--concurrency N]      re-check endpoints forever, print change events
+          history --host H [--port P]  last chain change and aliases that ever anchored the host
+
+        Truststore options (default: TRUSTSTORE_PATH / TRUSTSTORE_URL env):
+          --store PATH | --url URL     truststore source
+          --password-env VAR           env variable with the store password (default TRUSTSTORE_PASSWORD)
+
+        Exit codes: 0 ok, 1 check failed, 2 usage error, 3 truststore load error.
+        """;
+
+    private final TlsValidationService tlsValidationService;
+    private final TruststoreLoader truststoreLoader;
+    private final ScanHistory history;
+    private final PrintStream out;
+    private final PrintStream err;
+    private boolean historyFailureReported;
+
+    public CliApplication(TlsValidationService tlsValidationService, PrintStream out, PrintStream err) {
+        this(tlsValidationService, new TruststoreLoader(), null, out, err);
+    }
+
+    public CliApplication(
+        TlsValidationService tlsValidationService,
+        TruststoreLoader truststoreLoader,
+        ScanHistory history,
+        PrintStream out,
+        PrintStream err
+    ) {
+        this.tlsValidationService = tlsValidationService;
+        this.truststoreLoader = truststoreLoader;
+        this.history = history;
+        this.out = out;
+        this.err = err;
+    }
+
+    public int run(String[] args) {
+        CliArguments arguments;
+        try {
+            arguments = CliArguments.parse(args, KNOWN_OPTIONS);
+        } catch (IllegalArgumentException e) {
+            return usageError(e.getMessage());
+        }
+        if (arguments.has("help") || arguments.command() == null || "help".equals(arguments.command())) {
+            out.print(USAGE);
+            return arguments.command() == null && !arguments.has("help") ? EXIT_USAGE : EXIT_OK;
+        }
+
+        try {
+            return switch (arguments.command()) {
+                case "list" -> list(arguments);
+                case "check" -> check(arguments);
+                case "scan" -> scan(arguments);
+                case "probe" -> probe(arguments);
+                case "cert-file" -> certificateFile(arguments);
+                case "batch" -> batch(arguments);
+                case "watch" -> watch(arguments);
+                case "history" -> history(arguments);
+                default -> usageError("Unknown command: " + arguments.command());
+            };
+        } catch (UsageException e) {
+            return usageError(e.getMessage());
+        } catch (LoadException e) {
+            err.println(CliJson.error(e.getMessage()));
+            return EXIT_LOAD_FAILED;
+        } catch (Exception e) {
+            err.println(CliJson.error(e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage()));
+            return EXIT_CHECK_FAILED;
+        }
+    }
+
+    private int list(CliArguments arguments) throws Exception {
+        LoadedTruststore truststore = loadTruststore(arguments);
+        for (CertificateInfo cert : new CertificateViewService().listCertificates(truststore)) {
+            out.println(CliJson.certificate(cert));
+        }
+        return EXIT_OK;
+    }
+
+    private int check(CliArguments arguments) throws Exception {
+        String host = requiredOption(arguments, "host");
+        int port = portOption(arguments);
+        String alias = arguments.option("alias");
+        LoadedTruststore truststore = loadTruststore(arguments);
+        if (arguments.has("all-addresses")) {
+            List<AddressValidationResult> results = tlsValidationService.validateAllAddresses(
+                host,
+                port,
+                truststore.keyStore(),
+                alias,
+                handshakeMode(arguments)
+            );
+            boolean allSucceeded = true;
+            for (AddressValidationResult addressResult : results) {
+                out.println(CliJson.addressValidation("check", host + ":" + port, alias, addressResult));
+                recordHistory(HistoryEntry.validation(host, port, storeDigest(truststore), alias, addressResult.result()));
+                allSucceeded &= addressResult.result().success();
+            }
+            return allSucceeded ? EXIT_OK : EXIT_CHECK_FAILED;
+        }
+        ValidationResult result = tlsValidationService.validate(
+            host,
+            port,
+            truststore.keyStore(),
+            alias,
+            handshakeMode(arguments)
+        );
+        out.println(CliJson.validation("check", host + ":" + port, alias, result));
+        recordHistory(HistoryEntry.validation(host, port, storeDigest(truststore), alias, result));
+        return result.success() ? EXIT_OK : EXIT_CHECK_FAILED;
+    }
+
+    private int probe(CliArguments arguments) throws Exception {
+        String host = requiredOption(arguments, "host");
+        int port = portOption(arguments);
+        String alias = arguments.option("alias");
+        LoadedTruststore truststore = loadTruststore(arguments);
+        ProtocolProbeMatrix matrix = tlsValidationService.probeProtocols(host, port, truststore.keyStore(), alias);
+        if (matrix.error() != null) {
+            out.println(CliJson.error(matrix.error()));
+            return EXIT_CHECK_FAILED;
+        }
+        boolean anyAccepted = false;
+        for (ProtocolProbeResult result : matrix.results()) {
+            out.println(CliJson.probe(host + ":" + port, result));
+            anyAccepted |= result.status() == ProbeStatus.ACCEPTED;
+        }
+        return anyAccepted ? EXIT_OK : EXIT_CHECK_FAILED;
+    }
+
+    private int scan(CliArguments arguments) throws Exception {
+        String host = requiredOption(arguments, "host");
+        int port = portOption(arguments);
+        AliasScanMode mode = switch (arguments.option("mode", "single")) {
+            case "single" -> AliasScanMode.SINGLE_HANDSHAKE;
+            case "per-alias" -> AliasScanMode.HANDSHAKE_PER_ALIAS;
+            default -> throw new UsageException("Option --mode must be 'single' or 'per-alias'");
+        };
+        LoadedTruststore truststore = loadTruststore(arguments);
+        AliasScanResult result = tlsValidationService.findValidAliases(
+            host,
+            port,
+            truststore.keyStore(),
+            truststore.anchorIndex(),
+            mode,
+            null,
+            new ScanCancellation()
+        );
+        out.println(CliJson.scan("scan", host + ":" + port, result));
+        recordHistory(HistoryEntry.aliasScan(host, port, storeDigest(truststore), result.peerChain(), result));
+        return result.error() == null && !result.validAliases().isEmpty() ? EXIT_OK : EXIT_CHECK_FAILED;
+    }
+
+    private int certificateFile(CliArguments arguments) throws Exception {
+        String file = requiredOption(arguments, "file");
+        String alias = arguments.option("alias");
+        String passwordEnv = arguments.option("pkcs12-password-env");
+        String pkcs12Password = passwordEnv == null ? null : System.getenv(passwordEnv);
+        LoadedTruststore truststore = loadTruststore(arguments);
+        PreparedCertificateFile prepared = tlsValidationService.prepareCertificateFile(file, pkcs12Password);
+        ValidationResult result = tlsValidationService.validateCertificateFile(prepared, truststore.keyStore(), alias);
+        out.println(CliJson.validation("cert-file", file, alias, result));
+        return result.success() ? EXIT_OK : EXIT_CHECK_FAILED;
+    }
+
+    private int batch(CliArguments arguments) throws Exception {
+        Path endpoints = Path.of(requiredOption(arguments, "endpoints"));
+        String output = arguments.option("output", "-");
+        BatchOutputFormat format = formatOption(arguments, output);
+        BatchValidationService batchService;
+        try {
+            batchService = new BatchValidationService(
+                tlsValidationService,
+                arguments.intOption("concurrency", BatchValidationService.DEFAULT_GLOBAL_CONCURRENCY),
+                arguments.intOption("per-host", BatchValidationService.DEFAULT_PER_HOST_CONCURRENCY),
+                engineOption(arguments),
+                handshakeMode(arguments)
+            );
+        } catch (IllegalArgumentException e) {
+            throw new UsageException(e.getMessage());
+        }
+        if (!Files.isRegularFile(endpoints)) {
+            throw new UsageException("Endpoint list is not a file: " + endpoints);
+        }
+        LoadedTruststore truststore = loadTruststore(arguments);
+
+        boolean toStdout = "-".equals(output);
+        Writer writer = toStdout
+            ? new OutputStreamWriter(out, StandardCharsets.UTF_8)
+            : Files.newBufferedWriter(Path.of(output), StandardCharsets.UTF_8);
+        BatchSummary summary;
+        BatchResultWriter resultWriter = BatchResultWriter.create(format, writer);
+        String digest = storeDigest(truststore);
+        BatchResultWriter recordingWriter = new BatchResultWriter() {
+            @Override
+            public void write(BatchEntryResult entry) throws IOException {
+                resultWriter.write(entry);
+                if (entry.target() != null) {
+                    recordHistory(HistoryEntry.validation(
+                        entry.target().host(),
+                        entry.target().port(),
+                        digest,
+                        null,
+                        entry.result()
+                    ));
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                resultWriter.close();
+            }
+        };
+        try {
+            summary = batchService.run(endpoints, truststore.keyStore(), null, recordingWriter, null, () -> false);
+        } finally {
+            if (toStdout) {
+                writer.flush();
+            } else {
+                resultWriter.close();
+            }
+        }
+        String summaryJson = "{\"command\":\"batch\",\"checked\":" + summary.checked()
+            + ",\"succeeded\":" + summary.succeeded()
+            + ",\"failed\":" + summary.failed()
+            + ",\"invalid\":" + summary.invalid() + "}";
+        (toStdout ? err : out).println(summaryJson);
+        return summary.failed() == 0 && summary.invalid() == 0 ? EXIT_OK : EXIT_CHECK_FAILED;
+    }
+
+    private LoadedTruststore loadTruststore(CliArguments arguments) throws LoadException, UsageException {
+        String store = arguments.option("store");
+        String url = arguments.option("url");
+        if (store != null && url != null) {
+            throw new UsageException("Use either --store or --url, not both");
+        }
+        if (store == null && url == null) {
+            store = trimmedEnv(ENV_PATH);
+            url = store == null ? trimmedEnv(ENV_URL) : null;
+        }
+        if (store == null && url == null) {
+            throw new UsageException("Truststore source is required: --store, --url, " + ENV_PATH + " or " + ENV_URL);
+        }
+        String password = System.getenv(arguments.option("password-env", ENV_PASSWORD));
+        if (password == null || password.isBlank()) {
+            password = DEFAULT_PASSWORD;
+        }
+        StoreSourceType sourceType = store != null ? StoreSourceType.FILE : StoreSourceType.URL_TAR_GZ;
+        try {
+            return truststoreLoader.load(sourceType, store != null ? store : url, password.toCharArray());
+        } catch (NoSuchFileException e) {
+            throw new LoadException("Truststore file is not found: " + e.getMessage());
+        } catch (Exception e) {
+            throw new LoadException(e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage());
+        }
+    }
+
+    private String requiredOption(CliArguments arguments, String name) throws UsageException {
+        try {
+            return arguments.required(name);
+        } catch (IllegalArgumentException e) {
+            throw new UsageException(e.getMessage());
+        }
+    }
+
+    private int portOption(CliArguments arguments) throws UsageException {
+        int port;
+        try {
+            port = arguments.intOption("port", 443);
+        } catch (IllegalArgumentException e) {
+            throw new UsageException(e.getMessage());
+        }
+        if (port < 1 || port > 65535) {
+            throw new UsageException("Option --port is out of range: " + port);
+        }
+        return port;
+    }
+
+    private BatchOutputFormat formatOption(CliArguments arguments, String output) throws UsageException {
+        String format = arguments.option("format");
+        if (format == null) {
+            return BatchOutputFormat.fromFileName(output);
+        }
+        return switch (format.toLowerCase()) {
+            case "ndjson" -> BatchOutputFormat.NDJSON;
+            case "csv" -> BatchOutputFormat.CSV;
+            default -> throw new UsageException("Option --format must be 'ndjson' or 'csv'");
+        };
+    }
+
+    private int watch(CliArguments arguments) throws Exception {
+        Path endpoints = Path.of(requiredOption(arguments, "endpoints"));
+        if (!Files.isRegularFile(endpoints)) {
+            throw new UsageException("Endpoint list is not a file: " + endpoints);
+        }
+        WatchSettings settings;
+        List<EndpointTarget> targets;
+        try {
+            settings = new WatchSettings(
+                Duration.ofSeconds(arguments.intOption(
+                    "interval",
+                    (int) WatchSettings.DEFAULT_INTERVAL.toSeconds()
+                )),
+                WatchSettings.DEFAULT_JITTER,
+                Duration.ofDays(arguments.intOption(
+                    "expiry-days",
+                    (int) WatchSettings.DEFAULT_EXPIRY_THRESHOLD.toDays()
+                )),
+                arguments.intOption("concurrency", WatchSettings.DEFAULT_CONCURRENCY)
+            );
+            targets = EndpointTarget.readAll(endpoints);
+        } catch (IllegalArgumentException e) {
+            throw new UsageException(e.getMessage());
+        }
+        LoadedTruststore truststore = loadTruststore(arguments);
+        CountDownLatch stopped = new CountDownLatch(1);
+        EndpointWatcher watcher = new EndpointWatcher(
+            tlsValidationService,
+            truststore.keyStore(),
+            arguments.option("alias"),
+            settings,
+            event -> {
+                synchronized (out) {
+                    out.println(CliJson.watchEvent(event));
+                    out.flush();
+                }
+            }
+        );
+        try {
+            // Watch runs until the process is stopped; the hook stops checks and flushes the history index.
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                watcher.close();
+                closeHistory();
+                stopped.countDown();
+            }, "watch-shutdown"));
+            watcher.start(targets);
+            stopped.await();
+        } finally {
+            watcher.close();
+        }
+        return EXIT_OK;
+    }
+
+    private int history(CliArguments arguments) throws Exception {
+        String host = requiredOption(arguments, "host");
+        int port = portOption(arguments);
+        if (history == null) {
+            throw new UsageException("Scan history is disabled; set TRUSTSTORE_HISTORY_DIR to enable it");
+        }
+        Optional<ChainChange> chainChange = history.lastChainChange(host, port);
+        List<AnchorSighting> anchors = history.anchoringAliases(host);
+        out.println(CliJson.history(host + ":" + port, chainChange.orElse(null), anchors));
+        return chainChange.isPresent() || !anchors.isEmpty() ? EXIT_OK : EXIT_CHECK_FAILED;
+    }
+
+    private synchronized void recordHistory(HistoryEntry entry) {
+        if (history == null) {
+            return;
+        }
+        try {
+            history.record(entry);
+        } catch (IOException e) {
+            if (!historyFailureReported) {
+                historyFailureReported = true;
+                err.println(CliJson.error("Scan history is not updated: " + e.getMessage()));
+            }
+        }
+    }
+
+    private void closeHistory() {
+        if (history == null) {
+            return;
+        }
+        try {
+            history.close();
+        } catch (IOException e) {
+            err.println(CliJson.error("Failed to save scan history index: " + e.getMessage()));
+        }
+    }
+
+    private static String storeDigest(LoadedTruststore truststore) {
+        return truststore.anchorIndex() == null ? null : truststore.anchorIndex().storeDigest();
+    }
+
+    private BatchEngine engineOption(CliArguments arguments) throws UsageException {
+        String engine = arguments.option("engine", "blocking");
+        return switch (engine.toLowerCase()) {
+            case "blocking" -> BatchEngine.BLOCKING;
+            case "nio" -> BatchEngine.NIO;
+            default -> throw new UsageException("Option --engine must be 'blocking' or 'nio'");
+        };
+    }
+
+    private HandshakeMode handshakeMode(CliArguments arguments) {
+        return arguments.has("certificate-only") ? HandshakeMode.CERTIFICATE_ONLY : HandshakeMode.FULL;
+    }
+
+    private int usageError(String message) {
+        err.println(CliJson.error(message));
+        err.print(USAGE);
+        return EXIT_USAGE;
+    }
+
+    private String trimmedEnv(String name) {
+        String value = System.getenv(name);
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private static final class UsageException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        private UsageException(String message) {
+            super(message);
+        }
+    }
+
+    private static final class LoadException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        private LoadException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package app.cli;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+final class CliArguments {
+    private static final Set<String> FLAGS = Set.of("help", "certificate-only", "all-addresses");
+
+    private final String command;
+    private final Map<String, String> options;
+
+    private CliArguments(String command, Map<String, String> options) {
+        this.command = command;
+        this.options = options;
+    }
+
+    static CliArguments parse(String[] args, Set<String> knownOptions) {
+        String command = null;
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                if (command != null) {
+                    throw new IllegalArgumentException("Unexpected argument: " + arg);
+                }
+                command = arg;
+                continue;
+            }
+            String name = arg.substring(2);
+            String value = null;
+            int equals = name.indexOf('=');
+            if (equals >= 0) {
+                value = name.substring(equals + 1);
+                name = name.substring(0, equals);
+            }
+            if (!knownOptions.contains(name) && !FLAGS.contains(name)) {
+                throw new IllegalArgumentException("Unknown option: --" + name);
+            }
+            if (FLAGS.contains(name)) {
+                options.put(name, "true");
+                continue;
+            }
+            if (value == null) {
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for option --" + name);
+                }
+                value = args[++i];
+            }
+            options.put(name, value);
+        }
+        return new CliArguments(command, options);
+    }
+
+    String command() {
+        return command;
+    }
+
+    boolean has(String name) {
+        return options.containsKey(name);
+    }
+
+    String option(String name) {
+        return options.get(name);
+    }
+
+    String option(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+
+    String required(String name) {
+        String value = options.get(name);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Option --" + name + " is required");
+        }
+        return value;
+    }
+
+    int intOption(String name, int defaultValue) {
+        String value = options.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Option --" + name + " must be a number: " + value);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package app.cli;
+
+import app.history.AnchorSighting;
+import app.history.ChainChange;
+import app.history.HistoryEntry;
+import app.tls.AddressValidationResult;
+import app.tls.AliasScanResult;
+import app.tls.ChainCertificateInfo;
+import app.tls.LatencySummary;
+import app.tls.PhaseLatency;
+import app.tls.PhaseTimings;
+import app.tls.ProtocolProbeResult;
+import app.tls.ValidationResult;
+import app.truststore.CertificateInfo;
+import app.util.Json;
+import app.watch.WatchEvent;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+final class CliJson {
+    private CliJson() {
+    }
+
+    static String validation(String command, String target, String alias, ValidationResult result) {
+        return "{\"command\":" + Json.quote(command)
+            + ",\"target\":" + Json.quote(target)
+            + ",\"alias\":" + Json.quote(alias)
+            + ",\"success\":" + result.success()
+            + ",\"message\":" + Json.quote(result.message())
+            + ",\"chain\":" + chain(result.peerChain())
+            + ",\"timingsMs\":" + timings(result.timings())
+            + "}";
+    }
+
+    static String addressValidation(String command, String target, String alias, AddressValidationResult entry) {
+        ValidationResult result = entry.result();
+        return "{\"command\":" + Json.quote(command)
+            + ",\"target\":" + Json.quote(target)
+            + ",\"address\":" + Json.quote(entry.address() == null ? null : entry.addressText())
+            + ",\"alias\":" + Json.quote(alias)
+            + ",\"success\":" + result.success()
+            + ",\"message\":" + Json.quote(result.message())
+            + ",\"chain\":" + chain(result.peerChain())
+            + ",\"timingsMs\":" + timings(result.timings())
+            + "}";
+    }
+
+    static String scan(String command, String target, AliasScanResult result) {
+        return "{\"command\":" + Json.quote(command)
+            + ",\"target\":" + Json.quote(target)
+            + ",\"validAliases\":" + strings(result.validAliases())
+            + ",\"checked\":" + result.checkedAliases()
+            + ",\"failed\":" + result.failedAliases()
+            + ",\"error\":" + Json.quote(result.error())
+            + ",\"aliasErrors\":" + stringMap(result.aliasErrors())
+            + ",\"latencyMs\":" + latency(result.latency())
+            + "}";
+    }
+
+    static String probe(String target, ProtocolProbeResult result) {
+        return "{\"command\":\"probe\""
+            + ",\"target\":" + Json.quote(target)
+            + ",\"protocol\":" + Json.quote(result.protocol())
+            + ",\"cipherGroup\":" + Json.quote(result.cipherGroup())
+            + ",\"status\":" + Json.quote(result.status().name())
+            + ",\"cipherSuite\":" + Json.quote(result.negotiatedCipherSuite())
+            + ",\"detail\":" + Json.quote(result.detail())
+            + ",\"elapsedMs\":" + millis(result.elapsed())
+            + "}";
+    }
+
+    static String watchEvent(WatchEvent event) {
+        return "{\"command\":\"watch\""
+            + ",\"at\":" + Json.quote(event.at().toString())
+            + ",\"target\":" + Json.quote(event.target().toString())
+            + ",\"event\":" + Json.quote(event.type().name())
+            + ",\"status\":" + Json.quote(event.status().name())
+            + ",\"detail\":" + Json.quote(event.detail())
+            + ",\"fingerprint\":" + Json.quote(event.fingerprint())
+            + ",\"message\":" + Json.quote(event.result().message())
+            + "}";
+    }
+
+    static String history(String target, ChainChange chainChange, List<AnchorSighting> anchors) {
+        StringBuilder out = new StringBuilder("{\"command\":\"history\"")
+            .append(",\"target\":").append(Json.quote(target))
+            .append(",\"lastChainChange\":");
+        if (chainChange == null) {
+            out.append("null");
+        } else {
+            HistoryEntry entry = chainChange.entry();
+            out.append("{\"at\":").append(Json.quote(chainChange.changedAt().toString()))
+                .append(",\"chain\":").append(strings(entry.chainFingerprints()))
+                .append(",\"previousChain\":").append(strings(chainChange.previousChain()))
+                .append(",\"success\":").append(entry.success())
+                .append(",\"message\":").append(Json.quote(entry.message()))
+                .append(",\"truststoreDigest\":").append(Json.quote(entry.truststoreDigest()))
+                .append(",\"lastSeen\":").append(Json.quote(chainChange.lastSeen().toString()))
+                .append(",\"observations\":").append(chainChange.observations())
+                .append('}');
+        }
+        out.append(",\"anchoringAliases\":[");
+        for (int i = 0; i < anchors.size(); i++) {
+            AnchorSighting anchor = anchors.get(i);
+            if (i > 0) {
+                out.append(',');
+            }
+            out.append("{\"alias\":").append(Json.quote(anchor.alias()))
+                .append(",\"firstSeen\":").append(Json.quote(anchor.firstSeen().toString()))
+                .append(",\"lastSeen\":").append(Json.quote(anchor.lastSeen().toString()))
+                .append(",\"count\":").append(anchor.count())
+                .append('}');
+        }
+        return out.append("]}").toString();
+    }
+
+    static String certificate(CertificateInfo cert) {
+        return "{\"alias\":" + Json.quote(cert.alias())
+            + ",\"subject\":" + Json.quote(cert.subject())
+            + ",\"issuer\":" + Json.quote(cert.issuer())
+            + ",\"serial\":" + Json.quote(cert.serialNumberHex())
+            + ",\"notBefore\":" + Json.quote(cert.notBefore().toString())
+            + ",\"notAfter\":" + Json.quote(cert.notAfter().toString())
+            + ",\"status\":" + Json.quote(cert.status())
+            + ",\"altNames\":" + strings(cert.altNames())
+            + "}";
+    }
+
+    static String error(String message) {
+        return "{\"error\":" + Json.quote(message) + "}";
+    }
+
+    static String chain(List<ChainCertificateInfo> chain) {
+        StringBuilder out = new StringBuilder("[");
+        for (int i = 0; i < chain.size(); i++) {
+            ChainCertificateInfo cert = chain.get(i);
+            if (i > 0) {
+                out.append(',');
+            }
+            out.append("{\"subject\":").append(Json.quote(cert.subject()))
+                .append(",\"issuer\":").append(Json.quote(cert.issuer()))
+                .append(",\"notAfter\":").append(Json.quote(cert.notAfter().toString()))
+                .append(",\"sha256\":").append(Json.quote(cert.sha256()))
+                .append('}');
+        }
+        return out.append(']').toString();
+    }
+
+    static String timings(PhaseTimings timings) {
+        return "{\"dns\":" + millis(timings.dns())
+            + ",\"connect\":" + millis(timings.connect())
+            + ",\"handshake\":" + millis(timings.handshake())
+            + ",\"trust\":" + millis(timings.trust())
+            + "}";
+    }
+
+    static String latency(PhaseLatency latency) {
+        return "{\"dns\":" + summary(latency.dns())
+            + ",\"connect\":" + summary(latency.connect())
+            + ",\"handshake\":" + summary(latency.handshake())
+            + ",\"trust\":" + summary(latency.trust())
+            + "}";
+    }
+
+    private static String summary(LatencySummary summary) {
+        if (summary.isEmpty()) {
+            return "null";
+        }
+        return "{\"samples\":" + summary.samples()
+            + ",\"p50\":" + millis(summary.p50())
+            + ",\"p95\":" + millis(summary.p95())
+            + ",\"max\":" + millis(summary.max())
+            + "}";
+    }
+
+    static String millis(Duration duration) {
+        if (duration == null) {
+            return "null";
+        }
+        return String.format(Locale.ROOT, "%.3f", duration.toNanos() / 1_000_000.0);
+    }
+
+    static String strings(List<String> values) {
+        StringBuilder out = new StringBuilder("[");
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            out.append(Json.quote(values.get(i)));
+        }
+        return out.append(']').toString();
+    }
+
+    static String stringMap(Map<String, String> values) {
+        StringBuilder out = new StringBuilder("{");
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            if (out.length() > 1) {
+                out.append(',');
+            }
+            out.append(Json.quote(entry.getKey())).append(':').append(Json.quote(entry.getValue()));
+        }
+        return out.append('}').toString();
+    }
+}
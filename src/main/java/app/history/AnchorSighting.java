@@ -0,0 +1,6 @@
+package app.history;
+
+import java.time.Instant;
+
+public record AnchorSighting(String alias, Instant firstSeen, Instant lastSeen, int count) {
+}
@@ -0,0 +1,16 @@
+package app.history;
+
+import java.time.Instant;
+import java.util.List;
+
+public record ChainChange(
+    Instant changedAt,
+    List<String> previousChain,
+    HistoryEntry entry,
+    Instant lastSeen,
+    int observations
+) {
+    public boolean firstSeen() {
+        return previousChain.isEmpty();
+    }
+}
@@ -0,0 +1,128 @@
+package app.history;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+final class HistoryCodec {
+    static final int RECORD_HEADER_BYTES = 8;
+    static final int MAX_RECORD_BYTES = 1 << 20;
+
+    private static final byte RECORD_VERSION = 1;
+
+    private HistoryCodec() {
+    }
+
+    // Frame: payload length, CRC32 of the payload, payload. A torn tail fails the length or CRC check.
+    static byte[] encodeRecord(HistoryEntry entry) throws IOException {
+        ByteArrayOutputStream payloadBytes = new ByteArrayOutputStream(256);
+        DataOutputStream payload = new DataOutputStream(payloadBytes);
+        payload.writeByte(RECORD_VERSION);
+        payload.writeLong(entry.at().toEpochMilli());
+        payload.writeByte(entry.kind().ordinal());
+        writeString(payload, entry.host());
+        payload.writeInt(entry.port());
+        writeNullableString(payload, entry.truststoreDigest());
+        payload.writeBoolean(entry.success());
+        writeString(payload, entry.message() == null ? "" : entry.message());
+        writeNullableString(payload, entry.alias());
+        writeStrings(payload, entry.chainFingerprints());
+        writeStrings(payload, entry.anchoredAliases());
+        payload.flush();
+        byte[] body = payloadBytes.toByteArray();
+
+        ByteArrayOutputStream frameBytes = new ByteArrayOutputStream(RECORD_HEADER_BYTES + body.length);
+        DataOutputStream frame = new DataOutputStream(frameBytes);
+        frame.writeInt(body.length);
+        frame.writeInt(crc(body));
+        frame.write(body);
+        frame.flush();
+        return frameBytes.toByteArray();
+    }
+
+    static HistoryEntry decodePayload(byte[] body) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(body));
+        byte version = in.readByte();
+        if (version != RECORD_VERSION) {
+            throw new IOException("Unsupported history record version " + version);
+        }
+        Instant at = Instant.ofEpochMilli(in.readLong());
+        int kind = in.readByte();
+        if (kind < 0 || kind >= HistoryKind.values().length) {
+            throw new IOException("Unknown history record kind " + kind);
+        }
+        return new HistoryEntry(
+            at,
+            HistoryKind.values()[kind],
+            readString(in),
+            in.readInt(),
+            readNullableString(in),
+            in.readBoolean(),
+            readString(in),
+            readNullableString(in),
+            readStrings(in),
+            readStrings(in)
+        );
+    }
+
+    static int crc(byte[] body) {
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        return (int) crc.getValue();
+    }
+
+    static void writeString(DataOutput out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > MAX_RECORD_BYTES) {
+            throw new IOException("Invalid string length " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static void writeNullableString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            writeString(out, value);
+        }
+    }
+
+    static String readNullableString(DataInput in) throws IOException {
+        return in.readBoolean() ? readString(in) : null;
+    }
+
+    static void writeStrings(DataOutput out, List<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    static List<String> readStrings(DataInput in) throws IOException {
+        int size = in.readInt();
+        if (size < 0 || size > MAX_RECORD_BYTES) {
+            throw new IOException("Invalid list size " + size);
+        }
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(readString(in));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,84 @@
+package app.history;
+
+import app.tls.AliasScanResult;
+import app.tls.ChainCertificateInfo;
+import app.tls.ValidationResult;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+public record HistoryEntry(
+    Instant at,
+    HistoryKind kind,
+    String host,
+    int port,
+    String truststoreDigest,
+    boolean success,
+    String message,
+    String alias,
+    List<String> chainFingerprints,
+    List<String> anchoredAliases
+) {
+    public HistoryEntry {
+        at = at.truncatedTo(ChronoUnit.MILLIS);
+        chainFingerprints = List.copyOf(chainFingerprints);
+        anchoredAliases = List.copyOf(anchoredAliases);
+    }
+
+    public static HistoryEntry validation(
+        String host,
+        int port,
+        String truststoreDigest,
+        String alias,
+        ValidationResult result
+    ) {
+        boolean aliasAnchored = result.success() && alias != null && !alias.isBlank();
+        return new HistoryEntry(
+            Instant.now(),
+            HistoryKind.VALIDATION,
+            host,
+            port,
+            truststoreDigest,
+            result.success(),
+            result.message(),
+            alias,
+            fingerprints(result.peerChain()),
+            aliasAnchored ? List.of(alias) : List.of()
+        );
+    }
+
+    public static HistoryEntry aliasScan(
+        String host,
+        int port,
+        String truststoreDigest,
+        List<ChainCertificateInfo> peerChain,
+        AliasScanResult result
+    ) {
+        String message = result.error() != null
+            ? result.error()
+            : result.validAliases().size() + " of " + result.checkedAliases() + " aliases validated";
+        return new HistoryEntry(
+            Instant.now(),
+            HistoryKind.ALIAS_SCAN,
+            host,
+            port,
+            truststoreDigest,
+            result.error() == null && !result.validAliases().isEmpty(),
+            message,
+            null,
+            fingerprints(peerChain),
+            result.validAliases()
+        );
+    }
+
+    private static List<String> fingerprints(List<ChainCertificateInfo> chain) {
+        List<String> fingerprints = new ArrayList<>(chain.size());
+        for (ChainCertificateInfo certificate : chain) {
+            if (certificate.sha256() != null) {
+                fingerprints.add(certificate.sha256());
+            }
+        }
+        return fingerprints;
+    }
+}
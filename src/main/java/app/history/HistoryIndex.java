@@ -0,0 +1,179 @@
+package app.history;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// In-memory summary of the log up to `end`; persisted so that opening the history only replays the tail.
+final class HistoryIndex {
+    private static final int MAGIC = 0x54534849;
+    private static final int VERSION = 1;
+
+    private LogPosition end = LogPosition.START;
+    private final Map<String, EndpointState> endpoints = new HashMap<>();
+    private final Map<String, Map<String, AnchorSighting>> anchorsByHost = new HashMap<>();
+
+    LogPosition end() {
+        return end;
+    }
+
+    void apply(HistoryEntry entry, LogPosition start, LogPosition next) {
+        end = next;
+        if (!entry.chainFingerprints().isEmpty()) {
+            EndpointState state = endpoints.computeIfAbsent(endpointKey(entry.host(), entry.port()), key -> new EndpointState());
+            if (!entry.chainFingerprints().equals(state.chain)) {
+                state.previousChain = state.chain;
+                state.chain = entry.chainFingerprints();
+                state.changedAt = start;
+                state.changedTime = entry.at();
+            }
+            state.lastSeen = entry.at();
+            state.observations++;
+        }
+        if (!entry.anchoredAliases().isEmpty()) {
+            Map<String, AnchorSighting> anchors = anchorsByHost.computeIfAbsent(hostKey(entry.host()), key -> new HashMap<>());
+            for (String alias : entry.anchoredAliases()) {
+                AnchorSighting seen = anchors.get(alias);
+                anchors.put(alias, seen == null
+                    ? new AnchorSighting(alias, entry.at(), entry.at(), 1)
+                    : new AnchorSighting(alias, seen.firstSeen(), entry.at(), seen.count() + 1));
+            }
+        }
+    }
+
+    EndpointState endpoint(String host, int port) {
+        return endpoints.get(endpointKey(host, port));
+    }
+
+    List<AnchorSighting> anchors(String host) {
+        List<AnchorSighting> anchors = new ArrayList<>(anchorsByHost.getOrDefault(hostKey(host), Map.of()).values());
+        anchors.sort(Comparator.comparing(AnchorSighting::lastSeen).reversed().thenComparing(AnchorSighting::alias));
+        return anchors;
+    }
+
+    static HistoryIndex read(Path path) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return new HistoryIndex();
+            }
+            HistoryIndex index = new HistoryIndex();
+            index.end = new LogPosition(in.readInt(), in.readLong());
+            int endpointCount = in.readInt();
+            for (int i = 0; i < endpointCount; i++) {
+                String key = HistoryCodec.readString(in);
+                EndpointState state = new EndpointState();
+                state.chain = HistoryCodec.readStrings(in);
+                state.previousChain = HistoryCodec.readStrings(in);
+                state.changedAt = new LogPosition(in.readInt(), in.readLong());
+                state.changedTime = Instant.ofEpochMilli(in.readLong());
+                state.lastSeen = Instant.ofEpochMilli(in.readLong());
+                state.observations = in.readInt();
+                index.endpoints.put(key, state);
+            }
+            int hostCount = in.readInt();
+            for (int i = 0; i < hostCount; i++) {
+                String host = HistoryCodec.readString(in);
+                int aliasCount = in.readInt();
+                Map<String, AnchorSighting> anchors = new LinkedHashMap<>();
+                for (int j = 0; j < aliasCount; j++) {
+                    String alias = HistoryCodec.readString(in);
+                    anchors.put(alias, new AnchorSighting(
+                        alias,
+                        Instant.ofEpochMilli(in.readLong()),
+                        Instant.ofEpochMilli(in.readLong()),
+                        in.readInt()
+                    ));
+                }
+                index.anchorsByHost.put(host, anchors);
+            }
+            return index;
+        } catch (IOException | RuntimeException e) {
+            // Missing or damaged: the index is only a cache, the log is replayed from the start.
+            return new HistoryIndex();
+        }
+    }
+
+    void write(Path path) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(end.segment());
+            out.writeLong(end.offset());
+            out.writeInt(endpoints.size());
+            for (Map.Entry<String, EndpointState> entry : endpoints.entrySet()) {
+                EndpointState state = entry.getValue();
+                HistoryCodec.writeString(out, entry.getKey());
+                HistoryCodec.writeStrings(out, state.chain);
+                HistoryCodec.writeStrings(out, state.previousChain);
+                out.writeInt(state.changedAt.segment());
+                out.writeLong(state.changedAt.offset());
+                out.writeLong(state.changedTime.toEpochMilli());
+                out.writeLong(state.lastSeen.toEpochMilli());
+                out.writeInt(state.observations);
+            }
+            out.writeInt(anchorsByHost.size());
+            for (Map.Entry<String, Map<String, AnchorSighting>> entry : anchorsByHost.entrySet()) {
+                HistoryCodec.writeString(out, entry.getKey());
+                out.writeInt(entry.getValue().size());
+                for (AnchorSighting sighting : entry.getValue().values()) {
+                    HistoryCodec.writeString(out, sighting.alias());
+                    out.writeLong(sighting.firstSeen().toEpochMilli());
+                    out.writeLong(sighting.lastSeen().toEpochMilli());
+                    out.writeInt(sighting.count());
+                }
+            }
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String endpointKey(String host, int port) {
+        return hostKey(host) + ":" + port;
+    }
+
+    private static String hostKey(String host) {
+        return host.trim().toLowerCase(Locale.ROOT);
+    }
+
+    static final class EndpointState {
+        private List<String> chain = List.of();
+        private List<String> previousChain = List.of();
+        private LogPosition changedAt = LogPosition.START;
+        private Instant changedTime = Instant.EPOCH;
+        private Instant lastSeen = Instant.EPOCH;
+        private int observations;
+
+        List<String> previousChain() {
+            return previousChain;
+        }
+
+        LogPosition changedAt() {
+            return changedAt;
+        }
+
+        Instant changedTime() {
+            return changedTime;
+        }
+
+        Instant lastSeen() {
+            return lastSeen;
+        }
+
+        int observations() {
+            return observations;
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package app.history;
+
+public enum HistoryKind {
+    VALIDATION,
+    ALIAS_SCAN
+}
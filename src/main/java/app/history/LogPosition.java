@@ -0,0 +1,5 @@
+package app.history;
+
+record LogPosition(int segment, long offset) {
+    static final LogPosition START = new LogPosition(1, 0);
+}
@@ -0,0 +1,223 @@
+package app.history;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Optional;
+
+public class ScanHistory implements AutoCloseable {
+    public static final long DEFAULT_SEGMENT_BYTES = 4L * 1024 * 1024;
+
+    private static final String LOCK_FILE = "history.lock";
+    private static final String INDEX_FILE = "history.idx";
+    private static final int INDEX_FLUSH_INTERVAL = 64;
+
+    private final Path directory;
+    private final long segmentBytes;
+    private FileChannel lockChannel;
+    private HistoryIndex index;
+    private int unflushedRecords;
+
+    public ScanHistory(Path directory) {
+        this(directory, DEFAULT_SEGMENT_BYTES);
+    }
+
+    public ScanHistory(Path directory, long segmentBytes) {
+        if (segmentBytes < 1024) {
+            throw new IllegalArgumentException("History segment size must be at least 1024 bytes");
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+    }
+
+    public Path directory() {
+        return directory;
+    }
+
+    public synchronized void record(HistoryEntry entry) throws IOException {
+        open();
+        byte[] record = HistoryCodec.encodeRecord(entry);
+        // Other processes may append to the same directory; the lock serialises catch-up and append.
+        FileLock lock = lockChannel.lock();
+        try {
+            catchUp(true);
+            LogPosition start = index.end();
+            if (start.offset() > 0 && start.offset() + record.length > segmentBytes) {
+                start = new LogPosition(start.segment() + 1, 0);
+            }
+            try (FileChannel channel = FileChannel.open(
+                segmentPath(start.segment()),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE
+            )) {
+                ByteBuffer buffer = ByteBuffer.wrap(record);
+                long position = start.offset();
+                while (buffer.hasRemaining()) {
+                    position += channel.write(buffer, position);
+                }
+            }
+            index.apply(entry, start, new LogPosition(start.segment(), start.offset() + record.length));
+            if (++unflushedRecords >= INDEX_FLUSH_INTERVAL) {
+                flushIndex();
+            }
+        } finally {
+            lock.release();
+        }
+    }
+
+    public synchronized Optional<ChainChange> lastChainChange(String host, int port) throws IOException {
+        open();
+        catchUp(false);
+        HistoryIndex.EndpointState state = index.endpoint(host, port);
+        if (state == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new ChainChange(
+            state.changedTime(),
+            state.previousChain(),
+            readEntry(state.changedAt()),
+            state.lastSeen(),
+            state.observations()
+        ));
+    }
+
+    public synchronized List<AnchorSighting> anchoringAliases(String host) throws IOException {
+        open();
+        catchUp(false);
+        return index.anchors(host);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (lockChannel == null) {
+            return;
+        }
+        try {
+            if (unflushedRecords > 0) {
+                FileLock lock = lockChannel.lock();
+                try {
+                    flushIndex();
+                } finally {
+                    lock.release();
+                }
+            }
+        } finally {
+            lockChannel.close();
+            lockChannel = null;
+            index = null;
+        }
+    }
+
+    private void open() throws IOException {
+        if (lockChannel != null) {
+            return;
+        }
+        Files.createDirectories(directory);
+        lockChannel = FileChannel.open(
+            directory.resolve(LOCK_FILE),
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE
+        );
+        index = HistoryIndex.read(directory.resolve(INDEX_FILE));
+    }
+
+    private void flushIndex() throws IOException {
+        index.write(directory.resolve(INDEX_FILE));
+        unflushedRecords = 0;
+    }
+
+    // Replays records written after the indexed position, including those appended by other processes.
+    private void catchUp(boolean repairTail) throws IOException {
+        LogPosition position = index.end();
+        Path current = segmentPath(position.segment());
+        long available = Files.exists(current) ? Files.size(current) : 0;
+        if (available < position.offset()) {
+            // The log was removed or truncated behind the index; rebuild from the first segment.
+            index = new HistoryIndex();
+            position = index.end();
+        }
+        while (Files.exists(segmentPath(position.segment()))) {
+            if (!replaySegment(position, repairTail) || !Files.exists(segmentPath(position.segment() + 1))) {
+                return;
+            }
+            position = new LogPosition(position.segment() + 1, 0);
+        }
+    }
+
+    // Returns false when the segment ends in a torn record, which is truncated when repairTail is set.
+    private boolean replaySegment(LogPosition from, boolean repairTail) throws IOException {
+        long offset = from.offset();
+        try (FileChannel channel = FileChannel.open(
+            segmentPath(from.segment()),
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE
+        )) {
+            long size = channel.size();
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel.position(offset))));
+            while (offset < size) {
+                Frame frame = readFrame(in, size - offset);
+                if (frame == null) {
+                    if (repairTail) {
+                        channel.truncate(offset);
+                    }
+                    return false;
+                }
+                long next = offset + frame.bytes();
+                index.apply(frame.entry(), new LogPosition(from.segment(), offset), new LogPosition(from.segment(), next));
+                offset = next;
+            }
+        }
+        return true;
+    }
+
+    private HistoryEntry readEntry(LogPosition position) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(position.segment()), StandardOpenOption.READ)) {
+            long remaining = channel.size() - position.offset();
+            InputStream stream = Channels.newInputStream(channel.position(position.offset()));
+            Frame frame = readFrame(new DataInputStream(new BufferedInputStream(stream)), remaining);
+            if (frame == null) {
+                throw new IOException("History record is damaged at segment " + position.segment()
+                    + ", offset " + position.offset());
+            }
+            return frame.entry();
+        }
+    }
+
+    private Frame readFrame(DataInputStream in, long remaining) throws IOException {
+        if (remaining < HistoryCodec.RECORD_HEADER_BYTES) {
+            return null;
+        }
+        int length = in.readInt();
+        int crc = in.readInt();
+        if (length <= 0 || length > HistoryCodec.MAX_RECORD_BYTES || length > remaining - HistoryCodec.RECORD_HEADER_BYTES) {
+            return null;
+        }
+        byte[] body = new byte[length];
+        try {
+            in.readFully(body);
+        } catch (EOFException e) {
+            return null;
+        }
+        if (HistoryCodec.crc(body) != crc) {
+            return null;
+        }
+        return new Frame(HistoryCodec.decodePayload(body), HistoryCodec.RECORD_HEADER_BYTES + length);
+    }
+
+    private Path segmentPath(int segment) {
+        return directory.resolve(String.format("history-%06d.seg", segment));
+    }
+
+    private record Frame(HistoryEntry entry, int bytes) {
+    }
+}
@@ -0,0 +1,66 @@
+package app.metrics;
+
+import app.tls.PhaseTimings;
+import app.tls.ValidationListener;
+import app.tls.ValidationOutcome;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+public class HandshakeMetrics implements ValidationListener {
+    private final Map<ValidationOutcome, LongAdder> outcomes = new EnumMap<>(ValidationOutcome.class);
+    private final LatencyHistogram dns = new LatencyHistogram();
+    private final LatencyHistogram connect = new LatencyHistogram();
+    private final LatencyHistogram handshake = new LatencyHistogram();
+    private final LatencyHistogram trust = new LatencyHistogram();
+
+    public HandshakeMetrics() {
+        for (ValidationOutcome outcome : ValidationOutcome.values()) {
+            outcomes.put(outcome, new LongAdder());
+        }
+    }
+
+    @Override
+    public void handshakeCompleted(ValidationOutcome outcome, PhaseTimings timings) {
+        outcomes.get(outcome).increment();
+        record(dns, timings.dns());
+        record(connect, timings.connect());
+        record(handshake, timings.handshake());
+        record(trust, timings.trust());
+    }
+
+    private void record(LatencyHistogram histogram, Duration duration) {
+        if (duration != null) {
+            histogram.record(duration);
+        }
+    }
+
+    void write(StringBuilder out) {
+        PrometheusText.header(out, "truststore_tls_checks_total", "counter", "TLS checks by outcome.");
+        for (Map.Entry<ValidationOutcome, LongAdder> entry : outcomes.entrySet()) {
+            PrometheusText.sample(
+                out,
+                "truststore_tls_checks_total",
+                PrometheusText.label("outcome", entry.getKey().name().toLowerCase(Locale.ROOT)),
+                entry.getValue().sum()
+            );
+        }
+        long errors = 0;
+        for (Map.Entry<ValidationOutcome, LongAdder> entry : outcomes.entrySet()) {
+            if (entry.getKey().isError()) {
+                errors += entry.getValue().sum();
+            }
+        }
+        PrometheusText.header(out, "truststore_tls_errors_total", "counter", "TLS checks that failed before a trust verdict.");
+        PrometheusText.sample(out, "truststore_tls_errors_total", null, errors);
+
+        String name = "truststore_tls_phase_duration_seconds";
+        PrometheusText.header(out, name, "histogram", "Duration of each TLS check phase.");
+        dns.write(out, name, PrometheusText.label("phase", "dns"));
+        connect.write(out, name, PrometheusText.label("phase", "connect"));
+        handshake.write(out, name, PrometheusText.label("phase", "handshake"));
+        trust.write(out, name, PrometheusText.label("phase", "trust"));
+    }
+}
@@ -0,0 +1,49 @@
+package app.metrics;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+final class LatencyHistogram {
+    private static final double[] BUCKET_SECONDS = {0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10};
+
+    private final LongAdder[] buckets = new LongAdder[BUCKET_SECONDS.length];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumNanos = new LongAdder();
+
+    LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    void record(Duration duration) {
+        long nanos = duration.toNanos();
+        double seconds = nanos / 1_000_000_000.0;
+        for (int i = 0; i < BUCKET_SECONDS.length; i++) {
+            if (seconds <= BUCKET_SECONDS[i]) {
+                buckets[i].increment();
+                break;
+            }
+        }
+        count.increment();
+        sumNanos.add(nanos);
+    }
+
+    void write(StringBuilder out, String name, String labels) {
+        // Buckets are stored per range and made cumulative only when rendered.
+        long cumulative = 0;
+        for (int i = 0; i < BUCKET_SECONDS.length; i++) {
+            cumulative += buckets[i].sum();
+            PrometheusText.sample(
+                out,
+                name + "_bucket",
+                labels + ",le=\"" + PrometheusText.number(BUCKET_SECONDS[i]) + "\"",
+                cumulative
+            );
+        }
+        long total = count.sum();
+        PrometheusText.sample(out, name + "_bucket", labels + ",le=\"+Inf\"", total);
+        PrometheusText.sample(out, name + "_sum", labels, sumNanos.sum() / 1_000_000_000.0);
+        PrometheusText.sample(out, name + "_count", labels, total);
+    }
+}
@@ -0,0 +1,112 @@
+package app.metrics;
+
+import app.truststore.CertificateInfo;
+import app.truststore.CertificateViewService;
+import app.truststore.LoadedTruststore;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+public class TruststoreMetrics {
+    public static final Duration EXPIRING_SOON = Duration.ofDays(30);
+
+    private static final double SECONDS_PER_DAY = 86_400.0;
+
+    private final CertificateViewService certificateViewService;
+    private volatile Snapshot snapshot;
+
+    public TruststoreMetrics() {
+        this(new CertificateViewService());
+    }
+
+    public TruststoreMetrics(CertificateViewService certificateViewService) {
+        this.certificateViewService = certificateViewService;
+    }
+
+    public void truststoreLoaded(LoadedTruststore truststore) {
+        List<CertificateInfo> certificates;
+        try {
+            certificates = certificateViewService.listCertificates(truststore);
+        } catch (Exception e) {
+            certificates = List.of();
+        }
+        snapshot = Snapshot.of(truststore, certificates, Instant.now());
+    }
+
+    void write(StringBuilder out, Instant now) {
+        Snapshot current = snapshot;
+        PrometheusText.header(out, "truststore_loaded", "gauge", "1 when a truststore has been loaded.");
+        PrometheusText.sample(out, "truststore_loaded", null, current == null ? 0 : 1);
+        if (current == null) {
+            return;
+        }
+        PrometheusText.header(out, "truststore_info", "gauge", "Source and type of the loaded truststore.");
+        PrometheusText.sample(out, "truststore_info", current.infoLabels, 1);
+        PrometheusText.header(out, "truststore_load_duration_seconds", "gauge", "Time spent loading the truststore.");
+        PrometheusText.sample(out, "truststore_load_duration_seconds", null, current.loadDuration.toNanos() / 1_000_000_000.0);
+        PrometheusText.header(out, "truststore_load_timestamp_seconds", "gauge", "When the truststore was loaded.");
+        PrometheusText.sample(out, "truststore_load_timestamp_seconds", null, current.loadedAt.getEpochSecond());
+        PrometheusText.header(out, "truststore_certificates", "gauge", "X.509 certificates in the truststore.");
+        PrometheusText.sample(out, "truststore_certificates", null, current.notAfterSeconds.length);
+
+        long nowSeconds = now.getEpochSecond();
+        int expired = current.countNotAfterBefore(nowSeconds);
+        int expiringSoon = current.countNotAfterBefore(nowSeconds + EXPIRING_SOON.toSeconds()) - expired;
+        PrometheusText.header(out, "truststore_certificates_expired", "gauge", "Certificates past notAfter.");
+        PrometheusText.sample(out, "truststore_certificates_expired", null, expired);
+        PrometheusText.header(
+            out,
+            "truststore_certificates_expiring_soon",
+            "gauge",
+            "Certificates expiring within " + EXPIRING_SOON.toDays() + " days."
+        );
+        PrometheusText.sample(out, "truststore_certificates_expiring_soon", null, expiringSoon);
+
+        PrometheusText.header(out, "truststore_certificate_days_to_expiry", "gauge", "Days until notAfter per alias.");
+        for (int i = 0; i < current.notAfterSeconds.length; i++) {
+            double days = Math.floor((current.notAfterSeconds[i] - nowSeconds) / SECONDS_PER_DAY * 100) / 100;
+            PrometheusText.sample(out, "truststore_certificate_days_to_expiry", current.aliasLabels[i], days);
+        }
+    }
+
+    // Built once per load; scrapes only compare notAfter against the clock.
+    private record Snapshot(
+        String infoLabels,
+        Duration loadDuration,
+        Instant loadedAt,
+        String[] aliasLabels,
+        long[] notAfterSeconds
+    ) {
+        static Snapshot of(LoadedTruststore truststore, List<CertificateInfo> certificates, Instant loadedAt) {
+            List<CertificateInfo> sorted = certificates.stream()
+                .sorted((a, b) -> a.notAfter().compareTo(b.notAfter()))
+                .toList();
+            String[] aliasLabels = new String[sorted.size()];
+            long[] notAfterSeconds = new long[sorted.size()];
+            for (int i = 0; i < sorted.size(); i++) {
+                aliasLabels[i] = PrometheusText.label("alias", sorted.get(i).alias());
+                notAfterSeconds[i] = sorted.get(i).notAfter().getEpochSecond();
+            }
+            return new Snapshot(
+                PrometheusText.label("source", truststore.sourceDescription())
+                    + "," + PrometheusText.label("type", truststore.storeType()),
+                truststore.loadDuration(),
+                loadedAt,
+                aliasLabels,
+                notAfterSeconds
+            );
+        }
+
+        int countNotAfterBefore(long epochSeconds) {
+            int index = Arrays.binarySearch(notAfterSeconds, epochSeconds);
+            if (index < 0) {
+                return -index - 1;
+            }
+            while (index > 0 && notAfterSeconds[index - 1] == epochSeconds) {
+                index--;
+            }
+            return index;
+        }
+    }
+}
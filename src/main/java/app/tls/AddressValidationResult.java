@@ -0,0 +1,9 @@
+package app.tls;
+
+import java.net.InetAddress;
+
+public record AddressValidationResult(InetAddress address, ValidationResult result) {
+    public String addressText() {
+        return address == null ? "-" : address.getHostAddress();
+    }
+}
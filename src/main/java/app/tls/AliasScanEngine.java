@@ -0,0 +1,220 @@
+package app.tls;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+final class AliasScanEngine {
+    private static final String CANCELLED_MESSAGE = "Alias scan cancelled";
+
+    private final int parallelism;
+
+    AliasScanEngine(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Alias scan parallelism must be positive: " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+
+    static int defaultParallelism() {
+        return Math.max(1, Runtime.getRuntime().availableProcessors());
+    }
+
+    int parallelism() {
+        return parallelism;
+    }
+
+    AliasScanResult scan(
+        List<String> aliases,
+        Function<String, ValidationResult> aliasCheck,
+        Consumer<AliasScanProgress> progressCallback,
+        ScanCancellation cancellation
+    ) {
+        return scan(aliases, List.of(), aliasCheck, progressCallback, cancellation, null);
+    }
+
+    AliasScanResult scan(
+        List<String> aliases,
+        List<String> rejectedAliases,
+        Function<String, ValidationResult> aliasCheck,
+        Consumer<AliasScanProgress> progressCallback,
+        ScanCancellation cancellation,
+        PhaseTimings preflight
+    ) {
+        int totalAliases = aliases.size();
+        ProgressTracker tracker = new ProgressTracker(
+            totalAliases,
+            totalAliases + rejectedAliases.size(),
+            progressCallback
+        );
+        if (preflight != null) {
+            tracker.timings.add(preflight);
+        }
+        if (totalAliases == 0) {
+            tracker.rejected(rejectedAliases);
+            return new AliasScanResult(
+                List.of(),
+                tracker.checked,
+                tracker.checked,
+                null,
+                PhaseLatency.of(tracker.timings),
+                Map.of(),
+                List.of()
+            );
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(
+            Math.min(parallelism, totalAliases),
+            new ScanThreadFactory()
+        );
+        Runnable stop = executor::shutdownNow;
+        cancellation.onCancel(stop);
+        String error = null;
+        try {
+            for (int i = 0; i < totalAliases && !cancellation.isCancelled(); i++) {
+                int index = i;
+                String alias = aliases.get(i);
+                try {
+                    executor.execute(() -> {
+                        if (cancellation.isCancelled()) {
+                            return;
+                        }
+                        ValidationResult result;
+                        try {
+                            result = aliasCheck.apply(alias);
+                        } catch (RuntimeException e) {
+                            result = new ValidationResult(
+                                false,
+                                "Alias check failed unexpectedly (" + errorMessage(e) + ")",
+                                List.of()
+                            );
+                            tracker.error(alias, result.message());
+                        }
+                        tracker.completed(index, alias, result);
+                    });
+                } catch (RejectedExecutionException e) {
+                    // A cancel shut the pool down while aliases were still being queued.
+                    break;
+                }
+            }
+            executor.shutdown();
+            while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                if (cancellation.isCancelled()) {
+                    executor.shutdownNow();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancellation.cancel();
+            error = CANCELLED_MESSAGE;
+        } catch (RuntimeException e) {
+            error = errorMessage(e);
+        } finally {
+            cancellation.removeOnCancel(stop);
+            executor.shutdownNow();
+        }
+        if (error == null && cancellation.isCancelled()) {
+            error = CANCELLED_MESSAGE;
+        }
+        if (error == null) {
+            tracker.rejected(rejectedAliases);
+        }
+
+        List<String> validAliases = new ArrayList<>();
+        synchronized (tracker) {
+            for (int i = 0; i < totalAliases; i++) {
+                if (tracker.valid[i]) {
+                    validAliases.add(aliases.get(i));
+                }
+            }
+            return new AliasScanResult(
+                validAliases,
+                tracker.checked,
+                tracker.checked - validAliases.size(),
+                error,
+                PhaseLatency.of(tracker.timings),
+                Collections.unmodifiableMap(new LinkedHashMap<>(tracker.errors)),
+                tracker.peerChain
+            );
+        }
+    }
+
+    private static String errorMessage(RuntimeException error) {
+        return error.getMessage() == null ? error.getClass().getSimpleName() : error.getMessage();
+    }
+
+    private static final class ProgressTracker {
+        private final int totalAliases;
+        private final Consumer<AliasScanProgress> progressCallback;
+        private final boolean[] valid;
+        private final List<PhaseTimings> timings = new ArrayList<>();
+        private final Map<String, String> errors = new LinkedHashMap<>();
+        private List<ChainCertificateInfo> peerChain = List.of();
+        private int checked;
+        private int validCount;
+
+        private ProgressTracker(int checkedAliases, int totalAliases, Consumer<AliasScanProgress> progressCallback) {
+            this.totalAliases = totalAliases;
+            this.progressCallback = progressCallback;
+            this.valid = new boolean[checkedAliases];
+        }
+
+        private synchronized void rejected(List<String> rejectedAliases) {
+            if (rejectedAliases.isEmpty()) {
+                return;
+            }
+            checked += rejectedAliases.size();
+            if (progressCallback != null) {
+                progressCallback.accept(new AliasScanProgress(
+                    checked,
+                    totalAliases,
+                    rejectedAliases.get(rejectedAliases.size() - 1),
+                    validCount
+                ));
+            }
+        }
+
+        private synchronized void error(String alias, String message) {
+            errors.put(alias, message);
+        }
+
+        private synchronized void completed(int index, String alias, ValidationResult result) {
+            checked++;
+            if (!result.timings().isEmpty()) {
+                timings.add(result.timings());
+            }
+            if (peerChain.isEmpty() && !result.peerChain().isEmpty()) {
+                // Per-alias handshakes see the same server chain; keep the first one for the caller.
+                peerChain = result.peerChain();
+            }
+            if (result.success()) {
+                valid[index] = true;
+                validCount++;
+            }
+            if (progressCallback != null) {
+                progressCallback.accept(new AliasScanProgress(checked, totalAliases, alias, validCount));
+            }
+        }
+    }
+
+    private static final class ScanThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, "alias-scan-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package app.tls;
+
+public enum AliasScanMode {
+    SINGLE_HANDSHAKE,
+    HANDSHAKE_PER_ALIAS
+}
@@ -1,11 +1,30 @@
 package app.tls;
 
 import java.util.List;
+import java.util.Map;
 
 public record AliasScanResult(
     List<String> validAliases,
     int checkedAliases,
     int failedAliases,
-    String error
+    String error,
+    PhaseLatency latency,
+    Map<String, String> aliasErrors,
+    List<ChainCertificateInfo> peerChain
 ) {
+    public AliasScanResult(List<String> validAliases, int checkedAliases, int failedAliases, String error) {
+        this(validAliases, checkedAliases, failedAliases, error, PhaseLatency.EMPTY, Map.of(), List.of());
+    }
+
+    public AliasScanResult withPeerChain(List<ChainCertificateInfo> peerChain) {
+        return new AliasScanResult(
+            validAliases,
+            checkedAliases,
+            failedAliases,
+            error,
+            latency,
+            aliasErrors,
+            peerChain
+        );
+    }
 }
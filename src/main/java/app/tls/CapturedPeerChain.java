@@ -0,0 +1,20 @@
+package app.tls;
+
+import java.security.cert.X509Certificate;
+import java.util.List;
+
+public record CapturedPeerChain(
+    String host,
+    int port,
+    List<X509Certificate> chain,
+    String authType,
+    PhaseTimings timings
+) {
+    public CapturedPeerChain(String host, int port, List<X509Certificate> chain, String authType) {
+        this(host, port, chain, authType, PhaseTimings.NONE);
+    }
+
+    public X509Certificate[] chainArray() {
+        return chain.toArray(X509Certificate[]::new);
+    }
+}
@@ -1,6 +1,27 @@
 package app.tls;
 
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.X509Certificate;
 import java.time.Instant;
+import java.util.HexFormat;
 
-public record ChainCertificateInfo(String subject, String issuer, Instant notAfter) {
+public record ChainCertificateInfo(String subject, String issuer, Instant notAfter, String sha256) {
+    public static ChainCertificateInfo of(X509Certificate certificate) {
+        return new ChainCertificateInfo(
+            certificate.getSubjectX500Principal().getName(),
+            certificate.getIssuerX500Principal().getName(),
+            certificate.getNotAfter().toInstant(),
+            fingerprint(certificate)
+        );
+    }
+
+    private static String fingerprint(X509Certificate certificate) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(certificate.getEncoded()));
+        } catch (NoSuchAlgorithmException | CertificateEncodingException e) {
+            return null;
+        }
+    }
 }
@@ -0,0 +1,60 @@
+package app.tls;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+final class CipherSuiteGroups {
+    static final String TLS13 = "TLS 1.3";
+    static final String ECDHE_ECDSA = "ECDHE-ECDSA";
+    static final String ECDHE_RSA = "ECDHE-RSA";
+    static final String DHE = "DHE";
+    static final String RSA = "RSA";
+    static final List<String> PROTOCOLS = List.of("TLSv1.3", "TLSv1.2", "TLSv1.1", "TLSv1");
+    static final List<String> GROUPS = List.of(TLS13, ECDHE_ECDSA, ECDHE_RSA, DHE, RSA);
+
+    private CipherSuiteGroups() {
+    }
+
+    static Map<String, List<String>> group(String[] supportedSuites) {
+        Map<String, List<String>> groups = new LinkedHashMap<>();
+        for (String group : GROUPS) {
+            groups.put(group, new ArrayList<>());
+        }
+        for (String suite : supportedSuites) {
+            String group = groupOf(suite);
+            if (group != null) {
+                groups.get(group).add(suite);
+            }
+        }
+        return groups;
+    }
+
+    static boolean applies(String protocol, String group) {
+        return "TLSv1.3".equals(protocol) == TLS13.equals(group);
+    }
+
+    private static String groupOf(String suite) {
+        if (suite.startsWith("TLS_AES_") || suite.startsWith("TLS_CHACHA20_")) {
+            return TLS13;
+        }
+        if (suite.contains("_anon_") || suite.contains("_NULL_") || suite.contains("_EMPTY_")
+            || suite.contains("_SCSV") || suite.contains("_KRB5_")) {
+            return null;
+        }
+        if (suite.startsWith("TLS_ECDHE_ECDSA_")) {
+            return ECDHE_ECDSA;
+        }
+        if (suite.startsWith("TLS_ECDHE_RSA_")) {
+            return ECDHE_RSA;
+        }
+        if (suite.startsWith("TLS_DHE_")) {
+            return DHE;
+        }
+        if (suite.startsWith("TLS_RSA_")) {
+            return RSA;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,44 @@
+package app.tls;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+final class DnsCache {
+    static final Duration DEFAULT_TTL = Duration.ofSeconds(30);
+
+    private final long ttlNanos;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    DnsCache(Duration ttl) {
+        if (ttl == null || ttl.isNegative()) {
+            throw new IllegalArgumentException("DNS cache TTL must not be negative: " + ttl);
+        }
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    List<InetAddress> resolve(String host) throws UnknownHostException {
+        String key = host.trim().toLowerCase(Locale.ROOT);
+        long now = System.nanoTime();
+        Entry entry = entries.get(key);
+        if (entry != null && now - entry.resolvedAtNanos() < ttlNanos) {
+            return entry.addresses();
+        }
+        List<InetAddress> addresses = List.of(InetAddress.getAllByName(host));
+        if (ttlNanos > 0) {
+            entries.put(key, new Entry(addresses, now));
+        }
+        return addresses;
+    }
+
+    void invalidate() {
+        entries.clear();
+    }
+
+    private record Entry(List<InetAddress> addresses, long resolvedAtNanos) {
+    }
+}
@@ -0,0 +1,7 @@
+package app.tls;
+
+public enum HandshakeMode {
+    FULL,
+    CERTIFICATE_ONLY,
+    CACHED_CHAIN
+}
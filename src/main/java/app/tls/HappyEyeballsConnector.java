@@ -0,0 +1,139 @@
+package app.tls;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+final class HappyEyeballsConnector {
+    static final long ATTEMPT_DELAY_MS = 250;
+
+    private HappyEyeballsConnector() {
+    }
+
+    static Socket connect(List<InetAddress> addresses, int port, int timeoutMs) throws IOException {
+        if (addresses.size() == 1) {
+            Socket socket = new Socket();
+            try {
+                socket.connect(new InetSocketAddress(addresses.get(0), port), timeoutMs);
+                return socket;
+            } catch (IOException | RuntimeException e) {
+                socket.close();
+                throw e;
+            }
+        }
+        List<InetAddress> ordered = interleaveFamilies(addresses);
+        List<SocketChannel> attempts = new ArrayList<>();
+        SocketChannel winner = null;
+        try (Selector selector = Selector.open()) {
+            long now = System.nanoTime();
+            long deadline = now + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+            long nextAttemptAt = now;
+            int next = 0;
+            int inFlight = 0;
+            IOException lastError = null;
+            while (winner == null) {
+                now = System.nanoTime();
+                if (next < ordered.size() && now - nextAttemptAt >= 0) {
+                    SocketChannel channel = SocketChannel.open();
+                    attempts.add(channel);
+                    try {
+                        channel.configureBlocking(false);
+                        if (channel.connect(new InetSocketAddress(ordered.get(next), port))) {
+                            winner = channel;
+                            break;
+                        }
+                        channel.register(selector, SelectionKey.OP_CONNECT);
+                        inFlight++;
+                        nextAttemptAt = now + TimeUnit.MILLISECONDS.toNanos(ATTEMPT_DELAY_MS);
+                    } catch (IOException e) {
+                        lastError = e;
+                        nextAttemptAt = now;
+                    }
+                    next++;
+                    continue;
+                }
+                if (inFlight == 0 && next >= ordered.size()) {
+                    throw lastError != null ? lastError : new ConnectException("No address could be reached");
+                }
+                if (now - deadline >= 0) {
+                    throw new SocketTimeoutException("Connect timed out");
+                }
+                long wakeAt = next < ordered.size() ? Math.min(deadline, nextAttemptAt) : deadline;
+                selector.select(Math.max(1, TimeUnit.NANOSECONDS.toMillis(wakeAt - now)));
+                Iterator<SelectionKey> selected = selector.selectedKeys().iterator();
+                while (selected.hasNext() && winner == null) {
+                    SelectionKey key = selected.next();
+                    selected.remove();
+                    SocketChannel channel = (SocketChannel) key.channel();
+                    try {
+                        if (channel.finishConnect()) {
+                            winner = channel;
+                        }
+                    } catch (IOException e) {
+                        lastError = e;
+                        key.cancel();
+                        channel.close();
+                        inFlight--;
+                        // A failed attempt starts the next one right away instead of waiting out the delay.
+                        nextAttemptAt = System.nanoTime();
+                    }
+                }
+            }
+            SelectionKey winnerKey = winner.keyFor(selector);
+            if (winnerKey != null) {
+                winnerKey.cancel();
+                selector.selectNow();
+            }
+            winner.configureBlocking(true);
+            return winner.socket();
+        } finally {
+            for (SocketChannel attempt : attempts) {
+                if (attempt != winner) {
+                    closeQuietly(attempt);
+                }
+            }
+        }
+    }
+
+    static List<InetAddress> interleaveFamilies(List<InetAddress> addresses) {
+        boolean preferV6 = addresses.get(0) instanceof Inet6Address;
+        List<InetAddress> preferred = new ArrayList<>();
+        List<InetAddress> other = new ArrayList<>();
+        for (InetAddress address : addresses) {
+            if ((address instanceof Inet6Address) == preferV6) {
+                preferred.add(address);
+            } else {
+                other.add(address);
+            }
+        }
+        List<InetAddress> ordered = new ArrayList<>(addresses.size());
+        for (int i = 0; i < Math.max(preferred.size(), other.size()); i++) {
+            if (i < preferred.size()) {
+                ordered.add(preferred.get(i));
+            }
+            if (i < other.size()) {
+                ordered.add(other.get(i));
+            }
+        }
+        return ordered;
+    }
+
+    private static void closeQuietly(SocketChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // Losing attempt is being discarded.
+        }
+    }
+}
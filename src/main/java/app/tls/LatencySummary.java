@@ -0,0 +1,49 @@
+package app.tls;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+public record LatencySummary(int samples, Duration p50, Duration p95, Duration max) {
+    public static final LatencySummary EMPTY = new LatencySummary(0, null, null, null);
+
+    public static LatencySummary of(Collection<Duration> durations) {
+        List<Duration> sorted = new ArrayList<>();
+        for (Duration duration : durations) {
+            if (duration != null) {
+                sorted.add(duration);
+            }
+        }
+        if (sorted.isEmpty()) {
+            return EMPTY;
+        }
+        Collections.sort(sorted);
+        return new LatencySummary(
+            sorted.size(),
+            percentile(sorted, 50),
+            percentile(sorted, 95),
+            sorted.get(sorted.size() - 1)
+        );
+    }
+
+    public boolean isEmpty() {
+        return samples == 0;
+    }
+
+    public String describe() {
+        if (isEmpty()) {
+            return "n/a";
+        }
+        return "p50 " + PhaseTimings.format(p50)
+            + " / p95 " + PhaseTimings.format(p95)
+            + " / max " + PhaseTimings.format(max)
+            + " (n=" + samples + ")";
+    }
+
+    private static Duration percentile(List<Duration> sorted, int percent) {
+        int rank = (int) Math.ceil(percent / 100.0 * sorted.size());
+        return sorted.get(Math.max(0, rank - 1));
+    }
+}
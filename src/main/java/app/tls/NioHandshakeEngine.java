@@ -0,0 +1,541 @@
+package app.tls;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.security.cert.Certificate;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult;
+import javax.net.ssl.SSLException;
+import javax.net.ssl.SSLPeerUnverifiedException;
+import javax.net.ssl.SSLSession;
+
+final class NioHandshakeEngine implements AutoCloseable {
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final int DNS_THREADS = 8;
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+    private final SelectorLoop[] loops;
+    private final ExecutorService taskExecutor;
+    private final ExecutorService completionExecutor;
+    private final ExecutorService dnsExecutor;
+    private final DnsCache dnsCache;
+    private final long connectTimeoutNanos;
+    private final long readTimeoutNanos;
+    private final AtomicInteger nextLoop = new AtomicInteger();
+
+    NioHandshakeEngine(int selectorThreads, int connectTimeoutMs, int readTimeoutMs, DnsCache dnsCache)
+        throws IOException {
+        if (selectorThreads < 1) {
+            throw new IllegalArgumentException("Selector thread count must be positive: " + selectorThreads);
+        }
+        this.connectTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(connectTimeoutMs);
+        this.readTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(readTimeoutMs);
+        this.dnsCache = dnsCache;
+        this.taskExecutor = Executors.newFixedThreadPool(
+            Math.max(1, Runtime.getRuntime().availableProcessors()),
+            new DaemonThreadFactory("nio-handshake-task-")
+        );
+        // Callers chain trust evaluation and output writes onto the result; none of that may run on a selector.
+        this.completionExecutor = Executors.newFixedThreadPool(
+            Math.max(2, Runtime.getRuntime().availableProcessors()),
+            new DaemonThreadFactory("nio-handshake-complete-")
+        );
+        this.dnsExecutor = Executors.newFixedThreadPool(DNS_THREADS, new DaemonThreadFactory("nio-handshake-dns-"));
+        this.loops = new SelectorLoop[selectorThreads];
+        for (int i = 0; i < selectorThreads; i++) {
+            loops[i] = new SelectorLoop(Selector.open());
+            Thread thread = new Thread(loops[i], "nio-handshake-selector-" + (i + 1));
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    CompletableFuture<X509Certificate[]> handshake(String host, int port, SSLContext context, PhaseClock clock) {
+        return handshake(host, null, port, context, clock);
+    }
+
+    CompletableFuture<X509Certificate[]> handshake(
+        String host,
+        InetAddress resolved,
+        int port,
+        SSLContext context,
+        PhaseClock clock
+    ) {
+        return handshake(host, resolved, port, context, clock, engine -> {
+        });
+    }
+
+    CompletableFuture<X509Certificate[]> handshake(
+        String host,
+        InetAddress resolved,
+        int port,
+        SSLContext context,
+        PhaseClock clock,
+        Consumer<SSLEngine> engineSetup
+    ) {
+        return handshakeSession(host, resolved, port, context, clock, engineSetup).thenApply(session -> {
+            try {
+                return peerChain(session);
+            } catch (SSLPeerUnverifiedException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    CompletableFuture<SSLSession> handshakeSession(
+        String host,
+        InetAddress resolved,
+        int port,
+        SSLContext context,
+        PhaseClock clock,
+        Consumer<SSLEngine> engineSetup
+    ) {
+        CompletableFuture<SSLSession> result = new CompletableFuture<>();
+        SelectorLoop loop = loops[Math.floorMod(nextLoop.getAndIncrement(), loops.length)];
+        if (resolved != null) {
+            loop.submit(new Connection(
+                loop,
+                host,
+                port,
+                new InetSocketAddress(resolved, port),
+                context,
+                engineSetup,
+                clock,
+                result
+            ));
+            return result;
+        }
+        try {
+            dnsExecutor.execute(() -> {
+                try {
+                    InetAddress address = dnsCache.resolve(host).get(0);
+                    clock.dnsResolved();
+                    Connection connection = new Connection(
+                        loop,
+                        host,
+                        port,
+                        new InetSocketAddress(address, port),
+                        context,
+                        engineSetup,
+                        clock,
+                        result
+                    );
+                    loop.submit(connection);
+                } catch (IOException | RuntimeException e) {
+                    clock.stop();
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RuntimeException e) {
+            clock.stop();
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    @Override
+    public void close() {
+        for (SelectorLoop loop : loops) {
+            loop.shutdown();
+        }
+        taskExecutor.shutdownNow();
+        dnsExecutor.shutdownNow();
+        // Already queued completions still run; later ones complete on the calling thread.
+        completionExecutor.shutdown();
+    }
+
+    private void completeOffLoop(Runnable completion) {
+        try {
+            completionExecutor.execute(completion);
+        } catch (RejectedExecutionException e) {
+            completion.run();
+        }
+    }
+
+    private final class SelectorLoop implements Runnable {
+        private final Selector selector;
+        private final Queue<Connection> pending = new ConcurrentLinkedQueue<>();
+        private volatile boolean running = true;
+
+        private SelectorLoop(Selector selector) {
+            this.selector = selector;
+        }
+
+        private void submit(Connection connection) {
+            pending.add(connection);
+            selector.wakeup();
+        }
+
+        private void shutdown() {
+            running = false;
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            long nextSweep = System.nanoTime() + SWEEP_INTERVAL_NANOS;
+            try {
+                while (running) {
+                    selector.select(TimeUnit.NANOSECONDS.toMillis(SWEEP_INTERVAL_NANOS));
+                    Connection connection;
+                    while ((connection = pending.poll()) != null) {
+                        connection.resume();
+                    }
+                    Iterator<SelectionKey> selected = selector.selectedKeys().iterator();
+                    while (selected.hasNext()) {
+                        SelectionKey key = selected.next();
+                        selected.remove();
+                        if (key.isValid()) {
+                            ((Connection) key.attachment()).onReady(key);
+                        }
+                    }
+                    long now = System.nanoTime();
+                    if (now - nextSweep >= 0) {
+                        nextSweep = now + SWEEP_INTERVAL_NANOS;
+                        for (SelectionKey key : new ArrayList<>(selector.keys())) {
+                            if (key.attachment() instanceof Connection timed) {
+                                timed.checkDeadline(now);
+                            }
+                        }
+                    }
+                }
+            } catch (IOException | ClosedSelectorException e) {
+                // Selector failure: fall through and fail whatever is still registered.
+            }
+            failAll(new IOException("Handshake engine stopped"));
+        }
+
+        private void failAll(IOException error) {
+            try {
+                for (SelectionKey key : selector.keys()) {
+                    if (key.attachment() instanceof Connection connection) {
+                        connection.fail(error);
+                    }
+                }
+                selector.close();
+            } catch (IOException | ClosedSelectorException ignored) {
+                // Nothing left to release.
+            }
+            Connection connection;
+            while ((connection = pending.poll()) != null) {
+                connection.fail(error);
+            }
+        }
+    }
+
+    private final class Connection {
+        private final SelectorLoop loop;
+        private final String host;
+        private final int port;
+        private final InetSocketAddress address;
+        private final SSLContext context;
+        private final Consumer<SSLEngine> engineSetup;
+        private final PhaseClock clock;
+        private final CompletableFuture<SSLSession> result;
+        private SocketChannel channel;
+        private SelectionKey key;
+        private SSLEngine engine;
+        private ByteBuffer netIn;
+        private ByteBuffer netOut;
+        private ByteBuffer appIn;
+        private long deadline;
+        private boolean connected;
+        private boolean done;
+
+        private Connection(
+            SelectorLoop loop,
+            String host,
+            int port,
+            InetSocketAddress address,
+            SSLContext context,
+            Consumer<SSLEngine> engineSetup,
+            PhaseClock clock,
+            CompletableFuture<SSLSession> result
+        ) {
+            this.loop = loop;
+            this.host = host;
+            this.port = port;
+            this.address = address;
+            this.context = context;
+            this.engineSetup = engineSetup;
+            this.clock = clock;
+            this.result = result;
+        }
+
+        private void resume() {
+            if (done) {
+                return;
+            }
+            try {
+                if (channel == null) {
+                    open();
+                } else {
+                    drive();
+                }
+            } catch (IOException | RuntimeException e) {
+                fail(e);
+            }
+        }
+
+        private void open() throws IOException {
+            channel = SocketChannel.open();
+            channel.configureBlocking(false);
+            deadline = System.nanoTime() + connectTimeoutNanos;
+            if (channel.connect(address)) {
+                key = channel.register(loop.selector, 0, this);
+                startHandshake();
+            } else {
+                key = channel.register(loop.selector, SelectionKey.OP_CONNECT, this);
+            }
+        }
+
+        private void onReady(SelectionKey readyKey) {
+            if (done) {
+                return;
+            }
+            try {
+                if (!connected && readyKey.isConnectable()) {
+                    channel.finishConnect();
+                    startHandshake();
+                    return;
+                }
+                drive();
+            } catch (IOException | RuntimeException e) {
+                fail(e);
+            }
+        }
+
+        private void startHandshake() throws IOException {
+            connected = true;
+            clock.connected();
+            engine = context.createSSLEngine(host, port);
+            engine.setUseClientMode(true);
+            engineSetup.accept(engine);
+            int packetSize = engine.getSession().getPacketBufferSize();
+            netIn = ByteBuffer.allocate(packetSize);
+            netOut = ByteBuffer.allocate(packetSize);
+            appIn = ByteBuffer.allocate(engine.getSession().getApplicationBufferSize());
+            deadline = System.nanoTime() + readTimeoutNanos;
+            engine.beginHandshake();
+            drive();
+        }
+
+        private void drive() throws IOException {
+            while (!done) {
+                if (!flush()) {
+                    key.interestOps(SelectionKey.OP_WRITE);
+                    return;
+                }
+                SSLEngineResult.HandshakeStatus status = engine.getHandshakeStatus();
+                switch (status) {
+                    case NEED_WRAP -> {
+                        SSLEngineResult wrapped = engine.wrap(EMPTY, netOut);
+                        if (wrapped.getStatus() == SSLEngineResult.Status.BUFFER_OVERFLOW) {
+                            netOut = enlarge(netOut, engine.getSession().getPacketBufferSize());
+                        } else if (wrapped.getStatus() == SSLEngineResult.Status.CLOSED) {
+                            flush();
+                            throw new SSLException("TLS engine closed during handshake");
+                        }
+                        if (wrapped.getHandshakeStatus() == SSLEngineResult.HandshakeStatus.FINISHED) {
+                            finishIfFlushed();
+                            return;
+                        }
+                    }
+                    case NEED_UNWRAP, NEED_UNWRAP_AGAIN -> {
+                        if (status == SSLEngineResult.HandshakeStatus.NEED_UNWRAP && netIn.position() == 0) {
+                            if (!read()) {
+                                key.interestOps(SelectionKey.OP_READ);
+                                return;
+                            }
+                        }
+                        netIn.flip();
+                        SSLEngineResult unwrapped = engine.unwrap(netIn, appIn);
+                        netIn.compact();
+                        appIn.clear();
+                        switch (unwrapped.getStatus()) {
+                            case BUFFER_UNDERFLOW -> {
+                                if (netIn.position() == netIn.capacity()) {
+                                    netIn = enlarge(netIn, engine.getSession().getPacketBufferSize());
+                                }
+                                if (!read()) {
+                                    key.interestOps(SelectionKey.OP_READ);
+                                    return;
+                                }
+                            }
+                            case BUFFER_OVERFLOW -> appIn = ByteBuffer.allocate(
+                                Math.max(appIn.capacity() * 2, engine.getSession().getApplicationBufferSize())
+                            );
+                            case CLOSED -> throw new SSLException("Server closed the connection during handshake");
+                            default -> {
+                                // OK: keep driving the handshake.
+                            }
+                        }
+                        if (unwrapped.getHandshakeStatus() == SSLEngineResult.HandshakeStatus.FINISHED) {
+                            finishIfFlushed();
+                            return;
+                        }
+                    }
+                    case NEED_TASK -> {
+                        key.interestOps(0);
+                        runDelegatedTasks();
+                        return;
+                    }
+                    case FINISHED, NOT_HANDSHAKING -> {
+                        finishIfFlushed();
+                        return;
+                    }
+                    default -> throw new SSLException("Unexpected handshake status: " + status);
+                }
+            }
+        }
+
+        private void runDelegatedTasks() {
+            taskExecutor.execute(() -> {
+                try {
+                    Runnable task;
+                    while ((task = engine.getDelegatedTask()) != null) {
+                        task.run();
+                    }
+                } finally {
+                    loop.submit(this);
+                }
+            });
+        }
+
+        private boolean read() throws IOException {
+            int read = channel.read(netIn);
+            if (read < 0) {
+                throw new EOFException("Server closed the connection during TLS handshake");
+            }
+            if (read > 0) {
+                deadline = System.nanoTime() + readTimeoutNanos;
+            }
+            return read > 0;
+        }
+
+        private boolean flush() throws IOException {
+            if (netOut.position() == 0) {
+                return true;
+            }
+            netOut.flip();
+            channel.write(netOut);
+            netOut.compact();
+            return netOut.position() == 0;
+        }
+
+        private void finishIfFlushed() throws IOException {
+            flush();
+            complete(engine.getSession());
+        }
+
+        private void checkDeadline(long now) {
+            if (!done && now - deadline >= 0) {
+                fail(new SocketTimeoutException(
+                    connected ? "TLS handshake timed out" : "Connect timed out"
+                ));
+            }
+        }
+
+        private void complete(SSLSession session) {
+            if (done) {
+                return;
+            }
+            done = true;
+            clock.handshakeFinished();
+            closeQuietly();
+            completeOffLoop(() -> result.complete(session));
+        }
+
+        private void fail(Throwable error) {
+            if (done) {
+                return;
+            }
+            done = true;
+            clock.stop();
+            closeQuietly();
+            completeOffLoop(() -> result.completeExceptionally(error));
+        }
+
+        private void closeQuietly() {
+            try {
+                if (engine != null) {
+                    engine.closeOutbound();
+                    netOut.clear();
+                    engine.wrap(EMPTY, netOut);
+                    netOut.flip();
+                    channel.write(netOut);
+                }
+            } catch (IOException | RuntimeException ignored) {
+                // Best-effort close_notify.
+            }
+            try {
+                if (key != null) {
+                    key.cancel();
+                }
+                if (channel != null) {
+                    channel.close();
+                }
+            } catch (IOException ignored) {
+                // Channel is being discarded.
+            }
+        }
+
+        private ByteBuffer enlarge(ByteBuffer buffer, int minimumCapacity) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, minimumCapacity));
+            buffer.flip();
+            larger.put(buffer);
+            return larger;
+        }
+    }
+
+    private static X509Certificate[] peerChain(SSLSession session) throws SSLPeerUnverifiedException {
+        Certificate[] certificates = session.getPeerCertificates();
+        List<X509Certificate> chain = new ArrayList<>();
+        for (Certificate certificate : certificates) {
+            if (certificate instanceof X509Certificate x509) {
+                chain.add(x509);
+            }
+        }
+        return chain.toArray(X509Certificate[]::new);
+    }
+
+    private static final class DaemonThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger counter = new AtomicInteger();
+
+        private DaemonThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
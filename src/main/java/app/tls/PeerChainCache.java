@@ -0,0 +1,77 @@
+package app.tls;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+final class PeerChainCache {
+    static final Duration DEFAULT_TTL = Duration.ofSeconds(60);
+    static final int MAX_ENTRIES = 256;
+
+    private final long ttlNanos;
+    private final Map<EndpointKey, Entry> entries;
+    private long hits;
+    private long misses;
+
+    PeerChainCache(Duration ttl) {
+        if (ttl == null || ttl.isNegative()) {
+            throw new IllegalArgumentException("Peer chain cache TTL must not be negative: " + ttl);
+        }
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<EndpointKey, Entry> eldest) {
+                return size() > MAX_ENTRIES;
+            }
+        };
+    }
+
+    boolean enabled() {
+        return ttlNanos > 0;
+    }
+
+    synchronized Hit lookup(String host, int port) {
+        if (!enabled()) {
+            return null;
+        }
+        EndpointKey key = EndpointKey.of(host, port);
+        Entry entry = entries.get(key);
+        long age = entry == null ? 0 : System.nanoTime() - entry.capturedAtNanos();
+        if (entry == null || age >= ttlNanos) {
+            if (entry != null) {
+                entries.remove(key);
+            }
+            misses++;
+            return null;
+        }
+        hits++;
+        return new Hit(entry.chain(), Duration.ofNanos(age));
+    }
+
+    synchronized void put(CapturedPeerChain chain) {
+        if (enabled()) {
+            entries.put(EndpointKey.of(chain.host(), chain.port()), new Entry(chain, System.nanoTime()));
+        }
+    }
+
+    synchronized void invalidate() {
+        entries.clear();
+    }
+
+    synchronized PeerChainCacheStats stats() {
+        return new PeerChainCacheStats(hits, misses, entries.size(), Duration.ofNanos(ttlNanos));
+    }
+
+    record Hit(CapturedPeerChain chain, Duration age) {
+    }
+
+    private record Entry(CapturedPeerChain chain, long capturedAtNanos) {
+    }
+
+    private record EndpointKey(String host, int port) {
+        static EndpointKey of(String host, int port) {
+            return new EndpointKey(host.trim().toLowerCase(Locale.ROOT), port);
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package app.tls;
+
+import java.time.Duration;
+
+public record PeerChainCacheStats(long hits, long misses, int entries, Duration ttl) {
+}
@@ -0,0 +1,36 @@
+package app.tls;
+
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+
+final class PeerChainCapturedException extends CertificateException {
+    private static final long serialVersionUID = 1L;
+
+    private final transient X509Certificate[] chain;
+    private final String authType;
+
+    PeerChainCapturedException(X509Certificate[] chain, String authType) {
+        super("Peer certificate chain captured, handshake aborted");
+        this.chain = chain;
+        this.authType = authType;
+    }
+
+    X509Certificate[] chain() {
+        return chain;
+    }
+
+    String authType() {
+        return authType;
+    }
+
+    static PeerChainCapturedException find(Throwable error) {
+        Throwable current = error;
+        while (current != null) {
+            if (current instanceof PeerChainCapturedException captured) {
+                return captured;
+            }
+            current = current.getCause() == current ? null : current.getCause();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,66 @@
+package app.tls;
+
+import java.time.Duration;
+
+final class PhaseClock {
+    private long lapStart = System.nanoTime();
+    private long dnsNanos = -1;
+    private long connectNanos = -1;
+    private long handshakeNanos = -1;
+    private long trustNanos = -1;
+
+    synchronized void dnsResolved() {
+        dnsNanos = lap();
+    }
+
+    synchronized void dnsResolved(Duration resolution) {
+        dnsNanos = resolution.toNanos();
+        lapStart = System.nanoTime();
+    }
+
+    synchronized void connected() {
+        connectNanos = lap();
+    }
+
+    synchronized void handshakeFinished() {
+        if (handshakeNanos < 0) {
+            // Trust evaluation runs inside the handshake; report it separately.
+            handshakeNanos = Math.max(0, lap() - Math.max(0, trustNanos));
+        }
+    }
+
+    synchronized void trustEvaluated(long nanos) {
+        trustNanos = Math.max(0, trustNanos) + nanos;
+    }
+
+    synchronized PhaseTimings stop() {
+        if (dnsNanos < 0) {
+            dnsNanos = lap();
+        } else if (connectNanos < 0) {
+            connectNanos = lap();
+        } else {
+            handshakeFinished();
+        }
+        return timings();
+    }
+
+    synchronized PhaseTimings timings() {
+        return new PhaseTimings(
+            duration(dnsNanos),
+            duration(connectNanos),
+            duration(handshakeNanos),
+            duration(trustNanos)
+        );
+    }
+
+    private long lap() {
+        long now = System.nanoTime();
+        long elapsed = now - lapStart;
+        lapStart = now;
+        return elapsed;
+    }
+
+    private static Duration duration(long nanos) {
+        return nanos < 0 ? null : Duration.ofNanos(nanos);
+    }
+}
@@ -0,0 +1,61 @@
+package app.tls;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+public record PhaseLatency(
+    LatencySummary dns,
+    LatencySummary connect,
+    LatencySummary handshake,
+    LatencySummary trust
+) {
+    public static final PhaseLatency EMPTY = new PhaseLatency(
+        LatencySummary.EMPTY,
+        LatencySummary.EMPTY,
+        LatencySummary.EMPTY,
+        LatencySummary.EMPTY
+    );
+
+    public static PhaseLatency of(Collection<PhaseTimings> timings) {
+        return new PhaseLatency(
+            summarize(timings, PhaseTimings::dns),
+            summarize(timings, PhaseTimings::connect),
+            summarize(timings, PhaseTimings::handshake),
+            summarize(timings, PhaseTimings::trust)
+        );
+    }
+
+    public boolean isEmpty() {
+        return dns.isEmpty() && connect.isEmpty() && handshake.isEmpty() && trust.isEmpty();
+    }
+
+    public List<String> describe() {
+        List<String> lines = new ArrayList<>();
+        if (!dns.isEmpty()) {
+            lines.add("DNS: " + dns.describe());
+        }
+        if (!connect.isEmpty()) {
+            lines.add("Connect: " + connect.describe());
+        }
+        if (!handshake.isEmpty()) {
+            lines.add("Handshake: " + handshake.describe());
+        }
+        if (!trust.isEmpty()) {
+            lines.add("Trust: " + trust.describe());
+        }
+        return lines;
+    }
+
+    private static LatencySummary summarize(Collection<PhaseTimings> timings, Function<PhaseTimings, Duration> phase) {
+        List<Duration> durations = new ArrayList<>(timings.size());
+        for (PhaseTimings timing : timings) {
+            if (timing != null) {
+                durations.add(phase.apply(timing));
+            }
+        }
+        return LatencySummary.of(durations);
+    }
+}
@@ -0,0 +1,43 @@
+package app.tls;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+public record PhaseTimings(Duration dns, Duration connect, Duration handshake, Duration trust) {
+    public static final PhaseTimings NONE = new PhaseTimings(null, null, null, null);
+
+    public static PhaseTimings trustOnly(Duration trust) {
+        return new PhaseTimings(null, null, null, trust);
+    }
+
+    public PhaseTimings withTrust(Duration trust) {
+        return new PhaseTimings(dns, connect, handshake, trust);
+    }
+
+    public boolean isEmpty() {
+        return dns == null && connect == null && handshake == null && trust == null;
+    }
+
+    public String describe() {
+        List<String> parts = new ArrayList<>();
+        if (dns != null) {
+            parts.add("DNS " + format(dns));
+        }
+        if (connect != null) {
+            parts.add("connect " + format(connect));
+        }
+        if (handshake != null) {
+            parts.add("handshake " + format(handshake));
+        }
+        if (trust != null) {
+            parts.add("trust " + format(trust));
+        }
+        return String.join(", ", parts);
+    }
+
+    static String format(Duration duration) {
+        return String.format(Locale.ROOT, "%.1f ms", duration.toNanos() / 1_000_000.0);
+    }
+}
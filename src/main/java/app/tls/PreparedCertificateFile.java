@@ -0,0 +1,19 @@
+package app.tls;
+
+import java.security.cert.X509Certificate;
+import java.util.List;
+
+public record PreparedCertificateFile(
+    String path,
+    List<X509Certificate> certificates,
+    List<List<X509Certificate>> candidateChains,
+    ValidationResult failure
+) {
+    static PreparedCertificateFile failed(String path, ValidationResult failure) {
+        return new PreparedCertificateFile(path, List.of(), List.of(), failure);
+    }
+
+    public boolean ready() {
+        return failure == null;
+    }
+}
@@ -0,0 +1,19 @@
+package app.tls;
+
+public enum ProbeStatus {
+    ACCEPTED("OK"),
+    ACCEPTED_UNTRUSTED("OK*"),
+    REJECTED("no"),
+    NOT_SUPPORTED_BY_CLIENT("n/s"),
+    ERROR("err");
+
+    private final String shortLabel;
+
+    ProbeStatus(String shortLabel) {
+        this.shortLabel = shortLabel;
+    }
+
+    public String shortLabel() {
+        return shortLabel;
+    }
+}
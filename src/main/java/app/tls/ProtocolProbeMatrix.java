@@ -0,0 +1,23 @@
+package app.tls;
+
+import java.time.Duration;
+import java.util.List;
+
+public record ProtocolProbeMatrix(
+    String host,
+    int port,
+    List<String> protocols,
+    List<String> cipherGroups,
+    List<ProtocolProbeResult> results,
+    Duration elapsed,
+    String error
+) {
+    public ProtocolProbeResult cell(String protocol, String cipherGroup) {
+        for (ProtocolProbeResult result : results) {
+            if (result.protocol().equals(protocol) && result.cipherGroup().equals(cipherGroup)) {
+                return result;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,13 @@
+package app.tls;
+
+import java.time.Duration;
+
+public record ProtocolProbeResult(
+    String protocol,
+    String cipherGroup,
+    ProbeStatus status,
+    String negotiatedCipherSuite,
+    String detail,
+    Duration elapsed
+) {
+}
@@ -0,0 +1,33 @@
+package app.tls;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public final class ScanCancellation {
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+    public void cancel() {
+        if (cancelled.compareAndSet(false, true)) {
+            for (Runnable listener : listeners) {
+                listener.run();
+            }
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled.get();
+    }
+
+    void onCancel(Runnable listener) {
+        listeners.add(listener);
+        if (isCancelled()) {
+            listener.run();
+        }
+    }
+
+    void removeOnCancel(Runnable listener) {
+        listeners.remove(listener);
+    }
+}
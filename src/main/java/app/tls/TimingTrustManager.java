@@ -0,0 +1,101 @@
+package app.tls;
+
+import java.net.Socket;
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.X509ExtendedTrustManager;
+import javax.net.ssl.X509TrustManager;
+
+// One instance serves every handshake of its context; each handshake's clock is found by its socket or engine.
+final class TimingTrustManager extends X509ExtendedTrustManager {
+    private final X509TrustManager delegate;
+    private final Map<Object, PhaseClock> clocks = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    TimingTrustManager(X509TrustManager delegate) {
+        this.delegate = delegate;
+    }
+
+    void register(Object connection, PhaseClock clock) {
+        clocks.put(connection, clock);
+    }
+
+    void unregister(Object connection) {
+        clocks.remove(connection);
+    }
+
+    @Override
+    public void checkServerTrusted(X509Certificate[] chain, String authType) throws CertificateException {
+        delegate.checkServerTrusted(chain, authType);
+    }
+
+    @Override
+    public void checkServerTrusted(X509Certificate[] chain, String authType, Socket socket)
+        throws CertificateException {
+        long started = System.nanoTime();
+        try {
+            if (delegate instanceof X509ExtendedTrustManager extended) {
+                extended.checkServerTrusted(chain, authType, socket);
+            } else {
+                delegate.checkServerTrusted(chain, authType);
+            }
+        } finally {
+            record(socket, started);
+        }
+    }
+
+    @Override
+    public void checkServerTrusted(X509Certificate[] chain, String authType, SSLEngine engine)
+        throws CertificateException {
+        long started = System.nanoTime();
+        try {
+            if (delegate instanceof X509ExtendedTrustManager extended) {
+                extended.checkServerTrusted(chain, authType, engine);
+            } else {
+                delegate.checkServerTrusted(chain, authType);
+            }
+        } finally {
+            record(engine, started);
+        }
+    }
+
+    @Override
+    public void checkClientTrusted(X509Certificate[] chain, String authType) throws CertificateException {
+        delegate.checkClientTrusted(chain, authType);
+    }
+
+    @Override
+    public void checkClientTrusted(X509Certificate[] chain, String authType, Socket socket)
+        throws CertificateException {
+        if (delegate instanceof X509ExtendedTrustManager extended) {
+            extended.checkClientTrusted(chain, authType, socket);
+        } else {
+            delegate.checkClientTrusted(chain, authType);
+        }
+    }
+
+    @Override
+    public void checkClientTrusted(X509Certificate[] chain, String authType, SSLEngine engine)
+        throws CertificateException {
+        if (delegate instanceof X509ExtendedTrustManager extended) {
+            extended.checkClientTrusted(chain, authType, engine);
+        } else {
+            delegate.checkClientTrusted(chain, authType);
+        }
+    }
+
+    @Override
+    public X509Certificate[] getAcceptedIssuers() {
+        return delegate.getAcceptedIssuers();
+    }
+
+    private void record(Object connection, long started) {
+        PhaseClock clock = clocks.get(connection);
+        if (clock != null) {
+            clock.trustEvaluated(System.nanoTime() - started);
+        }
+    }
+}
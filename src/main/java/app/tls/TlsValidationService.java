@@ -1,5 +1,6 @@
 package app.tls;
 
+import app.truststore.TrustAnchorIndex;
 import java.security.KeyStore;
 import java.security.KeyStoreException;
 import java.security.UnrecoverableKeyException;
@@ -7,89 +8,633 @@ import java.security.cert.Certificate;
 import java.security.cert.CertificateException;
 import java.security.cert.CertificateFactory;
 import java.security.cert.X509Certificate;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Enumeration;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.io.EOFException;
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.net.ConnectException;
-import java.net.InetSocketAddress;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.SocketException;
 import java.net.SocketTimeoutException;
 import java.net.UnknownHostException;
 import javax.net.ssl.SSLException;
 import javax.net.ssl.SSLHandshakeException;
 import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
 import javax.net.ssl.SSLPeerUnverifiedException;
 import javax.net.ssl.SSLSession;
 import javax.net.ssl.SSLSocket;
-import javax.net.ssl.TrustManagerFactory;
+import javax.net.ssl.TrustManager;
 import javax.net.ssl.X509TrustManager;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
-public class TlsValidationService {
+public class TlsValidationService implements AutoCloseable {
     private static final int CONNECT_TIMEOUT_MS = 5000;
     private static final int READ_TIMEOUT_MS = 5000;
     public static final String PKCS12_PASSWORD_REQUIRED_PREFIX = "PKCS12_PASSWORD_REQUIRED:";
+    public static final int DEFAULT_TRUST_CACHE_SIZE = TrustContextCache.DEFAULT_MAX_ALIAS_ENTRIES;
+    public static final Duration DEFAULT_PEER_CHAIN_TTL = PeerChainCache.DEFAULT_TTL;
+
+    private static final int NIO_SELECTOR_THREADS = 2;
+
+    private final AliasScanEngine aliasScanEngine;
+    private final TrustContextCache trustContextCache;
+    private final PeerChainCache peerChainCache;
+    private final DnsCache dnsCache = new DnsCache(DnsCache.DEFAULT_TTL);
+    private NioHandshakeEngine nioHandshakeEngine;
+    private boolean closed;
+    private SSLContext chainCaptureContext;
+    private final List<ValidationListener> validationListeners = new CopyOnWriteArrayList<>();
+
+    public TlsValidationService() {
+        this(defaultAliasScanParallelism());
+    }
+
+    public static int defaultAliasScanParallelism() {
+        return AliasScanEngine.defaultParallelism();
+    }
+
+    public TlsValidationService(int aliasScanParallelism) {
+        this(aliasScanParallelism, DEFAULT_TRUST_CACHE_SIZE);
+    }
+
+    public TlsValidationService(int aliasScanParallelism, int trustCacheSize) {
+        this(aliasScanParallelism, trustCacheSize, DEFAULT_PEER_CHAIN_TTL);
+    }
+
+    public TlsValidationService(int aliasScanParallelism, int trustCacheSize, Duration peerChainTtl) {
+        this.aliasScanEngine = new AliasScanEngine(aliasScanParallelism);
+        this.trustContextCache = new TrustContextCache(trustCacheSize);
+        this.peerChainCache = new PeerChainCache(peerChainTtl);
+    }
+
+    public void addValidationListener(ValidationListener listener) {
+        validationListeners.add(listener);
+    }
+
+    private void notifyListeners(ValidationOutcome outcome, PhaseTimings timings) {
+        for (ValidationListener listener : validationListeners) {
+            listener.handshakeCompleted(outcome, timings);
+        }
+    }
+
+    public void invalidateTrustCache() {
+        trustContextCache.invalidate();
+    }
+
+    public void invalidatePeerChainCache() {
+        peerChainCache.invalidate();
+    }
+
+    public PeerChainCacheStats peerChainCacheStats() {
+        return peerChainCache.stats();
+    }
+
+    public int aliasScanParallelism() {
+        return aliasScanEngine.parallelism();
+    }
 
     public ValidationResult validate(String host, int port, KeyStore sourceStore, String alias) {
+        return validate(host, port, sourceStore, alias, HandshakeMode.FULL);
+    }
+
+    public ValidationResult validate(
+        String host,
+        int port,
+        KeyStore sourceStore,
+        String alias,
+        HandshakeMode handshakeMode
+    ) {
+        return validate(host, port, sourceStore, alias, handshakeMode, null);
+    }
+
+    private ValidationResult validate(
+        String host,
+        int port,
+        KeyStore sourceStore,
+        String alias,
+        HandshakeMode handshakeMode,
+        ScanCancellation cancellation
+    ) {
+        if (handshakeMode == HandshakeMode.CACHED_CHAIN) {
+            PeerChainCache.Hit hit = peerChainCache.lookup(host, port);
+            if (hit != null) {
+                return evaluateCachedChain(hit, sourceStore, alias);
+            }
+        }
+        PhaseClock clock = new PhaseClock();
+        if (handshakeMode != HandshakeMode.FULL) {
+            try {
+                ValidationResult result = evaluateChain(
+                    capturePeerChain(host, port, clock),
+                    sourceStore,
+                    alias,
+                    "certificate-only handshake"
+                );
+                notifyListeners(ValidationOutcome.of(result), result.timings());
+                return result;
+            } catch (Exception e) {
+                PhaseTimings timings = clock.stop();
+                notifyListeners(ValidationOutcome.of(e), timings);
+                return failureResult(e, host, port).withTimings(timings);
+            }
+        }
+        TrustContext trust = null;
+        SSLSocket socket = null;
+        Runnable abort = null;
         try {
-            KeyStore effectiveStore = alias == null || alias.isBlank()
-                ? sourceStore
-                : singleAliasStore(sourceStore, alias);
+            trust = trustContext(sourceStore, alias);
+            socket = openTlsSocket(trust.sslContext(), host, port, clock);
+            trust.register(socket, clock);
+            if (cancellation != null) {
+                // Closing the socket is the only way to unblock a handshake read on cancel.
+                SSLSocket open = socket;
+                abort = () -> closeQuietly(open);
+                cancellation.onCancel(abort);
+            }
+            socket.startHandshake();
+            clock.handshakeFinished();
+            List<ChainCertificateInfo> peerChain = extractPeerChain(socket.getSession());
+            String mode = alias == null || alias.isBlank() ? "full truststore" : "alias=" + alias;
+            notifyListeners(ValidationOutcome.TRUSTED, clock.timings());
+            return new ValidationResult(true, "TLS validation succeeded using " + mode, peerChain, clock.timings());
+        } catch (Exception e) {
+            PhaseTimings timings = clock.stop();
+            notifyListeners(ValidationOutcome.of(e), timings);
+            return failureResult(e, host, port).withTimings(timings);
+        } finally {
+            if (abort != null) {
+                cancellation.removeOnCancel(abort);
+            }
+            if (trust != null && socket != null) {
+                trust.unregister(socket);
+            }
+            closeQuietly(socket);
+        }
+    }
 
+    public CompletableFuture<ValidationResult> validateAsync(
+        String host,
+        int port,
+        KeyStore sourceStore,
+        String alias
+    ) {
+        return validateAsync(host, port, sourceStore, alias, HandshakeMode.FULL);
+    }
+
+    public CompletableFuture<ValidationResult> validateAsync(
+        String host,
+        int port,
+        KeyStore sourceStore,
+        String alias,
+        HandshakeMode handshakeMode
+    ) {
+        if (handshakeMode == HandshakeMode.CACHED_CHAIN) {
+            PeerChainCache.Hit hit = peerChainCache.lookup(host, port);
+            if (hit != null) {
+                return CompletableFuture.completedFuture(evaluateCachedChain(hit, sourceStore, alias));
+            }
+        }
+        return handshakeAsync(host, null, port, sourceStore, alias, handshakeMode, new PhaseClock());
+    }
+
+    public List<AddressValidationResult> validateAllAddresses(
+        String host,
+        int port,
+        KeyStore sourceStore,
+        String alias,
+        HandshakeMode handshakeMode
+    ) {
+        long started = System.nanoTime();
+        List<InetAddress> addresses;
+        try {
+            addresses = dnsCache.resolve(host);
+        } catch (Exception e) {
+            PhaseTimings timings = new PhaseTimings(Duration.ofNanos(System.nanoTime() - started), null, null, null);
+            return List.of(new AddressValidationResult(null, failureResult(e, host, port).withTimings(timings)));
+        }
+        Duration resolution = Duration.ofNanos(System.nanoTime() - started);
+        List<CompletableFuture<AddressValidationResult>> checks = new ArrayList<>();
+        for (InetAddress address : addresses) {
+            PhaseClock clock = new PhaseClock();
+            clock.dnsResolved(resolution);
+            // Per-address chains may differ, so the host-keyed chain cache is bypassed here.
+            HandshakeMode mode = handshakeMode == HandshakeMode.CACHED_CHAIN ? HandshakeMode.CERTIFICATE_ONLY : handshakeMode;
+            checks.add(handshakeAsync(host, address, port, sourceStore, alias, mode, clock)
+                .thenApply(result -> new AddressValidationResult(address, result)));
+        }
+        List<AddressValidationResult> results = new ArrayList<>(checks.size());
+        for (CompletableFuture<AddressValidationResult> check : checks) {
+            results.add(check.join());
+        }
+        return results;
+    }
+
+    public ProtocolProbeMatrix probeProtocols(String host, int port, KeyStore sourceStore, String alias) {
+        long started = System.nanoTime();
+        SSLContext context;
+        NioHandshakeEngine engine;
+        InetAddress address;
+        try {
+            context = trustContext(sourceStore, alias).sslContext();
+            engine = nioHandshakeEngine();
+            address = dnsCache.resolve(host).get(0);
+        } catch (Exception e) {
+            return new ProtocolProbeMatrix(
+                host,
+                port,
+                CipherSuiteGroups.PROTOCOLS,
+                CipherSuiteGroups.GROUPS,
+                List.of(),
+                Duration.ofNanos(System.nanoTime() - started),
+                failureResult(e, host, port).message()
+            );
+        }
+        Map<String, List<String>> suitesByGroup = CipherSuiteGroups.group(
+            context.getSupportedSSLParameters().getCipherSuites()
+        );
+        List<CompletableFuture<ProtocolProbeResult>> probes = new ArrayList<>();
+        for (String protocol : CipherSuiteGroups.PROTOCOLS) {
+            for (String group : CipherSuiteGroups.GROUPS) {
+                if (!CipherSuiteGroups.applies(protocol, group)) {
+                    continue;
+                }
+                String[] suites = suitesByGroup.get(group).toArray(String[]::new);
+                if (suites.length == 0) {
+                    probes.add(CompletableFuture.completedFuture(new ProtocolProbeResult(
+                        protocol,
+                        group,
+                        ProbeStatus.NOT_SUPPORTED_BY_CLIENT,
+                        null,
+                        "no client cipher suites in this group",
+                        Duration.ZERO
+                    )));
+                    continue;
+                }
+                long probeStarted = System.nanoTime();
+                probes.add(engine.handshakeSession(host, address, port, context, new PhaseClock(), sslEngine -> {
+                    sslEngine.setEnabledProtocols(new String[] {protocol});
+                    sslEngine.setEnabledCipherSuites(suites);
+                }).handle((session, error) -> probeResult(
+                    protocol,
+                    group,
+                    session,
+                    error,
+                    Duration.ofNanos(System.nanoTime() - probeStarted),
+                    host,
+                    port
+                )));
+            }
+        }
+        List<ProtocolProbeResult> results = new ArrayList<>(probes.size());
+        for (CompletableFuture<ProtocolProbeResult> probe : probes) {
+            results.add(probe.join());
+        }
+        return new ProtocolProbeMatrix(
+            host,
+            port,
+            CipherSuiteGroups.PROTOCOLS,
+            CipherSuiteGroups.GROUPS,
+            results,
+            Duration.ofNanos(System.nanoTime() - started),
+            null
+        );
+    }
+
+    private ProtocolProbeResult probeResult(
+        String protocol,
+        String group,
+        SSLSession session,
+        Throwable error,
+        Duration elapsed,
+        String host,
+        int port
+    ) {
+        if (error == null) {
+            return new ProtocolProbeResult(
+                protocol,
+                group,
+                ProbeStatus.ACCEPTED,
+                session.getCipherSuite(),
+                "negotiated " + session.getProtocol(),
+                elapsed
+            );
+        }
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        String message = safeMessage(cause);
+        ProbeStatus status;
+        if (hasCause(cause, CertificateException.class)) {
+            // The server got as far as sending its chain, so it accepted this protocol and group.
+            status = ProbeStatus.ACCEPTED_UNTRUSTED;
+        } else if (message.startsWith("No appropriate protocol") || message.startsWith("No appropriate cipher")) {
+            status = ProbeStatus.NOT_SUPPORTED_BY_CLIENT;
+        } else if (cause instanceof SSLException || cause instanceof EOFException
+            || cause instanceof SocketException && !(cause instanceof ConnectException)) {
+            status = ProbeStatus.REJECTED;
+        } else {
+            status = ProbeStatus.ERROR;
+            message = failureResult(
+                cause instanceof Exception exception ? exception : new Exception(cause),
+                host,
+                port
+            ).message();
+        }
+        return new ProtocolProbeResult(protocol, group, status, null, message, elapsed);
+    }
+
+    private static boolean hasCause(Throwable error, Class<? extends Throwable> type) {
+        Throwable current = error;
+        while (current != null) {
+            if (type.isInstance(current)) {
+                return true;
+            }
+            current = current.getCause() == current ? null : current.getCause();
+        }
+        return false;
+    }
+
+    private CompletableFuture<ValidationResult> handshakeAsync(
+        String host,
+        InetAddress address,
+        int port,
+        KeyStore sourceStore,
+        String alias,
+        HandshakeMode handshakeMode,
+        PhaseClock clock
+    ) {
+        boolean certificateOnly = handshakeMode != HandshakeMode.FULL;
+        TrustContext trust;
+        SSLContext context;
+        NioHandshakeEngine engine;
+        try {
+            trust = certificateOnly ? null : trustContext(sourceStore, alias);
+            context = certificateOnly ? chainCaptureContext() : trust.sslContext();
+            engine = nioHandshakeEngine();
+        } catch (Exception e) {
+            notifyListeners(ValidationOutcome.of(e), PhaseTimings.NONE);
+            return CompletableFuture.completedFuture(failureResult(e, host, port));
+        }
+        String mode = alias == null || alias.isBlank() ? "full truststore" : "alias=" + alias;
+        AtomicReference<SSLEngine> registered = new AtomicReference<>();
+        Consumer<SSLEngine> engineSetup = sslEngine -> {
+            if (trust != null) {
+                // Registered before the engine begins its handshake, removed once the handshake completes.
+                trust.register(sslEngine, clock);
+                registered.set(sslEngine);
+            }
+        };
+        return engine.handshake(host, address, port, context, clock, engineSetup).handle((chain, error) -> {
+            SSLEngine sslEngine = registered.get();
+            if (sslEngine != null) {
+                trust.unregister(sslEngine);
+            }
+            if (certificateOnly) {
+                PeerChainCapturedException captured = PeerChainCapturedException.find(error);
+                if (captured != null) {
+                    CapturedPeerChain peerChain = new CapturedPeerChain(
+                        host,
+                        port,
+                        List.of(captured.chain()),
+                        captured.authType(),
+                        clock.timings()
+                    );
+                    if (address == null) {
+                        peerChainCache.put(peerChain);
+                    }
+                    ValidationResult result = evaluateChain(peerChain, sourceStore, alias, "certificate-only handshake");
+                    notifyListeners(ValidationOutcome.of(result), result.timings());
+                    return result;
+                }
+                if (error == null) {
+                    error = new SSLPeerUnverifiedException("Server did not present a certificate chain");
+                }
+            }
+            if (error == null) {
+                notifyListeners(ValidationOutcome.TRUSTED, clock.timings());
+                return new ValidationResult(
+                    true,
+                    "TLS validation succeeded using " + mode,
+                    toChainInfo(chain),
+                    clock.timings()
+                );
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause()
+                : error;
+            notifyListeners(ValidationOutcome.of(cause), clock.timings());
+            return failureResult(cause instanceof Exception exception ? exception : new Exception(cause), host, port)
+                .withTimings(clock.timings());
+        });
+    }
+
+    private synchronized NioHandshakeEngine nioHandshakeEngine() throws IOException {
+        if (closed) {
+            throw new IllegalStateException("TLS validation service is closed");
+        }
+        if (nioHandshakeEngine == null) {
+            nioHandshakeEngine = new NioHandshakeEngine(
+                NIO_SELECTOR_THREADS,
+                CONNECT_TIMEOUT_MS,
+                READ_TIMEOUT_MS,
+                dnsCache
+            );
+        }
+        return nioHandshakeEngine;
+    }
+
+    // Stops the NIO engine's selector, task and DNS threads; blocking checks keep working.
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (nioHandshakeEngine != null) {
+            nioHandshakeEngine.close();
+            nioHandshakeEngine = null;
+        }
+    }
+
+    private synchronized SSLContext chainCaptureContext() throws Exception {
+        if (chainCaptureContext == null) {
             SSLContext context = SSLContext.getInstance("TLS");
-            TrustManagerFactory trustManagerFactory = TrustManagerFactory.getInstance(
-                TrustManagerFactory.getDefaultAlgorithm()
+            context.init(null, new TrustManager[] {new ChainCaptureTrustManager()}, null);
+            chainCaptureContext = context;
+        }
+        return chainCaptureContext;
+    }
+
+    public CapturedPeerChain capturePeerChain(String host, int port) throws Exception {
+        PhaseClock clock = new PhaseClock();
+        try {
+            CapturedPeerChain captured = capturePeerChain(host, port, clock);
+            notifyListeners(ValidationOutcome.CHAIN_CAPTURED, captured.timings());
+            return captured;
+        } catch (Exception e) {
+            notifyListeners(ValidationOutcome.of(e), clock.stop());
+            throw e;
+        }
+    }
+
+    private CapturedPeerChain capturePeerChain(String host, int port, PhaseClock clock) throws Exception {
+        SSLContext context = chainCaptureContext();
+        try (SSLSocket socket = openTlsSocket(context, host, port, clock)) {
+            socket.startHandshake();
+        } catch (SSLException e) {
+            PeerChainCapturedException captured = PeerChainCapturedException.find(e);
+            if (captured == null) {
+                throw e;
+            }
+            CapturedPeerChain peerChain = new CapturedPeerChain(
+                host,
+                port,
+                List.of(captured.chain()),
+                captured.authType(),
+                clock.stop()
             );
-            trustManagerFactory.init(effectiveStore);
-            context.init(null, trustManagerFactory.getTrustManagers(), null);
-
-            try (SSLSocket socket = (SSLSocket) context.getSocketFactory().createSocket()) {
-                socket.connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT_MS);
-                socket.setSoTimeout(READ_TIMEOUT_MS);
-                socket.startHandshake();
-                SSLSession session = socket.getSession();
-                List<ChainCertificateInfo> peerChain = extractPeerChain(session);
-                String mode = alias == null || alias.isBlank() ? "full truststore" : "alias=" + alias;
-                return new ValidationResult(true, "TLS validation succeeded using " + mode, peerChain);
-            }
-        } catch (UnknownHostException e) {
+            peerChainCache.put(peerChain);
+            return peerChain;
+        }
+        throw new SSLPeerUnverifiedException("Server did not present a certificate chain");
+    }
+
+    private SSLSocket openTlsSocket(SSLContext context, String host, int port, PhaseClock clock) throws IOException {
+        List<InetAddress> addresses = dnsCache.resolve(host);
+        clock.dnsResolved();
+        Socket plain = HappyEyeballsConnector.connect(addresses, port, CONNECT_TIMEOUT_MS);
+        try {
+            clock.connected();
+            plain.setSoTimeout(READ_TIMEOUT_MS);
+            // Layering keeps the host name for SNI while DNS and connect are timed on their own.
+            return (SSLSocket) context.getSocketFactory().createSocket(plain, host, port, true);
+        } catch (IOException | RuntimeException e) {
+            closeQuietly(plain);
+            throw e;
+        }
+    }
+
+    private void closeQuietly(Socket socket) {
+        if (socket == null) {
+            return;
+        }
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+            // Socket is being discarded.
+        }
+    }
+
+    private CapturedPeerChain cachedOrCapturedPeerChain(String host, int port) throws Exception {
+        PeerChainCache.Hit hit = peerChainCache.lookup(host, port);
+        if (hit == null) {
+            return capturePeerChain(host, port);
+        }
+        CapturedPeerChain cached = hit.chain();
+        return new CapturedPeerChain(cached.host(), cached.port(), cached.chain(), cached.authType());
+    }
+
+    private ValidationResult evaluateCachedChain(PeerChainCache.Hit hit, KeyStore sourceStore, String alias) {
+        CapturedPeerChain cached = hit.chain();
+        return evaluateChain(
+            new CapturedPeerChain(cached.host(), cached.port(), cached.chain(), cached.authType()),
+            sourceStore,
+            alias,
+            "cached chain, captured " + hit.age().toSeconds() + " s ago"
+        );
+    }
+
+    public ValidationResult evaluateCapturedChain(CapturedPeerChain captured, KeyStore sourceStore, String alias) {
+        return evaluateChain(captured, sourceStore, alias, "captured chain");
+    }
+
+    private ValidationResult evaluateChain(
+        CapturedPeerChain captured,
+        KeyStore sourceStore,
+        String alias,
+        String source
+    ) {
+        try {
+            X509TrustManager trustManager = trustContext(sourceStore, alias).trustManager();
+            X509Certificate[] chain = captured.chainArray();
+            List<ChainCertificateInfo> peerChain = toChainInfo(chain);
+            long started = System.nanoTime();
+            try {
+                trustManager.checkServerTrusted(chain, captured.authType());
+            } catch (CertificateException e) {
+                return new ValidationResult(
+                    false,
+                    "TLS validation failed: connected to server, but certificate validation failed (" + safeMessage(e) + ")",
+                    peerChain,
+                    captured.timings().withTrust(Duration.ofNanos(System.nanoTime() - started))
+                );
+            }
+            String mode = alias == null || alias.isBlank() ? "full truststore" : "alias=" + alias;
+            return new ValidationResult(
+                true,
+                "TLS validation succeeded using " + mode + " (" + source + ")",
+                peerChain,
+                captured.timings().withTrust(Duration.ofNanos(System.nanoTime() - started))
+            );
+        } catch (Exception e) {
+            return failureResult(e, captured.host(), captured.port()).withTimings(captured.timings());
+        }
+    }
+
+    public ValidationResult connectionFailure(Exception error, String host, int port) {
+        return failureResult(error, host, port);
+    }
+
+    private ValidationResult failureResult(Exception error, String host, int port) {
+        if (error instanceof UnknownHostException) {
             return new ValidationResult(
                 false,
                 "TLS validation failed: host is unreachable or DNS name is invalid (" + host + ")",
                 List.of()
             );
-        } catch (ConnectException e) {
+        }
+        if (error instanceof ConnectException) {
             return new ValidationResult(
                 false,
                 "TLS validation failed: unable to reach " + host + ":" + port + " (connection refused/unreachable)",
                 List.of()
             );
-        } catch (SocketTimeoutException e) {
+        }
+        if (error instanceof SocketTimeoutException) {
             return new ValidationResult(
                 false,
                 "TLS validation failed: network timeout while connecting or during TLS handshake to " + host + ":" + port,
                 List.of()
             );
-        } catch (SSLHandshakeException e) {
+        }
+        if (error instanceof SSLHandshakeException) {
             return new ValidationResult(
                 false,
-                "TLS validation failed: connected to server, but certificate validation failed (" + safeMessage(e) + ")",
+                "TLS validation failed: connected to server, but certificate validation failed (" + safeMessage(error) + ")",
                 List.of()
             );
-        } catch (SSLException e) {
+        }
+        if (error instanceof SSLException) {
             return new ValidationResult(
                 false,
-                "TLS validation failed: connected to server, but TLS negotiation failed (" + safeMessage(e) + ")",
+                "TLS validation failed: connected to server, but TLS negotiation failed (" + safeMessage(error) + ")",
                 List.of()
             );
-        } catch (IllegalArgumentException e) {
-            return new ValidationResult(false, "TLS validation failed: " + safeMessage(e), List.of());
-        } catch (Exception e) {
-            return new ValidationResult(false, "TLS validation failed: unexpected error (" + safeMessage(e) + ")", List.of());
         }
+        if (error instanceof IllegalArgumentException) {
+            return new ValidationResult(false, "TLS validation failed: " + safeMessage(error), List.of());
+        }
+        return new ValidationResult(false, "TLS validation failed: unexpected error (" + safeMessage(error) + ")", List.of());
     }
 
     public ValidationResult validateCertificateFile(String certificatePath, KeyStore sourceStore, String alias) {
@@ -102,30 +647,86 @@ public class TlsValidationService {
         String alias,
         String pkcs12Password
     ) {
+        return validateCertificateFile(prepareCertificateFile(certificatePath, pkcs12Password), sourceStore, alias);
+    }
+
+    public PreparedCertificateFile prepareCertificateFile(String certificatePath, String pkcs12Password) {
         if (certificatePath == null || certificatePath.isBlank()) {
-            return new ValidationResult(false, "Certificate file path is required", List.of());
+            return PreparedCertificateFile.failed(
+                certificatePath,
+                new ValidationResult(false, "Certificate file path is required", List.of())
+            );
         }
         try {
-            KeyStore effectiveStore = alias == null || alias.isBlank()
-                ? sourceStore
-                : singleAliasStore(sourceStore, alias);
             Path path = Path.of(certificatePath.trim());
             if (!Files.exists(path)) {
-                return new ValidationResult(false, "Certificate file is not found: " + path, List.of());
+                return PreparedCertificateFile.failed(
+                    certificatePath,
+                    new ValidationResult(false, "Certificate file is not found: " + path, List.of())
+                );
             }
             if (!Files.isRegularFile(path)) {
-                return new ValidationResult(false, "Certificate path is not a file: " + path, List.of());
+                return PreparedCertificateFile.failed(
+                    certificatePath,
+                    new ValidationResult(false, "Certificate path is not a file: " + path, List.of())
+                );
             }
 
             List<X509Certificate> certificates = parseX509FromFile(path, pkcs12Password);
             if (certificates.isEmpty()) {
-                return new ValidationResult(false, "No X.509 certificates found in file: " + path, List.of());
+                return PreparedCertificateFile.failed(
+                    certificatePath,
+                    new ValidationResult(false, "No X.509 certificates found in file: " + path, List.of())
+                );
+            }
+            List<List<X509Certificate>> candidateChains = new ArrayList<>();
+            for (X509Certificate candidateLeaf : certificates) {
+                candidateChains.add(List.of(buildCandidateChain(candidateLeaf, certificates)));
             }
+            return new PreparedCertificateFile(
+                certificatePath,
+                List.copyOf(certificates),
+                List.copyOf(candidateChains),
+                null
+            );
+        } catch (IllegalArgumentException e) {
+            return PreparedCertificateFile.failed(certificatePath, certificateFailure(e));
+        } catch (Exception e) {
+            return PreparedCertificateFile.failed(
+                certificatePath,
+                new ValidationResult(
+                    false,
+                    "Certificate validation failed: unexpected error (" + safeMessage(e) + ")",
+                    List.of()
+                )
+            );
+        }
+    }
 
-            X509TrustManager trustManager = buildTrustManager(effectiveStore);
+    public ValidationResult validateCertificateFile(
+        PreparedCertificateFile prepared,
+        KeyStore sourceStore,
+        String alias
+    ) {
+        if (!prepared.ready()) {
+            return prepared.failure();
+        }
+        long started = System.nanoTime();
+        ValidationResult result = evaluateCertificateFile(prepared, sourceStore, alias);
+        return result.withTimings(PhaseTimings.trustOnly(Duration.ofNanos(System.nanoTime() - started)));
+    }
+
+    private ValidationResult evaluateCertificateFile(
+        PreparedCertificateFile prepared,
+        KeyStore sourceStore,
+        String alias
+    ) {
+        try {
+            X509TrustManager trustManager = trustContext(sourceStore, alias).trustManager();
             ValidationAttempt bestAttempt = null;
-            for (X509Certificate candidateLeaf : certificates) {
-                X509Certificate[] chain = buildCandidateChain(candidateLeaf, certificates);
+            for (List<X509Certificate> candidateChain : prepared.candidateChains()) {
+                X509Certificate candidateLeaf = candidateChain.get(0);
+                X509Certificate[] chain = candidateChain.toArray(X509Certificate[]::new);
                 Exception validationError = validateChainAgainstTrustManager(trustManager, chain, candidateLeaf);
                 if (validationError == null) {
                     String mode = alias == null || alias.isBlank() ? "full truststore" : "alias=" + alias;
@@ -148,7 +749,11 @@ public class TlsValidationService {
             }
 
             if (bestAttempt == null) {
-                return new ValidationResult(false, "Certificate is not trusted: no valid validation attempt", toChainInfo(certificates));
+                return new ValidationResult(
+                    false,
+                    "Certificate is not trusted: no valid validation attempt",
+                    toChainInfo(prepared.certificates())
+                );
             }
             return new ValidationResult(
                 false,
@@ -156,11 +761,7 @@ public class TlsValidationService {
                 toChainInfo(bestAttempt.chain())
             );
         } catch (IllegalArgumentException e) {
-            String message = safeMessage(e);
-            if (message.startsWith(PKCS12_PASSWORD_REQUIRED_PREFIX)) {
-                return new ValidationResult(false, message, List.of());
-            }
-            return new ValidationResult(false, "Certificate validation failed: " + message, List.of());
+            return certificateFailure(e);
         } catch (Exception e) {
             return new ValidationResult(
                 false,
@@ -170,18 +771,19 @@ public class TlsValidationService {
         }
     }
 
-    private KeyStore singleAliasStore(KeyStore sourceStore, String alias) throws Exception {
-        if (!sourceStore.containsAlias(alias)) {
-            throw new IllegalArgumentException("Alias not found: " + alias);
+    private ValidationResult certificateFailure(IllegalArgumentException error) {
+        String message = safeMessage(error);
+        if (message.startsWith(PKCS12_PASSWORD_REQUIRED_PREFIX)) {
+            return new ValidationResult(false, message, List.of());
         }
-        Certificate cert = sourceStore.getCertificate(alias);
-        if (cert == null) {
-            throw new IllegalArgumentException("No certificate found for alias: " + alias);
+        return new ValidationResult(false, "Certificate validation failed: " + message, List.of());
+    }
+
+    private TrustContext trustContext(KeyStore sourceStore, String alias) throws Exception {
+        if (alias == null || alias.isBlank()) {
+            return trustContextCache.forStore(sourceStore);
         }
-        KeyStore single = KeyStore.getInstance(KeyStore.getDefaultType());
-        single.load(null, null);
-        single.setCertificateEntry(alias, cert);
-        return single;
+        return trustContextCache.forAlias(sourceStore, alias);
     }
 
     private List<ChainCertificateInfo> extractPeerChain(SSLSession session) throws SSLPeerUnverifiedException {
@@ -189,29 +791,12 @@ public class TlsValidationService {
         List<ChainCertificateInfo> chain = new ArrayList<>();
         for (Certificate cert : peerCertificates) {
             if (cert instanceof X509Certificate x509) {
-                chain.add(new ChainCertificateInfo(
-                    x509.getSubjectX500Principal().getName(),
-                    x509.getIssuerX500Principal().getName(),
-                    x509.getNotAfter().toInstant()
-                ));
+                chain.add(ChainCertificateInfo.of(x509));
             }
         }
         return chain;
     }
 
-    private X509TrustManager buildTrustManager(KeyStore trustStore) throws Exception {
-        TrustManagerFactory trustManagerFactory = TrustManagerFactory.getInstance(
-            TrustManagerFactory.getDefaultAlgorithm()
-        );
-        trustManagerFactory.init(trustStore);
-        for (var manager : trustManagerFactory.getTrustManagers()) {
-            if (manager instanceof X509TrustManager x509TrustManager) {
-                return x509TrustManager;
-            }
-        }
-        throw new IllegalStateException("X509TrustManager is not available");
-    }
-
     private List<X509Certificate> parseX509FromFile(Path path, String pkcs12Password) throws Exception {
         byte[] bytes = Files.readAllBytes(path);
         try {
@@ -432,11 +1017,7 @@ public class TlsValidationService {
     }
 
     private ChainCertificateInfo toChainInfo(X509Certificate certificate) {
-        return new ChainCertificateInfo(
-            certificate.getSubjectX500Principal().getName(),
-            certificate.getIssuerX500Principal().getName(),
-            certificate.getNotAfter().toInstant()
-        );
+        return ChainCertificateInfo.of(certificate);
     }
 
     public AliasScanResult findValidAliases(String host, int port, KeyStore sourceStore) {
@@ -449,38 +1030,65 @@ public class TlsValidationService {
         KeyStore sourceStore,
         Consumer<AliasScanProgress> progressCallback
     ) {
-        List<String> validAliases = new ArrayList<>();
-        int checkedAliases = 0;
-        int failedAliases = 0;
+        return findValidAliases(host, port, sourceStore, AliasScanMode.SINGLE_HANDSHAKE, progressCallback);
+    }
+
+    public AliasScanResult findValidAliases(
+        String host,
+        int port,
+        KeyStore sourceStore,
+        AliasScanMode mode,
+        Consumer<AliasScanProgress> progressCallback
+    ) {
+        return findValidAliases(host, port, sourceStore, null, mode, progressCallback, new ScanCancellation());
+    }
+
+    public AliasScanResult findValidAliases(
+        String host,
+        int port,
+        KeyStore sourceStore,
+        TrustAnchorIndex anchorIndex,
+        AliasScanMode mode,
+        Consumer<AliasScanProgress> progressCallback,
+        ScanCancellation cancellation
+    ) {
+        if (mode == AliasScanMode.HANDSHAKE_PER_ALIAS) {
+            return scanAliases(
+                sourceStore,
+                alias -> validate(host, port, sourceStore, alias, HandshakeMode.FULL, cancellation),
+                progressCallback,
+                cancellation,
+                null
+            );
+        }
+        CapturedPeerChain captured;
         try {
-            int totalAliases = countAliasesWithCertificates(sourceStore);
-            Enumeration<String> aliases = sourceStore.aliases();
-            while (aliases.hasMoreElements()) {
-                String alias = aliases.nextElement();
-                Certificate cert = sourceStore.getCertificate(alias);
-                if (cert == null) {
-                    continue;
-                }
-                checkedAliases++;
-                ValidationResult result = validate(host, port, sourceStore, alias);
-                if (result.success()) {
-                    validAliases.add(alias);
-                } else {
-                    failedAliases++;
-                }
-                if (progressCallback != null) {
-                    progressCallback.accept(new AliasScanProgress(
-                        checkedAliases,
-                        totalAliases,
-                        alias,
-                        validAliases.size()
-                    ));
-                }
-            }
-            return new AliasScanResult(validAliases, checkedAliases, failedAliases, null);
+            captured = cachedOrCapturedPeerChain(host, port);
         } catch (Exception e) {
-            return new AliasScanResult(validAliases, checkedAliases, failedAliases, e.getMessage());
+            return new AliasScanResult(List.of(), 0, 0, failureResult(e, host, port).message());
         }
+        return findValidAliases(captured, sourceStore, anchorIndex, progressCallback, cancellation);
+    }
+
+    public AliasScanResult findValidAliases(
+        CapturedPeerChain captured,
+        KeyStore sourceStore,
+        TrustAnchorIndex anchorIndex,
+        Consumer<AliasScanProgress> progressCallback,
+        ScanCancellation cancellation
+    ) {
+        return scanCandidateAliases(
+            sourceStore,
+            anchorIndex,
+            captured.chain(),
+            alias -> {
+                ValidationResult result = evaluateCapturedChain(captured, sourceStore, alias);
+                return result.withTimings(PhaseTimings.trustOnly(result.timings().trust()));
+            },
+            progressCallback,
+            cancellation,
+            captured.timings()
+        ).withPeerChain(toChainInfo(captured.chain()));
     }
 
     public AliasScanResult findValidAliasesForCertificateFile(
@@ -489,38 +1097,93 @@ public class TlsValidationService {
         String pkcs12Password,
         Consumer<AliasScanProgress> progressCallback
     ) {
-        List<String> validAliases = new ArrayList<>();
-        int checkedAliases = 0;
-        int failedAliases = 0;
-        try {
-            int totalAliases = countAliasesWithCertificates(sourceStore);
-            Enumeration<String> aliases = sourceStore.aliases();
-            while (aliases.hasMoreElements()) {
-                String alias = aliases.nextElement();
-                Certificate cert = sourceStore.getCertificate(alias);
-                if (cert == null) {
-                    continue;
-                }
-                checkedAliases++;
-                ValidationResult result = validateCertificateFile(certificatePath, sourceStore, alias, pkcs12Password);
-                if (result.success()) {
-                    validAliases.add(alias);
-                } else {
-                    failedAliases++;
-                }
-                if (progressCallback != null) {
-                    progressCallback.accept(new AliasScanProgress(
-                        checkedAliases,
-                        totalAliases,
-                        alias,
-                        validAliases.size()
-                    ));
-                }
+        return findValidAliasesForCertificateFile(
+            certificatePath,
+            sourceStore,
+            null,
+            pkcs12Password,
+            progressCallback,
+            new ScanCancellation()
+        );
+    }
+
+    public AliasScanResult findValidAliasesForCertificateFile(
+        String certificatePath,
+        KeyStore sourceStore,
+        TrustAnchorIndex anchorIndex,
+        String pkcs12Password,
+        Consumer<AliasScanProgress> progressCallback,
+        ScanCancellation cancellation
+    ) {
+        return findValidAliasesForCertificateFile(
+            prepareCertificateFile(certificatePath, pkcs12Password),
+            sourceStore,
+            anchorIndex,
+            progressCallback,
+            cancellation
+        );
+    }
+
+    public AliasScanResult findValidAliasesForCertificateFile(
+        PreparedCertificateFile prepared,
+        KeyStore sourceStore,
+        TrustAnchorIndex anchorIndex,
+        Consumer<AliasScanProgress> progressCallback,
+        ScanCancellation cancellation
+    ) {
+        if (!prepared.ready()) {
+            return new AliasScanResult(List.of(), 0, 0, prepared.failure().message());
+        }
+        return scanCandidateAliases(
+            sourceStore,
+            anchorIndex,
+            prepared.certificates(),
+            alias -> validateCertificateFile(prepared, sourceStore, alias),
+            progressCallback,
+            cancellation,
+            null
+        );
+    }
+
+    private AliasScanResult scanCandidateAliases(
+        KeyStore sourceStore,
+        TrustAnchorIndex anchorIndex,
+        List<X509Certificate> chain,
+        Function<String, ValidationResult> aliasCheck,
+        Consumer<AliasScanProgress> progressCallback,
+        ScanCancellation cancellation,
+        PhaseTimings preflight
+    ) {
+        if (anchorIndex == null) {
+            return scanAliases(sourceStore, aliasCheck, progressCallback, cancellation, preflight);
+        }
+        Set<String> candidates = anchorIndex.candidateAliases(chain);
+        List<String> plausible = new ArrayList<>();
+        List<String> rejected = new ArrayList<>();
+        for (String alias : anchorIndex.aliases()) {
+            if (candidates.contains(alias)) {
+                plausible.add(alias);
+            } else {
+                rejected.add(alias);
             }
-            return new AliasScanResult(validAliases, checkedAliases, failedAliases, null);
+        }
+        return aliasScanEngine.scan(plausible, rejected, aliasCheck, progressCallback, cancellation, preflight);
+    }
+
+    private AliasScanResult scanAliases(
+        KeyStore sourceStore,
+        Function<String, ValidationResult> aliasCheck,
+        Consumer<AliasScanProgress> progressCallback,
+        ScanCancellation cancellation,
+        PhaseTimings preflight
+    ) {
+        List<String> aliases;
+        try {
+            aliases = aliasesWithCertificates(sourceStore);
         } catch (Exception e) {
-            return new AliasScanResult(validAliases, checkedAliases, failedAliases, safeMessage(e));
+            return new AliasScanResult(List.of(), 0, 0, safeMessage(e));
         }
+        return aliasScanEngine.scan(aliases, List.of(), aliasCheck, progressCallback, cancellation, preflight);
     }
 
     private String safeMessage(Throwable t) {
@@ -530,16 +1193,16 @@ public class TlsValidationService {
         return t.getMessage();
     }
 
-    private int countAliasesWithCertificates(KeyStore sourceStore) throws Exception {
-        int count = 0;
+    private List<String> aliasesWithCertificates(KeyStore sourceStore) throws Exception {
+        List<String> result = new ArrayList<>();
         Enumeration<String> aliases = sourceStore.aliases();
         while (aliases.hasMoreElements()) {
             String alias = aliases.nextElement();
             if (sourceStore.getCertificate(alias) != null) {
-                count++;
+                result.add(alias);
             }
         }
-        return count;
+        return result;
     }
 
     private record ValidationAttempt(X509Certificate[] chain, CertificateException error) {
@@ -0,0 +1,51 @@
+package app.tls;
+
+import java.security.cert.TrustAnchor;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+
+final class TrustContext {
+    private final TrustAnchor anchor;
+    private final X509TrustManager trustManager;
+    private final TimingTrustManager timingTrustManager;
+    private volatile SSLContext sslContext;
+
+    TrustContext(TrustAnchor anchor, X509TrustManager trustManager) {
+        this.anchor = anchor;
+        this.trustManager = trustManager;
+        this.timingTrustManager = new TimingTrustManager(trustManager);
+    }
+
+    TrustAnchor anchor() {
+        return anchor;
+    }
+
+    X509TrustManager trustManager() {
+        return trustManager;
+    }
+
+    SSLContext sslContext() throws Exception {
+        SSLContext context = sslContext;
+        if (context == null) {
+            synchronized (this) {
+                context = sslContext;
+                if (context == null) {
+                    context = SSLContext.getInstance("TLS");
+                    context.init(null, new TrustManager[] {timingTrustManager}, null);
+                    sslContext = context;
+                }
+            }
+        }
+        return context;
+    }
+
+    // Trust evaluation of a handshake on this context is recorded on the clock registered for its socket or engine.
+    void register(Object connection, PhaseClock clock) {
+        timingTrustManager.register(connection, clock);
+    }
+
+    void unregister(Object connection) {
+        timingTrustManager.unregister(connection);
+    }
+}
@@ -0,0 +1,128 @@
+package app.tls;
+
+import java.security.KeyStore;
+import java.security.cert.Certificate;
+import java.security.cert.PKIXBuilderParameters;
+import java.security.cert.TrustAnchor;
+import java.security.cert.X509Certificate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import javax.net.ssl.CertPathTrustManagerParameters;
+import javax.net.ssl.ManagerFactoryParameters;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.TrustManagerFactory;
+import javax.net.ssl.X509TrustManager;
+
+final class TrustContextCache {
+    static final int DEFAULT_MAX_ALIAS_ENTRIES = 512;
+
+    private final Map<String, TrustContext> aliasContexts;
+    private KeyStore boundStore;
+    private TrustContext storeContext;
+
+    TrustContextCache(int maxAliasEntries) {
+        if (maxAliasEntries < 1) {
+            throw new IllegalArgumentException("Trust context cache size must be positive: " + maxAliasEntries);
+        }
+        this.aliasContexts = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TrustContext> eldest) {
+                return size() > maxAliasEntries;
+            }
+        };
+    }
+
+    TrustContext forStore(KeyStore keyStore) throws Exception {
+        synchronized (this) {
+            bind(keyStore);
+            if (storeContext != null) {
+                return storeContext;
+            }
+        }
+        TrustContext built = new TrustContext(null, buildTrustManager(keyStore));
+        synchronized (this) {
+            bind(keyStore);
+            if (storeContext == null) {
+                storeContext = built;
+            }
+            return storeContext;
+        }
+    }
+
+    TrustContext forAlias(KeyStore keyStore, String alias) throws Exception {
+        synchronized (this) {
+            bind(keyStore);
+            TrustContext cached = aliasContexts.get(alias);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        TrustAnchor anchor = new TrustAnchor(aliasCertificate(keyStore, alias), null);
+        TrustContext built = new TrustContext(anchor, buildTrustManager(anchor));
+        synchronized (this) {
+            bind(keyStore);
+            TrustContext existing = aliasContexts.putIfAbsent(alias, built);
+            return existing == null ? built : existing;
+        }
+    }
+
+    synchronized void invalidate() {
+        boundStore = null;
+        storeContext = null;
+        aliasContexts.clear();
+    }
+
+    private void bind(KeyStore keyStore) {
+        if (boundStore != keyStore) {
+            boundStore = keyStore;
+            storeContext = null;
+            aliasContexts.clear();
+        }
+    }
+
+    private X509Certificate aliasCertificate(KeyStore keyStore, String alias) throws Exception {
+        if (!keyStore.containsAlias(alias)) {
+            throw new IllegalArgumentException("Alias not found: " + alias);
+        }
+        Certificate cert = keyStore.getCertificate(alias);
+        if (cert == null) {
+            throw new IllegalArgumentException("No certificate found for alias: " + alias);
+        }
+        if (!(cert instanceof X509Certificate x509)) {
+            throw new IllegalArgumentException("Certificate for alias is not X.509: " + alias);
+        }
+        return x509;
+    }
+
+    private static X509TrustManager buildTrustManager(TrustAnchor anchor) throws Exception {
+        PKIXBuilderParameters parameters = new PKIXBuilderParameters(Set.of(anchor), null);
+        parameters.setRevocationEnabled(false);
+        return buildTrustManager(new CertPathTrustManagerParameters(parameters));
+    }
+
+    private static X509TrustManager buildTrustManager(KeyStore trustStore) throws Exception {
+        TrustManagerFactory trustManagerFactory = TrustManagerFactory.getInstance(
+            TrustManagerFactory.getDefaultAlgorithm()
+        );
+        trustManagerFactory.init(trustStore);
+        return firstX509TrustManager(trustManagerFactory.getTrustManagers());
+    }
+
+    private static X509TrustManager buildTrustManager(ManagerFactoryParameters parameters) throws Exception {
+        TrustManagerFactory trustManagerFactory = TrustManagerFactory.getInstance(
+            TrustManagerFactory.getDefaultAlgorithm()
+        );
+        trustManagerFactory.init(parameters);
+        return firstX509TrustManager(trustManagerFactory.getTrustManagers());
+    }
+
+    private static X509TrustManager firstX509TrustManager(TrustManager[] managers) {
+        for (TrustManager manager : managers) {
+            if (manager instanceof X509TrustManager x509TrustManager) {
+                return x509TrustManager;
+            }
+        }
+        throw new IllegalStateException("X509TrustManager is not available");
+    }
+}
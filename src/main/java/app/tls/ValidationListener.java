@@ -0,0 +1,6 @@
+package app.tls;
+
+@FunctionalInterface
+public interface ValidationListener {
+    void handshakeCompleted(ValidationOutcome outcome, PhaseTimings timings);
+}
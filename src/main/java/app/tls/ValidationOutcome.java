@@ -0,0 +1,49 @@
+package app.tls;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.security.cert.CertificateException;
+import java.util.concurrent.CompletionException;
+import javax.net.ssl.SSLException;
+
+public enum ValidationOutcome {
+    TRUSTED,
+    UNTRUSTED,
+    CHAIN_CAPTURED,
+    DNS_FAILURE,
+    CONNECT_FAILURE,
+    TIMEOUT,
+    TLS_FAILURE,
+    ERROR;
+
+    public boolean isError() {
+        return this != TRUSTED && this != UNTRUSTED && this != CHAIN_CAPTURED;
+    }
+
+    static ValidationOutcome of(ValidationResult result) {
+        return result.success() ? TRUSTED : UNTRUSTED;
+    }
+
+    static ValidationOutcome of(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof UnknownHostException) {
+            return DNS_FAILURE;
+        }
+        if (cause instanceof ConnectException) {
+            return CONNECT_FAILURE;
+        }
+        if (cause instanceof SocketTimeoutException) {
+            return TIMEOUT;
+        }
+        if (cause instanceof SSLException) {
+            for (Throwable t = cause; t != null; t = t.getCause()) {
+                if (t instanceof CertificateException) {
+                    return UNTRUSTED;
+                }
+            }
+            return TLS_FAILURE;
+        }
+        return ERROR;
+    }
+}
@@ -2,5 +2,17 @@ package app.tls;
 
 import java.util.List;
 
-public record ValidationResult(boolean success, String message, List<ChainCertificateInfo> peerChain) {
+public record ValidationResult(
+    boolean success,
+    String message,
+    List<ChainCertificateInfo> peerChain,
+    PhaseTimings timings
+) {
+    public ValidationResult(boolean success, String message, List<ChainCertificateInfo> peerChain) {
+        this(success, message, peerChain, PhaseTimings.NONE);
+    }
+
+    public ValidationResult withTimings(PhaseTimings timings) {
+        return new ValidationResult(success, message, peerChain, timings);
+    }
 }
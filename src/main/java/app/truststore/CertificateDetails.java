@@ -0,0 +1,12 @@
+package app.truststore;
+
+import java.util.List;
+
+record CertificateDetails(
+    String subject,
+    String issuer,
+    String serialNumberHex,
+    List<String> altNames,
+    String sha256Fingerprint
+) {
+}
@@ -0,0 +1,82 @@
+package app.truststore;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Bounded LRU of decoded certificate fields; evicted entries are simply decoded again on the next access.
+final class CertificateDetailsMemo {
+    static final int DEFAULT_MAX_ENTRIES = 4096;
+
+    private final Map<X509Certificate, CertificateDetails> entries;
+
+    CertificateDetailsMemo(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Certificate details memo size must be positive: " + maxEntries);
+        }
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<X509Certificate, CertificateDetails> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    CertificateDetails details(X509Certificate certificate) {
+        synchronized (this) {
+            CertificateDetails cached = entries.get(certificate);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        CertificateDetails decoded = new CertificateDetails(
+            certificate.getSubjectX500Principal().getName(),
+            certificate.getIssuerX500Principal().getName(),
+            certificate.getSerialNumber().toString(16),
+            extractAltNames(certificate),
+            fingerprint(certificate)
+        );
+        synchronized (this) {
+            entries.putIfAbsent(certificate, decoded);
+        }
+        return decoded;
+    }
+
+    private static String fingerprint(X509Certificate certificate) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(certificate.getEncoded()));
+        } catch (NoSuchAlgorithmException | CertificateEncodingException e) {
+            return null;
+        }
+    }
+
+    private static List<String> extractAltNames(X509Certificate certificate) {
+        try {
+            Collection<List<?>> sanEntries = certificate.getSubjectAlternativeNames();
+            if (sanEntries == null || sanEntries.isEmpty()) {
+                return List.of();
+            }
+            List<String> result = new ArrayList<>();
+            for (List<?> entry : sanEntries) {
+                if (entry == null || entry.size() < 2) {
+                    continue;
+                }
+                Object typeObj = entry.get(0);
+                Object valueObj = entry.get(1);
+                String type = typeObj == null ? "unknown" : typeObj.toString();
+                String value = valueObj == null ? "" : valueObj.toString();
+                result.add(type + ": " + value);
+            }
+            return result;
+        } catch (Exception ignored) {
+            return List.of();
+        }
+    }
+}
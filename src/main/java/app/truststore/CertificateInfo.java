@@ -1,16 +1,147 @@
 package app.truststore;
 
+import java.security.cert.X509Certificate;
 import java.time.Instant;
 import java.util.List;
+import java.util.Objects;
 
-public record CertificateInfo(
-    String alias,
-    String subject,
-    String issuer,
-    String serialNumberHex,
-    Instant notBefore,
-    Instant notAfter,
-    String status,
-    List<String> altNames
-) {
+// Alias, validity and status are eager; subject, issuer, serial, SANs and fingerprint are decoded on first access.
+public final class CertificateInfo {
+    private final String alias;
+    private final Instant notBefore;
+    private final Instant notAfter;
+    private final String status;
+    private final X509Certificate certificate;
+    private final CertificateDetailsMemo memo;
+    private final CertificateDetails details;
+
+    public CertificateInfo(
+        String alias,
+        String subject,
+        String issuer,
+        String serialNumberHex,
+        Instant notBefore,
+        Instant notAfter,
+        String status,
+        List<String> altNames
+    ) {
+        this(alias, subject, issuer, serialNumberHex, notBefore, notAfter, status, altNames, null);
+    }
+
+    public CertificateInfo(
+        String alias,
+        String subject,
+        String issuer,
+        String serialNumberHex,
+        Instant notBefore,
+        Instant notAfter,
+        String status,
+        List<String> altNames,
+        String sha256Fingerprint
+    ) {
+        this.alias = alias;
+        this.notBefore = notBefore;
+        this.notAfter = notAfter;
+        this.status = status;
+        this.certificate = null;
+        this.memo = null;
+        this.details = new CertificateDetails(subject, issuer, serialNumberHex, altNames, sha256Fingerprint);
+    }
+
+    CertificateInfo(String alias, X509Certificate certificate, String status, CertificateDetailsMemo memo) {
+        this.alias = alias;
+        this.notBefore = certificate.getNotBefore().toInstant();
+        this.notAfter = certificate.getNotAfter().toInstant();
+        this.status = status;
+        this.certificate = certificate;
+        this.memo = memo;
+        this.details = null;
+    }
+
+    public String alias() {
+        return alias;
+    }
+
+    public String subject() {
+        return details().subject();
+    }
+
+    public String issuer() {
+        return details().issuer();
+    }
+
+    public String serialNumberHex() {
+        return details().serialNumberHex();
+    }
+
+    public Instant notBefore() {
+        return notBefore;
+    }
+
+    public Instant notAfter() {
+        return notAfter;
+    }
+
+    public String status() {
+        return status;
+    }
+
+    public List<String> altNames() {
+        return details().altNames();
+    }
+
+    public String sha256Fingerprint() {
+        return details().sha256Fingerprint();
+    }
+
+    // Compares encoded certificates directly when both are available so the diff does not decode every row.
+    boolean sameCertificate(CertificateInfo other) {
+        if (certificate != null && other.certificate != null) {
+            return certificate.equals(other.certificate);
+        }
+        String fingerprint = sha256Fingerprint();
+        String otherFingerprint = other.sha256Fingerprint();
+        if (fingerprint != null && otherFingerprint != null) {
+            return fingerprint.equals(otherFingerprint);
+        }
+        return equals(other);
+    }
+
+    private CertificateDetails details() {
+        return details != null ? details : memo.details(certificate);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof CertificateInfo that)) {
+            return false;
+        }
+        return Objects.equals(alias, that.alias)
+            && Objects.equals(notBefore, that.notBefore)
+            && Objects.equals(notAfter, that.notAfter)
+            && Objects.equals(status, that.status)
+            && Objects.equals(details(), that.details());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(alias, notBefore, notAfter, status);
+    }
+
+    @Override
+    public String toString() {
+        CertificateDetails decoded = details();
+        return "CertificateInfo[alias=" + alias
+            + ", subject=" + decoded.subject()
+            + ", issuer=" + decoded.issuer()
+            + ", serialNumberHex=" + decoded.serialNumberHex()
+            + ", notBefore=" + notBefore
+            + ", notAfter=" + notAfter
+            + ", status=" + status
+            + ", altNames=" + decoded.altNames()
+            + ", sha256Fingerprint=" + decoded.sha256Fingerprint() + "]";
+    }
 }
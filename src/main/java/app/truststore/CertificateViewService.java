@@ -1,44 +1,61 @@
 package app.truststore;
 
 import java.security.KeyStore;
+import java.security.KeyStoreException;
 import java.security.cert.Certificate;
 import java.security.cert.X509Certificate;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
-import java.util.Enumeration;
 import java.util.List;
 
 public class CertificateViewService {
+    private static final Comparator<CertificateInfo> ORDER = Comparator.comparing(CertificateInfo::notAfter)
+        .thenComparing(CertificateInfo::alias);
+
+    private final CertificateDetailsMemo detailsMemo;
+
+    public CertificateViewService() {
+        this(CertificateDetailsMemo.DEFAULT_MAX_ENTRIES);
+    }
+
+    public CertificateViewService(int maxDecodedCertificates) {
+        this.detailsMemo = new CertificateDetailsMemo(maxDecodedCertificates);
+    }
+
+    // Stores opened from an index sidecar are listed without parsing the KeyStore.
+    public List<CertificateInfo> listCertificates(LoadedTruststore truststore) throws Exception {
+        if (truststore.indexed()) {
+            return new ArrayList<>(truststore.indexedCertificates());
+        }
+        return listCertificates(truststore.keyStore());
+    }
+
+    // Details are decoded lazily, so listing only builds light wrappers and stays on the calling thread.
     public List<CertificateInfo> listCertificates(KeyStore keyStore) throws Exception {
-        List<CertificateInfo> result = new ArrayList<>();
-        Enumeration<String> aliases = keyStore.aliases();
-        while (aliases.hasMoreElements()) {
-            String alias = aliases.nextElement();
+        List<CertificateInfo> result = project(keyStore, Collections.list(keyStore.aliases()), Instant.now());
+        result.sort(ORDER);
+        return result;
+    }
+
+    public CertificateInfo describe(String alias, X509Certificate certificate) {
+        return new CertificateInfo(alias, certificate, resolveStatus(certificate.getNotAfter().toInstant(), Instant.now()), detailsMemo);
+    }
+
+    private List<CertificateInfo> project(KeyStore keyStore, List<String> aliases, Instant now) throws KeyStoreException {
+        List<CertificateInfo> result = new ArrayList<>(aliases.size());
+        for (String alias : aliases) {
             Certificate certificate = keyStore.getCertificate(alias);
             if (certificate instanceof X509Certificate x509) {
-                Instant notBefore = x509.getNotBefore().toInstant();
-                Instant notAfter = x509.getNotAfter().toInstant();
-                result.add(new CertificateInfo(
-                    alias,
-                    x509.getSubjectX500Principal().getName(),
-                    x509.getIssuerX500Principal().getName(),
-                    x509.getSerialNumber().toString(16),
-                    notBefore,
-                    notAfter,
-                    resolveStatus(notAfter),
-                    extractAltNames(x509)
-                ));
+                result.add(new CertificateInfo(alias, x509, resolveStatus(x509.getNotAfter().toInstant(), now), detailsMemo));
             }
         }
-        result.sort(Comparator.comparing(CertificateInfo::notAfter));
         return result;
     }
 
-    private String resolveStatus(Instant notAfter) {
-        Instant now = Instant.now();
+    static String resolveStatus(Instant notAfter, Instant now) {
         if (notAfter.isBefore(now)) {
             return "expired";
         }
@@ -48,27 +65,4 @@ public class CertificateViewService {
         }
         return "valid";
     }
-
-    private List<String> extractAltNames(X509Certificate certificate) {
-        try {
-            Collection<List<?>> sanEntries = certificate.getSubjectAlternativeNames();
-            if (sanEntries == null || sanEntries.isEmpty()) {
-                return List.of();
-            }
-            List<String> result = new ArrayList<>();
-            for (List<?> entry : sanEntries) {
-                if (entry == null || entry.size() < 2) {
-                    continue;
-                }
-                Object typeObj = entry.get(0);
-                Object valueObj = entry.get(1);
-                String type = typeObj == null ? "unknown" : typeObj.toString();
-                String value = valueObj == null ? "" : valueObj.toString();
-                result.add(type + ": " + value);
-            }
-            return result;
-        } catch (Exception ignored) {
-            return List.of();
-        }
-    }
 }
@@ -0,0 +1,211 @@
+package app.truststore;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+
+// Bodies are stored once under their SHA-256; per-URL entries point at them with the validators to revalidate.
+// Entries are evicted least recently used first once there are too many, their bodies grow too large or they go unused.
+final class DownloadCache {
+    static final int MAX_ENTRIES = 32;
+    static final long MAX_BODY_BYTES = 512L * 1024 * 1024;
+    static final Duration MAX_IDLE = Duration.ofDays(30);
+
+    private static final String ENTRY_SUFFIX = ".entry";
+    private static final String BODY_SUFFIX = ".body";
+
+    private final Path directory;
+    private final int maxEntries;
+    private final long maxBodyBytes;
+
+    DownloadCache(Path directory) {
+        this(directory, MAX_ENTRIES, MAX_BODY_BYTES);
+    }
+
+    DownloadCache(Path directory, int maxEntries, long maxBodyBytes) {
+        this.directory = directory;
+        this.maxEntries = maxEntries;
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    Path newDownloadFile() throws IOException {
+        Files.createDirectories(directory);
+        return Files.createTempFile(directory, "download-", ".tmp");
+    }
+
+    synchronized Optional<Entry> lookup(URI uri) {
+        Path entryFile = entryFile(uri);
+        if (!Files.isRegularFile(entryFile)) {
+            return Optional.empty();
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(entryFile)) {
+            properties.load(in);
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+        if (!uri.toString().equals(properties.getProperty("url"))) {
+            return Optional.empty();
+        }
+        String sha256 = properties.getProperty("sha256", "");
+        Path body = directory.resolve(sha256 + BODY_SUFFIX);
+        if (sha256.isEmpty() || !Files.isRegularFile(body)) {
+            return Optional.empty();
+        }
+        try {
+            // The entry's modification time is its last use, which eviction goes by.
+            Files.setLastModifiedTime(entryFile, FileTime.from(Instant.now()));
+        } catch (IOException e) {
+            // The entry is only evicted a little early.
+        }
+        return Optional.of(new Entry(
+            body,
+            emptyToNull(properties.getProperty("etag")),
+            emptyToNull(properties.getProperty("last-modified"))
+        ));
+    }
+
+    synchronized Path store(URI uri, Path downloaded, String etag, String lastModified) throws IOException {
+        Files.createDirectories(directory);
+        String sha256 = sha256(downloaded);
+        Path body = directory.resolve(sha256 + BODY_SUFFIX);
+        if (Files.exists(body)) {
+            Files.deleteIfExists(downloaded);
+        } else {
+            Files.move(downloaded, body, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        Properties properties = new Properties();
+        properties.setProperty("url", uri.toString());
+        properties.setProperty("sha256", sha256);
+        properties.setProperty("etag", etag == null ? "" : etag);
+        properties.setProperty("last-modified", lastModified == null ? "" : lastModified);
+        Path entryFile = entryFile(uri);
+        Path temp = Files.createTempFile(directory, "entry-", ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            properties.store(out, null);
+        }
+        Files.move(temp, entryFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        prune(entryFile);
+        return body;
+    }
+
+    // Keeps the most recently used entries within the limits, then drops bodies no remaining entry points at.
+    private void prune(Path keep) throws IOException {
+        List<Path> entryFiles = list("*" + ENTRY_SUFFIX);
+        Map<Path, FileTime> used = new HashMap<>();
+        for (Path entryFile : entryFiles) {
+            used.put(entryFile, Files.getLastModifiedTime(entryFile));
+        }
+        entryFiles.sort(Comparator.comparing((Path entryFile) -> !entryFile.equals(keep))
+            .thenComparing(used::get, Comparator.reverseOrder()));
+
+        FileTime idleCutoff = FileTime.from(Instant.now().minus(MAX_IDLE));
+        Set<String> keptBodies = new HashSet<>();
+        long keptBytes = 0;
+        int keptEntries = 0;
+        for (Path entryFile : entryFiles) {
+            String sha256 = bodySha256(entryFile);
+            long bytes = sha256 == null || keptBodies.contains(sha256) ? 0 : bodySize(sha256);
+            boolean fits = keptEntries < maxEntries
+                && keptBytes + bytes <= maxBodyBytes
+                && used.get(entryFile).compareTo(idleCutoff) > 0;
+            if (sha256 == null || bytes < 0 || !(fits || entryFile.equals(keep))) {
+                Files.deleteIfExists(entryFile);
+                continue;
+            }
+            keptEntries++;
+            if (keptBodies.add(sha256)) {
+                keptBytes += bytes;
+            }
+        }
+        for (Path body : list("*" + BODY_SUFFIX)) {
+            String name = body.getFileName().toString();
+            if (!keptBodies.contains(name.substring(0, name.length() - BODY_SUFFIX.length()))) {
+                Files.deleteIfExists(body);
+            }
+        }
+    }
+
+    private List<Path> list(String glob) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, glob)) {
+            stream.forEach(files::add);
+        }
+        return files;
+    }
+
+    private String bodySha256(Path entryFile) {
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(entryFile)) {
+            properties.load(in);
+        } catch (IOException e) {
+            return null;
+        }
+        String sha256 = properties.getProperty("sha256", "");
+        return sha256.isEmpty() ? null : sha256;
+    }
+
+    // Returns -1 when the body is missing, which makes its entry useless.
+    private long bodySize(String sha256) {
+        try {
+            return Files.size(directory.resolve(sha256 + BODY_SUFFIX));
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private Path entryFile(URI uri) {
+        return directory.resolve(sha256(uri.toString().getBytes(StandardCharsets.UTF_8)) + ENTRY_SUFFIX);
+    }
+
+    private static String sha256(Path file) throws IOException {
+        MessageDigest digest = newDigest();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static String sha256(byte[] bytes) {
+        return HexFormat.of().formatHex(newDigest().digest(bytes));
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    record Entry(Path body, String etag, String lastModified) {
+    }
+}
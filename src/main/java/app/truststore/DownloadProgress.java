@@ -0,0 +1,11 @@
+package app.truststore;
+
+public record DownloadProgress(
+    long receivedBytes,
+    long totalBytes,
+    int resumes
+) {
+    public boolean totalKnown() {
+        return totalBytes >= 0;
+    }
+}
@@ -1,6 +1,142 @@
 package app.truststore;
 
 import java.security.KeyStore;
+import java.time.Duration;
+import java.util.List;
 
-public record LoadedTruststore(KeyStore keyStore, String sourceDescription, String storeType) {
+// Stores opened from an index sidecar parse their KeyStore only when it is first requested.
+public final class LoadedTruststore {
+    private final String sourceDescription;
+    private final String storeType;
+    private final TrustAnchorIndex anchorIndex;
+    private final Duration loadDuration;
+    private final StoreFormat format;
+    private final boolean compressed;
+    private final Duration sniffDuration;
+    private final SourceOrigin origin;
+    private final List<CertificateInfo> indexedCertificates;
+    private final DeferredKeyStore deferredKeyStore;
+    private KeyStore keyStore;
+
+    public LoadedTruststore(KeyStore keyStore, String sourceDescription, String storeType, TrustAnchorIndex anchorIndex) {
+        this(keyStore, sourceDescription, storeType, anchorIndex, Duration.ZERO);
+    }
+
+    public LoadedTruststore(
+        KeyStore keyStore,
+        String sourceDescription,
+        String storeType,
+        TrustAnchorIndex anchorIndex,
+        Duration loadDuration
+    ) {
+        this(keyStore, sourceDescription, storeType, anchorIndex, loadDuration, StoreFormat.UNKNOWN, false, Duration.ZERO, SourceOrigin.FILE);
+    }
+
+    public LoadedTruststore(
+        KeyStore keyStore,
+        String sourceDescription,
+        String storeType,
+        TrustAnchorIndex anchorIndex,
+        Duration loadDuration,
+        StoreFormat format,
+        boolean compressed,
+        Duration sniffDuration,
+        SourceOrigin origin
+    ) {
+        this.keyStore = keyStore;
+        this.sourceDescription = sourceDescription;
+        this.storeType = storeType;
+        this.anchorIndex = anchorIndex;
+        this.loadDuration = loadDuration;
+        this.format = format;
+        this.compressed = compressed;
+        this.sniffDuration = sniffDuration;
+        this.origin = origin;
+        this.indexedCertificates = null;
+        this.deferredKeyStore = null;
+    }
+
+    LoadedTruststore(
+        DeferredKeyStore deferredKeyStore,
+        List<CertificateInfo> indexedCertificates,
+        String sourceDescription,
+        String storeType,
+        TrustAnchorIndex anchorIndex,
+        Duration loadDuration,
+        StoreFormat format,
+        boolean compressed,
+        SourceOrigin origin
+    ) {
+        this.keyStore = null;
+        this.sourceDescription = sourceDescription;
+        this.storeType = storeType;
+        this.anchorIndex = anchorIndex;
+        this.loadDuration = loadDuration;
+        this.format = format;
+        this.compressed = compressed;
+        this.sniffDuration = Duration.ZERO;
+        this.origin = origin;
+        this.indexedCertificates = List.copyOf(indexedCertificates);
+        this.deferredKeyStore = deferredKeyStore;
+    }
+
+    public synchronized KeyStore keyStore() {
+        if (keyStore == null) {
+            try {
+                keyStore = deferredKeyStore.load();
+            } catch (Exception e) {
+                throw new IllegalStateException("Failed to load truststore " + sourceDescription + ": " + e.getMessage(), e);
+            }
+        }
+        return keyStore;
+    }
+
+    public synchronized boolean keyStoreLoaded() {
+        return keyStore != null;
+    }
+
+    public String sourceDescription() {
+        return sourceDescription;
+    }
+
+    public String storeType() {
+        return storeType;
+    }
+
+    public TrustAnchorIndex anchorIndex() {
+        return anchorIndex;
+    }
+
+    public Duration loadDuration() {
+        return loadDuration;
+    }
+
+    public StoreFormat format() {
+        return format;
+    }
+
+    public boolean compressed() {
+        return compressed;
+    }
+
+    public Duration sniffDuration() {
+        return sniffDuration;
+    }
+
+    public SourceOrigin origin() {
+        return origin;
+    }
+
+    public boolean indexed() {
+        return indexedCertificates != null;
+    }
+
+    List<CertificateInfo> indexedCertificates() {
+        return indexedCertificates;
+    }
+
+    @FunctionalInterface
+    interface DeferredKeyStore {
+        KeyStore load() throws Exception;
+    }
 }
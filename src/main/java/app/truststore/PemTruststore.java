@@ -0,0 +1,28 @@
+package app.truststore;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateFactory;
+import java.util.Collection;
+
+final class PemTruststore {
+    private PemTruststore() {
+    }
+
+    static KeyStore load(InputStream in) throws IOException, GeneralSecurityException {
+        Collection<? extends Certificate> certificates = CertificateFactory.getInstance("X.509").generateCertificates(in);
+        if (certificates.isEmpty()) {
+            throw new IOException("PEM bundle contains no certificates");
+        }
+        KeyStore keyStore = KeyStore.getInstance(StoreFormat.PEM.keyStoreType());
+        keyStore.load(null, null);
+        int index = 1;
+        for (Certificate certificate : certificates) {
+            keyStore.setCertificateEntry("pem-" + index++, certificate);
+        }
+        return keyStore;
+    }
+}
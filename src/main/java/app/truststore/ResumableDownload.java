@@ -0,0 +1,224 @@
+package app.truststore;
+
+import app.util.TimerWheel;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.function.Consumer;
+
+// Streams a body to disk, resuming with Range requests when the transfer breaks or stalls.
+final class ResumableDownload {
+    static final int MAX_RESUMES = 5;
+
+    private static final Duration RESUME_BACKOFF = Duration.ofMillis(500);
+    private static final Duration MIN_STALL_CHECK = Duration.ofMillis(100);
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long PROGRESS_STEP = 256 * 1024;
+
+    private final HttpClient client;
+    private final TimerWheel watchdog;
+    private final Duration stallTimeout;
+
+    ResumableDownload(HttpClient client, TimerWheel watchdog, Duration stallTimeout) {
+        this.client = client;
+        this.watchdog = watchdog;
+        this.stallTimeout = stallTimeout;
+    }
+
+    Result fetch(URI uri, DownloadCache.Entry revalidate, Path file, Consumer<DownloadProgress> progress)
+        throws IOException, InterruptedException {
+        HttpRequest.Builder first = request(uri);
+        if (revalidate != null && revalidate.etag() != null) {
+            first.header("If-None-Match", revalidate.etag());
+        }
+        if (revalidate != null && revalidate.lastModified() != null) {
+            first.header("If-Modified-Since", revalidate.lastModified());
+        }
+        HttpResponse<InputStream> response = client.send(first.build(), HttpResponse.BodyHandlers.ofInputStream());
+        int status = response.statusCode();
+        if (status < 200 || status >= 300) {
+            response.body().close();
+            return new Result(status, null, null);
+        }
+        String etag = response.headers().firstValue("ETag").orElse(null);
+        String lastModified = response.headers().firstValue("Last-Modified").orElse(null);
+        long total = response.headers().firstValueAsLong("Content-Length").orElse(-1);
+        long received = 0;
+        int resumes = 0;
+        while (true) {
+            try {
+                if (response == null) {
+                    response = client.send(resumeRequest(uri, received, etag, lastModified), HttpResponse.BodyHandlers.ofInputStream());
+                    if (response.statusCode() == 206 && contentRangeStart(response) == received) {
+                        total = contentRangeTotal(response, total);
+                    } else if (response.statusCode() == 200) {
+                        received = 0;
+                        total = response.headers().firstValueAsLong("Content-Length").orElse(-1);
+                        etag = response.headers().firstValue("ETag").orElse(null);
+                        lastModified = response.headers().firstValue("Last-Modified").orElse(null);
+                    } else {
+                        response.body().close();
+                        throw new IOException("Failed to resume truststore download. HTTP " + response.statusCode());
+                    }
+                }
+                received = copy(response.body(), file, received, total, resumes, progress);
+                if (total < 0 || received >= total) {
+                    return new Result(status, etag, lastModified);
+                }
+                throw new IOException("Connection closed after " + received + " of " + total + " bytes");
+            } catch (IOException e) {
+                if (resumes == MAX_RESUMES) {
+                    throw e;
+                }
+                resumes++;
+                response = null;
+                received = Files.exists(file) ? Files.size(file) : 0;
+                Thread.sleep(RESUME_BACKOFF.toMillis() * resumes);
+            }
+        }
+    }
+
+    private long copy(
+        InputStream body,
+        Path file,
+        long offset,
+        long total,
+        int resumes,
+        Consumer<DownloadProgress> progress
+    ) throws IOException {
+        StandardOpenOption[] options = offset == 0
+            ? new StandardOpenOption[] {StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE}
+            : new StandardOpenOption[] {StandardOpenOption.APPEND};
+        StallGuard guard = new StallGuard(body);
+        guard.arm();
+        long received = offset;
+        try (InputStream in = body; OutputStream out = Files.newOutputStream(file, options)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            long nextReport = received + PROGRESS_STEP;
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                guard.progressed();
+                out.write(buffer, 0, read);
+                received += read;
+                if (received >= nextReport) {
+                    progress.accept(new DownloadProgress(received, total, resumes));
+                    nextReport = received + PROGRESS_STEP;
+                }
+            }
+        } catch (IOException e) {
+            if (guard.disarm()) {
+                throw new IOException("No data received for " + stallTimeout.toSeconds() + "s", e);
+            }
+            throw e;
+        }
+        if (guard.disarm()) {
+            throw new IOException("No data received for " + stallTimeout.toSeconds() + "s");
+        }
+        progress.accept(new DownloadProgress(received, total, resumes));
+        return received;
+    }
+
+    private HttpRequest.Builder request(URI uri) {
+        // The request timeout only covers waiting for headers; the body is guarded by the stall watchdog.
+        return HttpRequest.newBuilder(uri).timeout(stallTimeout).GET();
+    }
+
+    private HttpRequest resumeRequest(URI uri, long received, String etag, String lastModified) {
+        HttpRequest.Builder builder = request(uri);
+        if (received > 0) {
+            builder.header("Range", "bytes=" + received + "-");
+            if (etag != null && !etag.startsWith("W/")) {
+                builder.header("If-Range", etag);
+            } else if (lastModified != null) {
+                builder.header("If-Range", lastModified);
+            }
+        }
+        return builder.build();
+    }
+
+    private static long contentRangeStart(HttpResponse<?> response) {
+        String range = response.headers().firstValue("Content-Range").orElse("");
+        int space = range.indexOf(' ');
+        int dash = range.indexOf('-');
+        if (!range.startsWith("bytes ") || dash < space) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(range.substring(space + 1, dash).trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static long contentRangeTotal(HttpResponse<?> response, long fallback) {
+        String range = response.headers().firstValue("Content-Range").orElse("");
+        int slash = range.lastIndexOf('/');
+        if (slash < 0 || range.endsWith("*")) {
+            return fallback;
+        }
+        try {
+            return Long.parseLong(range.substring(slash + 1).trim());
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    record Result(int status, String etag, String lastModified) {
+    }
+
+    private final class StallGuard {
+        private final InputStream body;
+        private final Thread reader = Thread.currentThread();
+        private final long checkNanos = Math.max(MIN_STALL_CHECK.toNanos(), stallTimeout.toNanos() / 4);
+        private volatile long lastProgress = System.nanoTime();
+        private boolean active = true;
+        private boolean fired;
+
+        private StallGuard(InputStream body) {
+            this.body = body;
+        }
+
+        void arm() {
+            watchdog.schedule(Duration.ofNanos(checkNanos), this::check);
+        }
+
+        void progressed() {
+            lastProgress = System.nanoTime();
+        }
+
+        // Returns whether the watchdog fired; the reader's interrupt flag is cleared in that case.
+        synchronized boolean disarm() {
+            active = false;
+            if (fired) {
+                Thread.interrupted();
+            }
+            return fired;
+        }
+
+        private synchronized void check() {
+            if (!active) {
+                return;
+            }
+            if (System.nanoTime() - lastProgress < stallTimeout.toNanos()) {
+                arm();
+                return;
+            }
+            fired = true;
+            active = false;
+            try {
+                body.close();
+            } catch (IOException ignored) {
+                // The interrupt below still unblocks the reader.
+            }
+            reader.interrupt();
+        }
+    }
+}
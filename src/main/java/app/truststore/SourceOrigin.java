@@ -0,0 +1,8 @@
+package app.truststore;
+
+public enum SourceOrigin {
+    FILE,
+    DOWNLOADED,
+    CACHE_NOT_MODIFIED,
+    CACHE_OFFLINE
+}
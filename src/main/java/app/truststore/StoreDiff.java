@@ -0,0 +1,51 @@
+package app.truststore;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Rows are matched by alias; a row whose certificate or status differs counts as changed.
+public record StoreDiff(List<CertificateInfo> added, Set<String> removedAliases, List<CertificateInfo> changed) {
+    public StoreDiff {
+        added = List.copyOf(added);
+        removedAliases = Set.copyOf(removedAliases);
+        changed = List.copyOf(changed);
+    }
+
+    public static StoreDiff between(List<CertificateInfo> previous, List<CertificateInfo> current) {
+        Map<String, CertificateInfo> previousByAlias = new HashMap<>();
+        for (CertificateInfo certificate : previous) {
+            previousByAlias.put(certificate.alias(), certificate);
+        }
+        List<CertificateInfo> added = new ArrayList<>();
+        List<CertificateInfo> changed = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (CertificateInfo certificate : current) {
+            seen.add(certificate.alias());
+            CertificateInfo before = previousByAlias.get(certificate.alias());
+            if (before == null) {
+                added.add(certificate);
+            } else if (!sameCertificate(before, certificate)) {
+                changed.add(certificate);
+            }
+        }
+        Set<String> removed = new HashSet<>(previousByAlias.keySet());
+        removed.removeAll(seen);
+        return new StoreDiff(added, removed, changed);
+    }
+
+    public boolean isEmpty() {
+        return added.isEmpty() && removedAliases.isEmpty() && changed.isEmpty();
+    }
+
+    public String summary() {
+        return "+" + added.size() + " -" + removedAliases.size() + " ~" + changed.size();
+    }
+
+    private static boolean sameCertificate(CertificateInfo before, CertificateInfo after) {
+        return before.sameCertificate(after) && before.status().equals(after.status());
+    }
+}
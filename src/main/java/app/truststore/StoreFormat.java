@@ -0,0 +1,78 @@
+package app.truststore;
+
+import java.nio.charset.StandardCharsets;
+
+public enum StoreFormat {
+    JKS("JKS"),
+    JCEKS("JCEKS"),
+    PKCS12("PKCS12"),
+    PEM("PKCS12"),
+    GZIP(null),
+    UNKNOWN(null);
+
+    static final int HEADER_BYTES = 16;
+
+    private static final byte[] PEM_ARMOR = "-----BEGIN".getBytes(StandardCharsets.US_ASCII);
+
+    private final String keyStoreType;
+
+    StoreFormat(String keyStoreType) {
+        this.keyStoreType = keyStoreType;
+    }
+
+    public String keyStoreType() {
+        return keyStoreType;
+    }
+
+    public static StoreFormat sniff(byte[] header, int length) {
+        if (length >= 4 && magic(header) == 0xFEEDFEED) {
+            return JKS;
+        }
+        if (length >= 4 && magic(header) == 0xCECECECE) {
+            return JCEKS;
+        }
+        if (length >= 2 && (header[0] & 0xFF) == 0x1F && (header[1] & 0xFF) == 0x8B) {
+            return GZIP;
+        }
+        if (isPkcs12(header, length)) {
+            return PKCS12;
+        }
+        if (isPem(header, length)) {
+            return PEM;
+        }
+        return UNKNOWN;
+    }
+
+    private static int magic(byte[] header) {
+        return ((header[0] & 0xFF) << 24) | ((header[1] & 0xFF) << 16) | ((header[2] & 0xFF) << 8) | (header[3] & 0xFF);
+    }
+
+    // PFX ::= SEQUENCE { version INTEGER (3), ... }, definite or BER indefinite length.
+    private static boolean isPkcs12(byte[] header, int length) {
+        if (length < 2 || (header[0] & 0xFF) != 0x30) {
+            return false;
+        }
+        int lengthOctet = header[1] & 0xFF;
+        int versionOffset = lengthOctet <= 0x80 ? 2 : 2 + (lengthOctet & 0x7F);
+        return versionOffset + 3 <= length
+            && (header[versionOffset] & 0xFF) == 0x02
+            && (header[versionOffset + 1] & 0xFF) == 0x01
+            && (header[versionOffset + 2] & 0xFF) == 0x03;
+    }
+
+    private static boolean isPem(byte[] header, int length) {
+        int start = 0;
+        while (start < length && Character.isWhitespace(header[start])) {
+            start++;
+        }
+        if (length - start < PEM_ARMOR.length) {
+            return false;
+        }
+        for (int i = 0; i < PEM_ARMOR.length; i++) {
+            if (header[start + i] != PEM_ARMOR[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
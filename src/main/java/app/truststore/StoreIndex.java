@@ -0,0 +1,305 @@
+package app.truststore;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+// Sidecar files named by the SHA-256 of the store's path; strings are interned in one table and referenced by index.
+// The recorded size and modification time let a changed or unindexed store skip hashing and the password check.
+final class StoreIndex {
+    private static final int MAGIC = 0x54534958;
+    private static final int VERSION = 2;
+    private static final int NO_STRING = -1;
+    private static final int MAX_FILES = 32;
+    private static final int VERIFIER_ITERATIONS = 10_000;
+    private static final String SUFFIX = ".tsidx";
+
+    private final Path directory;
+
+    StoreIndex(Path directory) {
+        this.directory = directory;
+    }
+
+    static String sha256(Path file) throws IOException {
+        MessageDigest digest = newDigest();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    // Returns null when there is no usable index or the password does not match the one the index was written with.
+    LoadedTruststore open(
+        Path store,
+        char[] password,
+        String sourceDescription,
+        SourceOrigin origin,
+        long started,
+        Function<String, LoadedTruststore.DeferredKeyStore> deferredKeyStore
+    ) {
+        Path file = sidecar(store);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            // Sidecars are small; reading them onto the heap keeps a concurrent rewrite from faulting a mapping.
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return null;
+            }
+            Stamp recorded = new Stamp(buffer.getLong(), buffer.getLong());
+            if (!recorded.equals(Stamp.of(store))) {
+                return null;
+            }
+            byte[] indexedSha256 = new byte[32];
+            buffer.get(indexedSha256);
+            byte[] verifier = new byte[32];
+            buffer.get(verifier);
+            String storeSha256 = sha256(store);
+            if (!HexFormat.of().formatHex(indexedSha256).equals(storeSha256)
+                || !MessageDigest.isEqual(verifier, verifier(password, indexedSha256))) {
+                return null;
+            }
+
+            String[] strings = new String[buffer.getInt()];
+            for (int i = 0; i < strings.length; i++) {
+                byte[] bytes = new byte[buffer.getInt()];
+                buffer.get(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+            StoreFormat format = StoreFormat.valueOf(string(buffer, strings));
+            String storeType = string(buffer, strings);
+            boolean compressed = buffer.get() != 0;
+            String storeDigest = string(buffer, strings);
+
+            Instant now = Instant.now();
+            int entries = buffer.getInt();
+            List<CertificateInfo> certificates = new ArrayList<>(entries);
+            for (int i = 0; i < entries; i++) {
+                String alias = string(buffer, strings);
+                String subject = string(buffer, strings);
+                String issuer = string(buffer, strings);
+                String serial = string(buffer, strings);
+                Instant notBefore = Instant.ofEpochMilli(buffer.getLong());
+                Instant notAfter = Instant.ofEpochMilli(buffer.getLong());
+                String fingerprint = string(buffer, strings);
+                List<String> altNames = strings(buffer, strings);
+                certificates.add(new CertificateInfo(
+                    alias,
+                    subject,
+                    issuer,
+                    serial,
+                    notBefore,
+                    notAfter,
+                    CertificateViewService.resolveStatus(notAfter, now),
+                    altNames,
+                    fingerprint
+                ));
+            }
+            TrustAnchorIndex anchorIndex = TrustAnchorIndex.restore(
+                strings(buffer, strings),
+                storeDigest,
+                stringMap(buffer, strings),
+                stringMap(buffer, strings),
+                stringMap(buffer, strings)
+            );
+            Files.setLastModifiedTime(file, FileTime.from(now));
+            return new LoadedTruststore(
+                deferredKeyStore.apply(storeSha256),
+                certificates,
+                sourceDescription,
+                storeType,
+                anchorIndex,
+                Duration.ofNanos(System.nanoTime() - started),
+                format,
+                compressed,
+                origin
+            );
+        } catch (IOException | RuntimeException | GeneralSecurityException e) {
+            // A damaged or foreign index is ignored and rewritten after the full parse.
+            return null;
+        }
+    }
+
+    // The stamp must be taken before the store is read, so a store changed while it was parsed is not indexed as current.
+    void write(
+        Path store,
+        Stamp stamp,
+        String storeSha256,
+        char[] password,
+        LoadedTruststore loaded,
+        List<CertificateInfo> certificates
+    ) throws IOException, GeneralSecurityException {
+        Map<String, Integer> table = new LinkedHashMap<>();
+        ByteArrayOutputStream bodyBytes = new ByteArrayOutputStream();
+        DataOutputStream body = new DataOutputStream(bodyBytes);
+        writeString(body, table, loaded.format().name());
+        writeString(body, table, loaded.storeType());
+        body.writeByte(loaded.compressed() ? 1 : 0);
+        writeString(body, table, loaded.anchorIndex().storeDigest());
+        body.writeInt(certificates.size());
+        for (CertificateInfo certificate : certificates) {
+            writeString(body, table, certificate.alias());
+            writeString(body, table, certificate.subject());
+            writeString(body, table, certificate.issuer());
+            writeString(body, table, certificate.serialNumberHex());
+            body.writeLong(certificate.notBefore().toEpochMilli());
+            body.writeLong(certificate.notAfter().toEpochMilli());
+            writeString(body, table, certificate.sha256Fingerprint());
+            writeStrings(body, table, certificate.altNames());
+        }
+        TrustAnchorIndex anchorIndex = loaded.anchorIndex();
+        writeStrings(body, table, anchorIndex.aliases());
+        writeStringMap(body, table, anchorIndex.aliasesBySubject());
+        writeStringMap(body, table, anchorIndex.aliasesByKeyIdentifier());
+        writeStringMap(body, table, anchorIndex.aliasesByPublicKeyHash());
+        body.flush();
+
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, "index-", ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                byte[] sha256 = HexFormat.of().parseHex(storeSha256);
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(stamp.size());
+                out.writeLong(stamp.modifiedMillis());
+                out.write(sha256);
+                out.write(verifier(password, sha256));
+                out.writeInt(table.size());
+                for (String value : table.keySet()) {
+                    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(bytes.length);
+                    out.write(bytes);
+                }
+                bodyBytes.writeTo(out);
+            }
+            Files.move(
+                temp,
+                sidecar(store),
+                StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE
+            );
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        prune();
+    }
+
+    private Path sidecar(Path store) {
+        byte[] path = store.toAbsolutePath().normalize().toString().getBytes(StandardCharsets.UTF_8);
+        return directory.resolve(HexFormat.of().formatHex(newDigest().digest(path)) + SUFFIX);
+    }
+
+    private void prune() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        if (files.size() <= MAX_FILES) {
+            return;
+        }
+        Map<Path, FileTime> modified = new HashMap<>();
+        for (Path file : files) {
+            modified.put(file, Files.getLastModifiedTime(file));
+        }
+        files.sort(Comparator.comparing(modified::get));
+        for (Path file : files.subList(0, files.size() - MAX_FILES)) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // Keeps a wrong password from opening a store through its index.
+    private static byte[] verifier(char[] password, byte[] salt) throws GeneralSecurityException {
+        PBEKeySpec spec = new PBEKeySpec(password, salt, VERIFIER_ITERATIONS, 256);
+        try {
+            return SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256").generateSecret(spec).getEncoded();
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    private static void writeString(DataOutputStream out, Map<String, Integer> table, String value) throws IOException {
+        out.writeInt(value == null ? NO_STRING : table.computeIfAbsent(value, key -> table.size()));
+    }
+
+    private static void writeStrings(DataOutputStream out, Map<String, Integer> table, List<String> values)
+        throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            writeString(out, table, value);
+        }
+    }
+
+    private static void writeStringMap(DataOutputStream out, Map<String, Integer> table, Map<String, List<String>> map)
+        throws IOException {
+        out.writeInt(map.size());
+        for (Map.Entry<String, List<String>> entry : map.entrySet()) {
+            writeString(out, table, entry.getKey());
+            writeStrings(out, table, entry.getValue());
+        }
+    }
+
+    private static String string(ByteBuffer buffer, String[] strings) {
+        int index = buffer.getInt();
+        return index == NO_STRING ? null : strings[index];
+    }
+
+    private static List<String> strings(ByteBuffer buffer, String[] strings) {
+        int size = buffer.getInt();
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(string(buffer, strings));
+        }
+        return values;
+    }
+
+    private static Map<String, List<String>> stringMap(ByteBuffer buffer, String[] strings) {
+        int size = buffer.getInt();
+        Map<String, List<String>> map = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            map.put(string(buffer, strings), strings(buffer, strings));
+        }
+        return map;
+    }
+
+    record Stamp(long size, long modifiedMillis) {
+        static Stamp of(Path store) throws IOException {
+            return new Stamp(Files.size(store), Files.getLastModifiedTime(store).toMillis());
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
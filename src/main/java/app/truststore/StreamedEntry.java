@@ -0,0 +1,11 @@
+package app.truststore;
+
+import java.security.cert.X509Certificate;
+
+public record StreamedEntry(
+    String alias,
+    X509Certificate certificate,
+    int index,
+    int total
+) {
+}
@@ -0,0 +1,119 @@
+package app.truststore;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.KeyStore;
+import java.security.MessageDigest;
+import java.security.UnrecoverableKeyException;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+// Emits entries while the store is still being read; the returned KeyStore is only handed out once integrity is verified.
+// PKCS12 is not streamed: its bags are nested inside the MAC-protected content, so the JDK loader is used as is.
+final class StreamingStoreReader {
+    private static final int JKS_MAGIC = 0xFEEDFEED;
+    private static final int JKS_PRIVATE_KEY_TAG = 1;
+    private static final int JKS_TRUSTED_CERT_TAG = 2;
+    private static final byte[] JKS_DIGEST_SALT = "Mighty Aphrodite".getBytes(StandardCharsets.UTF_8);
+
+    private StreamingStoreReader() {
+    }
+
+    static boolean supports(StoreFormat format) {
+        return format == StoreFormat.JKS;
+    }
+
+    static KeyStore read(StoreFormat format, InputStream in, char[] password, Consumer<StreamedEntry> entries)
+        throws Exception {
+        return switch (format) {
+            case JKS -> readJks(in, password, entries);
+            default -> throw new IllegalArgumentException("Streaming is not supported for " + format);
+        };
+    }
+
+    private static KeyStore readJks(InputStream in, char[] password, Consumer<StreamedEntry> entries) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA");
+        for (char c : password) {
+            digest.update((byte) (c >> 8));
+            digest.update((byte) c);
+        }
+        digest.update(JKS_DIGEST_SALT);
+        DataInputStream data = new DataInputStream(new DigestInputStream(in, digest));
+        if (data.readInt() != JKS_MAGIC) {
+            throw new IOException("Invalid keystore format");
+        }
+        int version = data.readInt();
+        if (version != 1 && version != 2) {
+            throw new IOException("Invalid keystore format");
+        }
+        int count = data.readInt();
+        if (count < 0) {
+            throw new IOException("Invalid keystore entry count: " + count);
+        }
+
+        // Entries are replayed into the result only after the keyed digest matches.
+        KeyStore keyStore = KeyStore.getInstance(StoreFormat.JKS.keyStoreType());
+        keyStore.load(null, null);
+        Map<String, CertificateFactory> factories = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            int tag = data.readInt();
+            String alias = data.readUTF();
+            data.readLong();
+            if (tag == JKS_PRIVATE_KEY_TAG) {
+                byte[] protectedKey = new byte[data.readInt()];
+                data.readFully(protectedKey);
+                Certificate[] chain = new Certificate[data.readInt()];
+                for (int j = 0; j < chain.length; j++) {
+                    chain[j] = readJksCertificate(data, version, factories);
+                }
+                keyStore.setKeyEntry(alias, protectedKey, chain);
+                if (chain.length > 0 && chain[0] instanceof X509Certificate x509) {
+                    entries.accept(new StreamedEntry(alias, x509, i, count));
+                }
+            } else if (tag == JKS_TRUSTED_CERT_TAG) {
+                Certificate certificate = readJksCertificate(data, version, factories);
+                keyStore.setCertificateEntry(alias, certificate);
+                if (certificate instanceof X509Certificate x509) {
+                    entries.accept(new StreamedEntry(alias, x509, i, count));
+                }
+            } else {
+                throw new IOException("Unrecognized keystore entry: " + tag);
+            }
+        }
+
+        byte[] computed = digest.digest();
+        byte[] actual = new byte[computed.length];
+        data.readFully(actual);
+        if (!MessageDigest.isEqual(computed, actual)) {
+            throw new IOException(
+                "Keystore was tampered with, or password was incorrect",
+                new UnrecoverableKeyException("Password verification failed")
+            );
+        }
+        return keyStore;
+    }
+
+    private static Certificate readJksCertificate(
+        DataInputStream data,
+        int version,
+        Map<String, CertificateFactory> factories
+    ) throws Exception {
+        String type = version == 2 ? data.readUTF() : "X509";
+        byte[] encoded = new byte[data.readInt()];
+        data.readFully(encoded);
+        CertificateFactory factory = factories.get(type);
+        if (factory == null) {
+            factory = CertificateFactory.getInstance(type);
+            factories.put(type, factory);
+        }
+        return factory.generateCertificate(new ByteArrayInputStream(encoded));
+    }
+}
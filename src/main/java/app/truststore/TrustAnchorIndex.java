@@ -0,0 +1,210 @@
+package app.truststore;
+
+import app.util.DerReader;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyStore;
+import java.security.KeyStoreException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import javax.security.auth.x500.X500Principal;
+
+public final class TrustAnchorIndex {
+    private static final String SUBJECT_KEY_IDENTIFIER_OID = "2.5.29.14";
+    private static final String AUTHORITY_KEY_IDENTIFIER_OID = "2.5.29.35";
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final List<String> aliases;
+    private final String storeDigest;
+    private final Map<String, List<String>> aliasesBySubject;
+    private final Map<String, List<String>> aliasesByKeyIdentifier;
+    private final Map<String, List<String>> aliasesByPublicKeyHash;
+
+    private TrustAnchorIndex(
+        List<String> aliases,
+        String storeDigest,
+        Map<String, List<String>> aliasesBySubject,
+        Map<String, List<String>> aliasesByKeyIdentifier,
+        Map<String, List<String>> aliasesByPublicKeyHash
+    ) {
+        this.aliases = aliases;
+        this.storeDigest = storeDigest;
+        this.aliasesBySubject = aliasesBySubject;
+        this.aliasesByKeyIdentifier = aliasesByKeyIdentifier;
+        this.aliasesByPublicKeyHash = aliasesByPublicKeyHash;
+    }
+
+    public static TrustAnchorIndex build(KeyStore keyStore) throws KeyStoreException {
+        List<String> aliases = new ArrayList<>();
+        Map<String, List<String>> bySubject = new HashMap<>();
+        Map<String, List<String>> byKeyIdentifier = new HashMap<>();
+        Map<String, List<String>> byPublicKeyHash = new HashMap<>();
+        Map<String, byte[]> encodedByAlias = new TreeMap<>();
+        Enumeration<String> storeAliases = keyStore.aliases();
+        while (storeAliases.hasMoreElements()) {
+            String alias = storeAliases.nextElement();
+            Certificate certificate = keyStore.getCertificate(alias);
+            if (!(certificate instanceof X509Certificate x509)) {
+                continue;
+            }
+            aliases.add(alias);
+            try {
+                encodedByAlias.put(alias, x509.getEncoded());
+            } catch (CertificateEncodingException e) {
+                throw new KeyStoreException("Cannot encode certificate " + alias, e);
+            }
+            bySubject.computeIfAbsent(canonicalName(x509.getSubjectX500Principal()), key -> new ArrayList<>())
+                .add(alias);
+            String keyIdentifier = subjectKeyIdentifier(x509);
+            if (keyIdentifier != null) {
+                byKeyIdentifier.computeIfAbsent(keyIdentifier, key -> new ArrayList<>()).add(alias);
+            }
+            byPublicKeyHash.computeIfAbsent(publicKeyHash(x509.getPublicKey()), key -> new ArrayList<>()).add(alias);
+        }
+        return new TrustAnchorIndex(
+            Collections.unmodifiableList(aliases),
+            storeDigest(encodedByAlias),
+            freeze(bySubject),
+            freeze(byKeyIdentifier),
+            freeze(byPublicKeyHash)
+        );
+    }
+
+    static TrustAnchorIndex restore(
+        List<String> aliases,
+        String storeDigest,
+        Map<String, List<String>> aliasesBySubject,
+        Map<String, List<String>> aliasesByKeyIdentifier,
+        Map<String, List<String>> aliasesByPublicKeyHash
+    ) {
+        return new TrustAnchorIndex(
+            List.copyOf(aliases),
+            storeDigest,
+            freeze(aliasesBySubject),
+            freeze(aliasesByKeyIdentifier),
+            freeze(aliasesByPublicKeyHash)
+        );
+    }
+
+    Map<String, List<String>> aliasesBySubject() {
+        return aliasesBySubject;
+    }
+
+    Map<String, List<String>> aliasesByKeyIdentifier() {
+        return aliasesByKeyIdentifier;
+    }
+
+    Map<String, List<String>> aliasesByPublicKeyHash() {
+        return aliasesByPublicKeyHash;
+    }
+
+    public List<String> aliases() {
+        return aliases;
+    }
+
+    public String storeDigest() {
+        return storeDigest;
+    }
+
+    public Set<String> candidateAliases(Collection<X509Certificate> chain) {
+        Set<String> candidates = new HashSet<>();
+        for (X509Certificate certificate : chain) {
+            candidates.addAll(aliasesBySubject.getOrDefault(
+                canonicalName(certificate.getIssuerX500Principal()),
+                List.of()
+            ));
+            String authorityKeyIdentifier = authorityKeyIdentifier(certificate);
+            if (authorityKeyIdentifier != null) {
+                candidates.addAll(aliasesByKeyIdentifier.getOrDefault(authorityKeyIdentifier, List.of()));
+            }
+            candidates.addAll(aliasesByPublicKeyHash.getOrDefault(
+                publicKeyHash(certificate.getPublicKey()),
+                List.of()
+            ));
+        }
+        return candidates;
+    }
+
+    public static String subjectKeyIdentifier(X509Certificate certificate) {
+        byte[] extension = certificate.getExtensionValue(SUBJECT_KEY_IDENTIFIER_OID);
+        if (extension == null) {
+            return null;
+        }
+        try {
+            DerReader.Element wrapper = new DerReader(extension).next(DerReader.TAG_OCTET_STRING);
+            DerReader.Element keyIdentifier = wrapper.reader().next(DerReader.TAG_OCTET_STRING);
+            return HEX.formatHex(keyIdentifier.content());
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    public static String authorityKeyIdentifier(X509Certificate certificate) {
+        byte[] extension = certificate.getExtensionValue(AUTHORITY_KEY_IDENTIFIER_OID);
+        if (extension == null) {
+            return null;
+        }
+        try {
+            DerReader.Element wrapper = new DerReader(extension).next(DerReader.TAG_OCTET_STRING);
+            DerReader sequence = wrapper.reader().next(DerReader.TAG_SEQUENCE).reader();
+            while (sequence.hasMore()) {
+                DerReader.Element element = sequence.next();
+                if (element.isContextSpecific(0)) {
+                    return HEX.formatHex(element.content());
+                }
+            }
+            return null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    public static String publicKeyHash(PublicKey publicKey) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HEX.formatHex(digest.digest(publicKey.getEncoded()));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String storeDigest(Map<String, byte[]> encodedByAlias) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Map.Entry<String, byte[]> entry : encodedByAlias.entrySet()) {
+                digest.update(entry.getKey().getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+                digest.update(entry.getValue());
+            }
+            return HEX.formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String canonicalName(X500Principal principal) {
+        return principal.getName(X500Principal.CANONICAL);
+    }
+
+    private static Map<String, List<String>> freeze(Map<String, List<String>> source) {
+        Map<String, List<String>> frozen = new HashMap<>();
+        for (Map.Entry<String, List<String>> entry : source.entrySet()) {
+            frozen.put(entry.getKey(), List.copyOf(entry.getValue()));
+        }
+        return Collections.unmodifiableMap(frozen);
+    }
+}
@@ -1,87 +1,300 @@
 package app.truststore;
 
 import app.util.TarGzExtractor;
-import java.io.ByteArrayInputStream;
+import app.util.TimerWheel;
+import java.io.BufferedInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.security.KeyStore;
 import java.time.Duration;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 public class TruststoreLoader {
-    private static final List<String> SUPPORTED_TYPES = List.of("PKCS12", "JKS");
+    public static final Duration DEFAULT_STALL_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration WATCHDOG_TICK = Duration.ofMillis(100);
+
+    private final List<Consumer<LoadedTruststore>> loadListeners = new CopyOnWriteArrayList<>();
+    private final DownloadCache downloadCache;
+    private final StoreIndex storeIndex;
+    private final CertificateViewService indexView = new CertificateViewService(16);
+    private final Duration stallTimeout;
+    private HttpClient httpClient;
+    private TimerWheel stallWatchdog;
+
+    public TruststoreLoader() {
+        this(null);
+    }
+
+    public TruststoreLoader(Path cacheDirectory) {
+        this(cacheDirectory, DEFAULT_STALL_TIMEOUT);
+    }
+
+    public TruststoreLoader(Path cacheDirectory, Duration stallTimeout) {
+        if (stallTimeout == null || stallTimeout.isZero() || stallTimeout.isNegative()) {
+            throw new IllegalArgumentException("Stall timeout must be positive: " + stallTimeout);
+        }
+        this.downloadCache = cacheDirectory == null ? null : new DownloadCache(cacheDirectory);
+        this.storeIndex = cacheDirectory == null ? null : new StoreIndex(cacheDirectory.resolve("index"));
+        this.stallTimeout = stallTimeout;
+    }
+
+    public void addLoadListener(Consumer<LoadedTruststore> listener) {
+        loadListeners.add(listener);
+    }
 
     public LoadedTruststore load(StoreSourceType sourceType, String sourceValue, char[] password) throws Exception {
+        return load(sourceType, sourceValue, password, progress -> {
+        });
+    }
+
+    public LoadedTruststore load(
+        StoreSourceType sourceType,
+        String sourceValue,
+        char[] password,
+        Consumer<DownloadProgress> progressCallback
+    ) throws Exception {
+        return load(sourceType, sourceValue, password, progressCallback, null);
+    }
+
+    // With an entry callback, JKS stores report certificates while they are read; the returned store is verified.
+    public LoadedTruststore load(
+        StoreSourceType sourceType,
+        String sourceValue,
+        char[] password,
+        Consumer<DownloadProgress> progressCallback,
+        Consumer<StreamedEntry> entryCallback
+    ) throws Exception {
+        LoadedTruststore loaded = loadStore(sourceType, sourceValue, password, progressCallback, entryCallback);
+        for (Consumer<LoadedTruststore> listener : loadListeners) {
+            listener.accept(loaded);
+        }
+        return loaded;
+    }
+
+    private LoadedTruststore loadStore(
+        StoreSourceType sourceType,
+        String sourceValue,
+        char[] password,
+        Consumer<DownloadProgress> progressCallback,
+        Consumer<StreamedEntry> entryCallback
+    ) throws Exception {
         if (password == null) {
             throw new IllegalArgumentException("Password must not be null");
         }
         if (sourceValue == null || sourceValue.isBlank()) {
             throw new IllegalArgumentException("Source value must not be empty");
         }
+        long started = System.nanoTime();
 
-        byte[] storeBytes = switch (sourceType) {
-            case FILE -> readStoreFile(sourceValue);
-            case URL_TAR_GZ -> downloadFromUrl(sourceValue);
-        };
+        if (sourceType == StoreSourceType.FILE) {
+            return open(Path.of(sourceValue), sourceValue, password, entryCallback, started, SourceOrigin.FILE);
+        }
 
-        Exception lastLoadError = null;
-        for (String type : SUPPORTED_TYPES) {
-            try {
-                KeyStore keyStore = KeyStore.getInstance(type);
-                try (ByteArrayInputStream in = new ByteArrayInputStream(storeBytes)) {
-                    keyStore.load(in, password);
+        Download download = downloadFromUrl(sourceValue, progressCallback);
+        try {
+            LoadedTruststore loaded = open(download.file(), sourceValue, password, entryCallback, started, download.origin());
+            if (download.origin() == SourceOrigin.DOWNLOADED && downloadCache != null) {
+                try {
+                    downloadCache.store(download.uri(), download.file(), download.etag(), download.lastModified());
+                } catch (IOException e) {
+                    // A cache write failure only costs a full download next time.
                 }
-                return new LoadedTruststore(keyStore, sourceValue, type);
+            }
+            return loaded;
+        } finally {
+            if (download.origin() == SourceOrigin.DOWNLOADED) {
+                Files.deleteIfExists(download.file());
+            }
+        }
+    }
+
+    // Unchanged stores are served from their index; the KeyStore itself is parsed when a TLS check first asks for it.
+    private LoadedTruststore open(
+        Path path,
+        String sourceValue,
+        char[] password,
+        Consumer<StreamedEntry> entryCallback,
+        long started,
+        SourceOrigin origin
+    ) throws Exception {
+        boolean indexable = storeIndex != null && origin != SourceOrigin.DOWNLOADED;
+        if (indexable) {
+            char[] deferredPassword = password.clone();
+            LoadedTruststore indexed = storeIndex.open(
+                path,
+                password,
+                sourceValue,
+                origin,
+                started,
+                sha256 -> () -> reparse(path, sha256, sourceValue, deferredPassword, origin)
+            );
+            if (indexed != null) {
+                return indexed;
+            }
+        }
+        StoreIndex.Stamp stamp = indexable ? StoreIndex.Stamp.of(path) : null;
+        LoadedTruststore loaded;
+        try (BufferedInputStream in = new BufferedInputStream(Files.newInputStream(path))) {
+            loaded = parse(in, sourceValue, password, entryCallback, started, origin);
+        }
+        if (indexable) {
+            try {
+                List<CertificateInfo> certificates = indexView.listCertificates(loaded.keyStore());
+                storeIndex.write(path, stamp, StoreIndex.sha256(path), password, loaded, certificates);
             } catch (Exception e) {
-                lastLoadError = e;
+                // The index only speeds up the next open.
             }
         }
+        return loaded;
+    }
 
-        String details = lastLoadError == null || lastLoadError.getMessage() == null || lastLoadError.getMessage().isBlank()
-            ? "unknown reason"
-            : lastLoadError.getMessage();
-        throw new IllegalArgumentException(
-            "Failed to load truststore. Check password and store format (JKS/PKCS12). Details: " + details
-        );
+    private KeyStore reparse(Path path, String sha256, String sourceValue, char[] password, SourceOrigin origin)
+        throws Exception {
+        if (!sha256.equals(StoreIndex.sha256(path))) {
+            throw new IOException("the store changed since it was opened from its index, load it again");
+        }
+        try (BufferedInputStream in = new BufferedInputStream(Files.newInputStream(path))) {
+            return parse(in, sourceValue, password, null, System.nanoTime(), origin).keyStore();
+        }
     }
 
-    private byte[] readStoreFile(String path) throws IOException {
-        Path sourcePath = Path.of(path);
-        byte[] bytes = Files.readAllBytes(sourcePath);
-        String normalized = sourcePath.getFileName() == null
-            ? path.toLowerCase()
-            : sourcePath.getFileName().toString().toLowerCase();
-        if (normalized.endsWith(".tar.gz") || normalized.endsWith(".tgz")) {
-            return TarGzExtractor.extractSingleFile(bytes);
+    private LoadedTruststore parse(
+        BufferedInputStream in,
+        String sourceValue,
+        char[] password,
+        Consumer<StreamedEntry> entryCallback,
+        long started,
+        SourceOrigin origin
+    ) {
+        try {
+            long sniffStarted = System.nanoTime();
+            StoreFormat format = sniff(in);
+            long sniffNanos = System.nanoTime() - sniffStarted;
+            KeyStore keyStore;
+            boolean compressed = format == StoreFormat.GZIP;
+            if (compressed) {
+                // The entry stream is closed before building the result so the single-file check runs.
+                try (InputStream entry = TarGzExtractor.openSingleFile(in)) {
+                    BufferedInputStream entryIn = new BufferedInputStream(entry);
+                    sniffStarted = System.nanoTime();
+                    format = sniff(entryIn);
+                    sniffNanos += System.nanoTime() - sniffStarted;
+                    keyStore = read(format, entryIn, password, entryCallback);
+                }
+            } else {
+                keyStore = read(format, in, password, entryCallback);
+            }
+            return new LoadedTruststore(
+                keyStore,
+                sourceValue,
+                format == StoreFormat.PEM ? StoreFormat.PEM.name() : format.keyStoreType(),
+                TrustAnchorIndex.build(keyStore),
+                Duration.ofNanos(System.nanoTime() - started),
+                format,
+                compressed,
+                Duration.ofNanos(sniffNanos),
+                origin
+            );
+        } catch (Exception e) {
+            String details = e.getMessage() == null || e.getMessage().isBlank() ? "unknown reason" : e.getMessage();
+            throw new IllegalArgumentException(
+                "Failed to load truststore. Check password and store format (JKS/JCEKS/PKCS12/PEM). Details: " + details
+            );
+        }
+    }
+
+    private static StoreFormat sniff(BufferedInputStream in) throws IOException {
+        byte[] header = new byte[StoreFormat.HEADER_BYTES];
+        in.mark(header.length);
+        int length = in.readNBytes(header, 0, header.length);
+        in.reset();
+        return StoreFormat.sniff(header, length);
+    }
+
+    private static KeyStore read(
+        StoreFormat format,
+        InputStream in,
+        char[] password,
+        Consumer<StreamedEntry> entryCallback
+    ) throws Exception {
+        if (entryCallback != null && StreamingStoreReader.supports(format)) {
+            return StreamingStoreReader.read(format, in, password, entryCallback);
+        }
+        switch (format) {
+            case JKS, JCEKS, PKCS12 -> {
+                KeyStore keyStore = KeyStore.getInstance(format.keyStoreType());
+                keyStore.load(in, password);
+                return keyStore;
+            }
+            case PEM -> {
+                return PemTruststore.load(in);
+            }
+            case GZIP -> throw new IOException("nested gzip is not supported inside tar.gz");
+            default -> throw new IOException("unrecognized store format (expected JKS, JCEKS, PKCS12, PEM or tar.gz)");
         }
-        return bytes;
     }
 
-    private byte[] downloadFromUrl(String url) throws Exception {
+    private Download downloadFromUrl(String url, Consumer<DownloadProgress> progressCallback) throws Exception {
         URI uri = validateHttpUrl(url);
+        Optional<DownloadCache.Entry> cached = downloadCache == null ? Optional.empty() : downloadCache.lookup(uri);
 
-        HttpClient client = HttpClient.newBuilder()
-            .followRedirects(HttpClient.Redirect.NORMAL)
-            .connectTimeout(Duration.ofSeconds(10))
-            .build();
-        HttpRequest request = HttpRequest.newBuilder(uri)
-            .timeout(Duration.ofSeconds(30))
-            .GET()
-            .build();
-        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
-        if (response.statusCode() < 200 || response.statusCode() >= 300) {
-            throw new IOException("Failed to download truststore archive from URL. HTTP " + response.statusCode());
+        // The body is spooled to disk so that large archives are never held in memory.
+        Path file = downloadCache == null
+            ? Files.createTempFile("truststore-", ".download")
+            : downloadCache.newDownloadFile();
+        try {
+            ResumableDownload.Result result;
+            try {
+                result = new ResumableDownload(httpClient(), stallWatchdog(), stallTimeout)
+                    .fetch(uri, cached.orElse(null), file, progressCallback);
+            } catch (IOException e) {
+                if (cached.isPresent()) {
+                    Files.deleteIfExists(file);
+                    return Download.cached(uri, cached.get(), SourceOrigin.CACHE_OFFLINE);
+                }
+                throw e;
+            }
+            int status = result.status();
+            if (status == 304 && cached.isPresent()) {
+                Files.deleteIfExists(file);
+                return Download.cached(uri, cached.get(), SourceOrigin.CACHE_NOT_MODIFIED);
+            }
+            if (status >= 500 && cached.isPresent()) {
+                Files.deleteIfExists(file);
+                return Download.cached(uri, cached.get(), SourceOrigin.CACHE_OFFLINE);
+            }
+            if (status < 200 || status >= 300) {
+                throw new IOException("Failed to download truststore archive from URL. HTTP " + status);
+            }
+            return new Download(uri, file, SourceOrigin.DOWNLOADED, result.etag(), result.lastModified());
+        } catch (Exception e) {
+            Files.deleteIfExists(file);
+            throw e;
         }
-        byte[] body = response.body();
-        if (shouldTreatAsTarGz(uri, response, body)) {
-            return TarGzExtractor.extractSingleFile(body);
+    }
+
+    private synchronized HttpClient httpClient() {
+        if (httpClient == null) {
+            httpClient = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
         }
-        return body;
+        return httpClient;
+    }
+
+    private synchronized TimerWheel stallWatchdog() {
+        if (stallWatchdog == null) {
+            stallWatchdog = new TimerWheel(WATCHDOG_TICK, 64, Runnable::run, "download-watchdog");
+        }
+        return stallWatchdog;
     }
 
     private URI validateHttpUrl(String rawUrl) {
@@ -103,18 +316,9 @@ public class TruststoreLoader {
         return uri;
     }
 
-    private boolean shouldTreatAsTarGz(URI uri, HttpResponse<byte[]> response, byte[] body) {
-        String path = uri.getPath() == null ? "" : uri.getPath().toLowerCase();
-        if (path.endsWith(".tar.gz") || path.endsWith(".tgz")) {
-            return true;
-        }
-        String contentType = response.headers().firstValue("Content-Type").orElse("").toLowerCase();
-        if (contentType.contains("gzip") || contentType.contains("x-gzip") || contentType.contains("x-tar")) {
-            return true;
+    private record Download(URI uri, Path file, SourceOrigin origin, String etag, String lastModified) {
+        static Download cached(URI uri, DownloadCache.Entry entry, SourceOrigin origin) {
+            return new Download(uri, entry.body(), origin, entry.etag(), entry.lastModified());
         }
-        return body != null
-            && body.length >= 2
-            && (body[0] & 0xFF) == 0x1F
-            && (body[1] & 0xFF) == 0x8B;
     }
 }
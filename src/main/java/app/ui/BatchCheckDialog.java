@@ -0,0 +1,155 @@
+package app.ui;
+
+import app.batch.BatchOutputFormat;
+import app.batch.BatchResultWriter;
+import app.batch.BatchSummary;
+import app.batch.BatchValidationService;
+import app.tls.TlsValidationService;
+import app.truststore.LoadedTruststore;
+import com.googlecode.lanterna.TerminalSize;
+import com.googlecode.lanterna.gui2.BasicWindow;
+import com.googlecode.lanterna.gui2.Borders;
+import com.googlecode.lanterna.gui2.Button;
+import com.googlecode.lanterna.gui2.Direction;
+import com.googlecode.lanterna.gui2.GridLayout;
+import com.googlecode.lanterna.gui2.Label;
+import com.googlecode.lanterna.gui2.LinearLayout;
+import com.googlecode.lanterna.gui2.MultiWindowTextGUI;
+import com.googlecode.lanterna.gui2.Panel;
+import com.googlecode.lanterna.gui2.TextBox;
+import com.googlecode.lanterna.gui2.dialogs.MessageDialog;
+import com.googlecode.lanterna.gui2.dialogs.MessageDialogButton;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public final class BatchCheckDialog {
+    private BatchCheckDialog() {
+    }
+
+    public static void show(
+        MultiWindowTextGUI gui,
+        LoadedTruststore truststore,
+        TlsValidationService validationService
+    ) {
+        BasicWindow dialog = ModalWindows.escClosable("Batch TLS Check");
+        dialog.setHints(java.util.List.of(BasicWindow.Hint.MODAL));
+        AtomicBoolean cancelled = new AtomicBoolean();
+        AtomicBoolean running = new AtomicBoolean();
+
+        Panel root = new Panel(new GridLayout(2));
+        TextBox endpointListInput = new TextBox(new TerminalSize(48, 1));
+        TextBox outputInput = new TextBox(new TerminalSize(48, 1));
+        TextBox globalConcurrencyInput = new TextBox(String.valueOf(BatchValidationService.DEFAULT_GLOBAL_CONCURRENCY));
+        TextBox perHostConcurrencyInput = new TextBox(
+            String.valueOf(BatchValidationService.DEFAULT_PER_HOST_CONCURRENCY)
+        );
+        Label resultLabel = new Label("");
+
+        root.addComponent(new Label("Endpoint list"));
+        Panel endpointListRow = new Panel(new LinearLayout(Direction.HORIZONTAL));
+        endpointListRow.addComponent(endpointListInput);
+        endpointListRow.addComponent(new Button("Browse...", () -> {
+            String selectedPath = FileSystemPickerDialog.show(gui, endpointListInput.getText());
+            if (selectedPath != null && !selectedPath.isBlank()) {
+                endpointListInput.setText(selectedPath);
+            }
+        }));
+        root.addComponent(endpointListRow);
+        root.addComponent(new Label("Output (.ndjson/.csv)"));
+        root.addComponent(outputInput);
+        root.addComponent(new Label("Concurrency"));
+        root.addComponent(globalConcurrencyInput);
+        root.addComponent(new Label("Per host"));
+        root.addComponent(perHostConcurrencyInput);
+
+        Panel actions = new Panel(new LinearLayout(Direction.HORIZONTAL));
+        actions.addComponent(new Button("Run batch", () -> {
+            if (running.get()) {
+                resultLabel.setText("Batch is already running");
+                return;
+            }
+            String endpointList = endpointListInput.getText().trim();
+            String output = outputInput.getText().trim();
+            if (endpointList.isEmpty() || output.isEmpty()) {
+                resultLabel.setText("Endpoint list and output are required");
+                return;
+            }
+            Integer globalConcurrency = parsePositive(globalConcurrencyInput.getText(), "Concurrency", resultLabel);
+            Integer perHostConcurrency = parsePositive(perHostConcurrencyInput.getText(), "Per host", resultLabel);
+            if (globalConcurrency == null || perHostConcurrency == null) {
+                return;
+            }
+
+            BatchValidationService batchService = new BatchValidationService(
+                validationService,
+                globalConcurrency,
+                perHostConcurrency
+            );
+            running.set(true);
+            resultLabel.setText("Checked: 0");
+            Thread worker = new Thread(() -> {
+                String finalText;
+                try (
+                    Writer out = Files.newBufferedWriter(Path.of(output), StandardCharsets.UTF_8);
+                    BatchResultWriter writer = BatchResultWriter.create(BatchOutputFormat.fromFileName(output), out)
+                ) {
+                    BatchSummary summary = batchService.run(
+                        Path.of(endpointList),
+                        truststore.keyStore(),
+                        null,
+                        writer,
+                        progress -> gui.getGUIThread().invokeLater(() -> resultLabel.setText(describe(progress))),
+                        cancelled::get
+                    );
+                    finalText = (summary.cancelled() ? "Cancelled. " : "Done. ") + describe(summary);
+                } catch (Exception e) {
+                    finalText = "Failed: " + (e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage());
+                } finally {
+                    running.set(false);
+                }
+                String text = finalText;
+                if (!cancelled.get()) {
+                    gui.getGUIThread().invokeLater(() -> {
+                        resultLabel.setText(text);
+                        MessageDialog.showMessageDialog(gui, "Batch TLS Check", text, MessageDialogButton.OK);
+                    });
+                }
+            }, "batch-check-worker");
+            worker.setDaemon(true);
+            worker.start();
+        }));
+        actions.addComponent(new Button("Close", dialog::close));
+
+        Panel wrapper = new Panel(new LinearLayout(Direction.VERTICAL));
+        wrapper.addComponent(root.withBorder(Borders.singleLine("Request")));
+        wrapper.addComponent(actions);
+        wrapper.addComponent(resultLabel.withBorder(Borders.singleLine("Status")));
+
+        dialog.setComponent(wrapper);
+        gui.addWindowAndWait(dialog);
+        cancelled.set(true);
+    }
+
+    private static Integer parsePositive(String text, String name, Label resultLabel) {
+        try {
+            int value = Integer.parseInt(text.trim());
+            if (value >= 1) {
+                return value;
+            }
+        } catch (NumberFormatException ignored) {
+            // Reported below.
+        }
+        resultLabel.setText(name + " must be a positive number");
+        return null;
+    }
+
+    private static String describe(BatchSummary summary) {
+        return "Checked: " + summary.checked()
+            + " (ok: " + summary.succeeded()
+            + ", failed: " + summary.failed()
+            + ", invalid: " + summary.invalid() + ")";
+    }
+}
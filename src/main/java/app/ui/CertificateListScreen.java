@@ -1,6 +1,7 @@
 package app.ui;
 
 import app.truststore.CertificateInfo;
+import app.truststore.StoreDiff;
 import com.googlecode.lanterna.TerminalSize;
 import com.googlecode.lanterna.TextColor;
 import com.googlecode.lanterna.gui2.Interactable;
@@ -24,8 +25,10 @@ import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Set;
 import java.util.function.Consumer;
 
 public class CertificateListScreen {
@@ -40,6 +43,8 @@ public class CertificateListScreen {
     private static final int MIN_TABLE_HEIGHT = 8;
     private static final int RESERVED_TOP_ROWS = 18;
     private static final int SUBJECT_SCROLL_STEP = 12;
+    private static final int SUBJECT_COLUMN = 2;
+    private static final int ISSUER_COLUMN = 3;
 
     private final MultiWindowTextGUI gui;
     private final Consumer<String> aliasTlsRequestHandler;
@@ -152,6 +157,85 @@ public class CertificateListScreen {
         refreshRowsByIndex(selectedRow);
     }
 
+    // Removes and inserts only the affected model rows; filter, sort order, search highlight and selection stay as they are.
+    public void applyDiff(StoreDiff diff) {
+        if (diff.isEmpty()) {
+            return;
+        }
+        String selectedAlias = getSelectedAlias();
+        int selectedRow = table.getSelectedRow();
+        Set<String> replaced = new HashSet<>(diff.removedAliases());
+        for (CertificateInfo cert : diff.changed()) {
+            replaced.add(cert.alias());
+        }
+        List<CertificateInfo> previousVisible = visibleCertificates;
+        List<CertificateInfo> nextAll = new ArrayList<>(allCertificates.size() + diff.added().size());
+        for (CertificateInfo cert : allCertificates) {
+            if (!replaced.contains(cert.alias())) {
+                nextAll.add(cert);
+            }
+        }
+        nextAll.addAll(diff.changed());
+        nextAll.addAll(diff.added());
+        allCertificates = nextAll;
+        rebuildVisibleCertificates();
+
+        Set<String> inserted = new HashSet<>(replaced);
+        for (CertificateInfo cert : diff.added()) {
+            inserted.add(cert.alias());
+        }
+        List<CertificateInfo> kept = new ArrayList<>();
+        for (CertificateInfo cert : previousVisible) {
+            if (!replaced.contains(cert.alias())) {
+                kept.add(cert);
+            }
+        }
+        List<CertificateInfo> keptInNewOrder = new ArrayList<>();
+        for (CertificateInfo cert : visibleCertificates) {
+            if (!inserted.contains(cert.alias())) {
+                keptInNewOrder.add(cert);
+            }
+        }
+        int nextRow = indexOfAlias(selectedAlias);
+        if (nextRow < 0) {
+            nextRow = Math.max(0, selectedRow);
+        }
+        if (!sameRows(kept, keptInNewOrder)) {
+            // Ties in the current sort can reorder untouched rows; redraw everything in that case.
+            refreshRowsByIndex(nextRow);
+            return;
+        }
+
+        TableModel<String> model = table.getTableModel();
+        for (int row = previousVisible.size() - 1; row >= 0; row--) {
+            if (replaced.contains(previousVisible.get(row).alias())) {
+                model.removeRow(row);
+            }
+        }
+        for (int row = 0; row < visibleCertificates.size(); row++) {
+            CertificateInfo cert = visibleCertificates.get(row);
+            if (inserted.contains(cert.alias())) {
+                model.insertRow(row, rowCells(cert));
+            }
+        }
+        if (!visibleCertificates.isEmpty()) {
+            table.setSelectedRow(Math.max(0, Math.min(nextRow, visibleCertificates.size() - 1)));
+        }
+        subjectOffset = Math.min(subjectOffset, maxSubjectOffset());
+    }
+
+    private static boolean sameRows(List<CertificateInfo> left, List<CertificateInfo> right) {
+        if (left.size() != right.size()) {
+            return false;
+        }
+        for (int i = 0; i < left.size(); i++) {
+            if (left.get(i) != right.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private void scrollSubject(int delta) {
         int maxOffset = maxSubjectOffset();
         int nextOffset = subjectOffset + delta;
@@ -170,8 +254,10 @@ public class CertificateListScreen {
 
     private int maxSubjectOffset() {
         int maxLen = 0;
-        for (CertificateInfo cert : visibleCertificates) {
-            maxLen = Math.max(maxLen, cert.subject().length());
+        // Only rows in view are measured so scrolling never decodes the whole store.
+        int last = Math.min(visibleCertificates.size() - 1, table.getLastViewedRowIndex());
+        for (int row = Math.max(0, table.getFirstViewedRowIndex()); row <= last; row++) {
+            maxLen = Math.max(maxLen, visibleCertificates.get(row).subject().length());
         }
         return Math.max(0, maxLen - subjectViewWidth);
     }
@@ -192,13 +278,7 @@ public class CertificateListScreen {
         TableModel<String> model = table.getTableModel();
         model.clear();
         for (CertificateInfo cert : this.visibleCertificates) {
-            model.addRow(
-                clip(safe(cert.alias()), aliasViewWidth),
-                clip(DATE_FORMATTER.format(cert.notAfter()), EXPIRY_VIEW_WIDTH),
-                clip(subjectWindow(cert.subject()), subjectViewWidth),
-                clip(safe(cert.issuer()), issuerViewWidth),
-                clip(safe(cert.status()), STATUS_VIEW_WIDTH)
-            );
+            model.addRow(rowCells(cert));
         }
         if (!visibleCertificates.isEmpty()) {
             int safeRow = Math.max(0, Math.min(selectedRow, visibleCertificates.size() - 1));
@@ -207,6 +287,16 @@ public class CertificateListScreen {
         updateHotkeysLabel();
     }
 
+    private List<String> rowCells(CertificateInfo cert) {
+        return List.of(
+            clip(safe(cert.alias()), aliasViewWidth),
+            clip(DATE_FORMATTER.format(cert.notAfter()), EXPIRY_VIEW_WIDTH),
+            "",
+            "",
+            clip(safe(cert.status()), STATUS_VIEW_WIDTH)
+        );
+    }
+
     private void rebuildVisibleCertificates() {
         if (!hideExpired) {
             visibleCertificates = new ArrayList<>(allCertificates);
@@ -395,6 +485,12 @@ public class CertificateListScreen {
     private final class SearchHighlightCellRenderer implements TableCellRenderer<String> {
         @Override
         public TerminalSize getPreferredSize(Table<String> table, String cell, int columnIndex, int rowIndex) {
+            if (columnIndex == SUBJECT_COLUMN) {
+                return new TerminalSize(subjectViewWidth, 1);
+            }
+            if (columnIndex == ISSUER_COLUMN) {
+                return new TerminalSize(issuerViewWidth, 1);
+            }
             return new TerminalSize(cell == null ? 0 : cell.length(), 1);
         }
 
@@ -414,7 +510,7 @@ public class CertificateListScreen {
                 graphics.applyThemeStyle(themeDefinition.getNormal());
             }
 
-            String value = cell == null ? "" : cell;
+            String value = cellText(cell, columnIndex, rowIndex);
             if (!selected && isSearchCellMatch(value)) {
                 graphics.setBackgroundColor(TextColor.ANSI.YELLOW);
                 graphics.setForegroundColor(TextColor.ANSI.BLACK);
@@ -430,6 +526,17 @@ public class CertificateListScreen {
         }
     }
 
+    // Subject and issuer are decoded only when their row is drawn.
+    private String cellText(String cell, int columnIndex, int rowIndex) {
+        if ((columnIndex == SUBJECT_COLUMN || columnIndex == ISSUER_COLUMN) && rowIndex < visibleCertificates.size()) {
+            CertificateInfo cert = visibleCertificates.get(rowIndex);
+            return columnIndex == SUBJECT_COLUMN
+                ? clip(subjectWindow(cert.subject()), subjectViewWidth)
+                : clip(safe(cert.issuer()), issuerViewWidth);
+        }
+        return cell == null ? "" : cell;
+    }
+
     private boolean isSearchCellMatch(String value) {
         if (value == null || activeSearchQuery == null || activeSearchQuery.isBlank()) {
             return false;
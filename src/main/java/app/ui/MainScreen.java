@@ -1,11 +1,17 @@
 package app.ui;
 
+import app.history.ScanHistory;
 import app.tls.TlsValidationService;
 import app.truststore.CertificateInfo;
 import app.truststore.CertificateViewService;
+import app.truststore.DownloadProgress;
 import app.truststore.LoadedTruststore;
+import app.truststore.SourceOrigin;
+import app.truststore.StoreDiff;
 import app.truststore.StoreSourceType;
+import app.truststore.StreamedEntry;
 import app.truststore.TruststoreLoader;
+import app.watch.StoreFileWatcher;
 import com.googlecode.lanterna.gui2.BasicWindow;
 import com.googlecode.lanterna.gui2.Borders;
 import com.googlecode.lanterna.gui2.Button;
@@ -23,12 +29,20 @@ import com.googlecode.lanterna.gui2.dialogs.MessageDialog;
 import com.googlecode.lanterna.gui2.dialogs.MessageDialogButton;
 import com.googlecode.lanterna.gui2.dialogs.TextInputDialogBuilder;
 import com.googlecode.lanterna.input.KeyStroke;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 public class MainScreen {
     private static final String ENV_PASSWORD = "TRUSTSTORE_PASSWORD";
     private static final String ENV_PATH = "TRUSTSTORE_PATH";
     private static final String ENV_URL = "TRUSTSTORE_URL";
+    private static final String ENV_AUTO_RELOAD = "TRUSTSTORE_AUTO_RELOAD";
     private static final String DEFAULT_PASSWORD = "changeit";
 
     private final MultiWindowTextGUI gui;
@@ -36,9 +50,15 @@ public class MainScreen {
     private final TruststoreLoader truststoreLoader;
     private final CertificateViewService certificateViewService;
     private final TlsValidationService tlsValidationService;
+    private final ScanHistory history;
+    private final AtomicBoolean loading = new AtomicBoolean();
+    // A file change that arrived while another load held loading; it runs as soon as that load finishes.
+    private final AtomicReference<Runnable> pendingReload = new AtomicReference<>();
 
     private final CertificateListScreen certificateListScreen;
     private LoadedTruststore loadedTruststore;
+    private volatile List<CertificateInfo> loadedCertificates = List.of();
+    private StoreFileWatcher storeFileWatcher;
     private Interactable topMenuFocusTarget;
     private Label statusLabel;
     private Label loadedStoreLabel;
@@ -48,13 +68,15 @@ public class MainScreen {
         Window window,
         TruststoreLoader truststoreLoader,
         CertificateViewService certificateViewService,
-        TlsValidationService tlsValidationService
+        TlsValidationService tlsValidationService,
+        ScanHistory history
     ) {
         this.gui = gui;
         this.window = window;
         this.truststoreLoader = truststoreLoader;
         this.certificateViewService = certificateViewService;
         this.tlsValidationService = tlsValidationService;
+        this.history = history;
         this.certificateListScreen = new CertificateListScreen(
             gui,
             this::openTlsCheckForAliasOnly,
@@ -104,6 +126,7 @@ public class MainScreen {
             sourceInput.getText()
         )));
         actionButtons.addComponent(new Button("TLS check", this::openTlsCheck));
+        actionButtons.addComponent(new Button("Batch check", this::openBatchCheck));
         actionButtons.addComponent(new Button("Exit", window::close));
 
         Panel topRow = new Panel(new LinearLayout(Direction.HORIZONTAL));
@@ -129,35 +152,213 @@ public class MainScreen {
     }
 
     private void loadStore(RadioBoxList<String> sourceType, String sourceValue) {
-        try {
-            if (sourceValue == null || sourceValue.isBlank()) {
-                throw new IllegalArgumentException("Path / URL is required");
-            }
-            String password = System.getenv(ENV_PASSWORD);
-            if (password == null || password.isBlank()) {
-                password = DEFAULT_PASSWORD;
+        if (sourceValue == null || sourceValue.isBlank()) {
+            showLoadError(new IllegalArgumentException("Path / URL is required"));
+            return;
+        }
+        if (!loading.compareAndSet(false, true)) {
+            statusLabel.setText("Truststore is already loading");
+            return;
+        }
+        char[] passwordChars = resolvePassword();
+        StoreSourceType source = sourceType.getCheckedItemIndex() == 0
+            ? StoreSourceType.FILE
+            : StoreSourceType.URL_TAR_GZ;
+        String value = sourceValue.trim();
+        statusLabel.setText("Loading truststore...");
+
+        // Downloads and parsing run off the GUI thread so the screen keeps redrawing progress.
+        Thread worker = new Thread(() -> {
+            StreamedRows streamedRows = new StreamedRows();
+            try {
+                LoadedTruststore loaded = truststoreLoader.load(
+                    source,
+                    value,
+                    passwordChars,
+                    progress -> gui.getGUIThread().invokeLater(() -> statusLabel.setText(describeProgress(progress))),
+                    streamedRows
+                );
+                List<CertificateInfo> certificates = certificateViewService.listCertificates(loaded);
+                gui.getGUIThread().invokeLater(() -> {
+                    loadedTruststore = loaded;
+                    loadedCertificates = certificates;
+                    tlsValidationService.invalidateTrustCache();
+                    certificateListScreen.setCertificates(certificates);
+                    loadedStoreLabel.setText(describeLoaded(loaded, certificates.size()));
+                    statusLabel.setText("Truststore loaded successfully");
+                    watchLoadedFile(source, value, passwordChars);
+                });
+            } catch (Exception e) {
+                gui.getGUIThread().invokeLater(() -> {
+                    if (streamedRows.published) {
+                        // Rows shown while reading were never verified; fall back to the last good store.
+                        certificateListScreen.setCertificates(loadedCertificates);
+                        loadedStoreLabel.setText(loadedTruststore == null
+                            ? "Rejected: " + value + " failed verification"
+                            : "Rejected: " + value + " failed verification, still showing " + loadedTruststore.sourceDescription());
+                    }
+                    showLoadError(e);
+                });
+            } finally {
+                finishLoading();
             }
+        }, "truststore-loader");
+        worker.setDaemon(true);
+        worker.start();
+    }
 
-            StoreSourceType source = sourceType.getCheckedItemIndex() == 0
-                ? StoreSourceType.FILE
-                : StoreSourceType.URL_TAR_GZ;
-            loadedTruststore = truststoreLoader.load(source, sourceValue.trim(), password.toCharArray());
-
-            List<CertificateInfo> certificates = certificateViewService.listCertificates(loadedTruststore.keyStore());
-            certificateListScreen.setCertificates(certificates);
-            loadedStoreLabel.setText(
-                "Loaded: " + loadedTruststore.sourceDescription()
-                    + " (type=" + loadedTruststore.storeType()
-                    + ", certs=" + certificates.size() + ")"
+    private void watchLoadedFile(StoreSourceType source, String value, char[] passwordChars) {
+        if (storeFileWatcher != null) {
+            storeFileWatcher.close();
+            storeFileWatcher = null;
+            pendingReload.set(null);
+        }
+        if (source != StoreSourceType.FILE || "off".equalsIgnoreCase(getTrimmedEnv(ENV_AUTO_RELOAD))) {
+            return;
+        }
+        try {
+            final StoreFileWatcher[] watcher = new StoreFileWatcher[1];
+            watcher[0] = new StoreFileWatcher(
+                Path.of(value),
+                StoreFileWatcher.DEFAULT_DEBOUNCE,
+                () -> reloadChangedFile(watcher[0], value, passwordChars)
             );
-            statusLabel.setText("Truststore loaded successfully");
+            storeFileWatcher = watcher[0];
+        } catch (IOException | RuntimeException e) {
+            statusLabel.setText("Truststore loaded; auto-reload unavailable: " + shorten(messageOrClass(e), 80));
+        }
+    }
+
+    // Runs on the watcher's debounce thread after the watched file settles; only the row diff reaches the table.
+    private void reloadChangedFile(StoreFileWatcher watcher, String value, char[] passwordChars) {
+        if (!loading.compareAndSet(false, true)) {
+            pendingReload.set(() -> reloadChangedFile(watcher, value, passwordChars));
+            // The other load may have finished before the reload was parked.
+            if (!loading.get()) {
+                runPendingReload();
+            }
+            return;
+        }
+        try {
+            List<CertificateInfo> previous = loadedCertificates;
+            LoadedTruststore loaded = truststoreLoader.load(StoreSourceType.FILE, value, passwordChars);
+            List<CertificateInfo> certificates = certificateViewService.listCertificates(loaded);
+            StoreDiff diff = StoreDiff.between(previous, certificates);
+            gui.getGUIThread().invokeLater(() -> {
+                if (storeFileWatcher != watcher) {
+                    return;
+                }
+                loadedTruststore = loaded;
+                if (loadedCertificates == previous) {
+                    certificateListScreen.applyDiff(diff);
+                } else {
+                    certificateListScreen.setCertificates(certificates);
+                }
+                loadedCertificates = certificates;
+                if (!diff.isEmpty()) {
+                    tlsValidationService.invalidateTrustCache();
+                }
+                loadedStoreLabel.setText(describeLoaded(loaded, certificates.size()));
+                statusLabel.setText(diff.isEmpty()
+                    ? "File changed on disk, certificates unchanged"
+                    : "Reloaded from disk: " + diff.summary());
+            });
         } catch (Exception e) {
-            String error = buildErrorMessage(e);
-            statusLabel.setText("Failed: " + shorten(error, 120));
-            MessageDialog.showMessageDialog(gui, "Load error", error, MessageDialogButton.OK);
+            // Writers may leave the file half-written for a moment; keep the last good store and wait for the next event.
+            String error = shorten(buildErrorMessage(e), 100);
+            gui.getGUIThread().invokeLater(() -> {
+                if (storeFileWatcher == watcher) {
+                    statusLabel.setText("Reload failed, still showing previous store: " + error);
+                }
+            });
+        } finally {
+            finishLoading();
         }
     }
 
+    private void finishLoading() {
+        loading.set(false);
+        runPendingReload();
+    }
+
+    // Runs on the thread that released loading; a reload that loses the race parks itself again.
+    private void runPendingReload() {
+        Runnable reload = pendingReload.getAndSet(null);
+        if (reload != null) {
+            reload.run();
+        }
+    }
+
+    private char[] resolvePassword() {
+        String password = System.getenv(ENV_PASSWORD);
+        if (password == null || password.isBlank()) {
+            password = DEFAULT_PASSWORD;
+        }
+        return password.toCharArray();
+    }
+
+    private String describeLoaded(LoadedTruststore loaded, int certificateCount) {
+        return "Loaded: " + loaded.sourceDescription()
+            + " (type=" + loaded.storeType()
+            + (loaded.compressed() ? " in tar.gz" : "")
+            + ", certs=" + certificateCount
+            + describeOrigin(loaded.origin())
+            + (loaded.indexed() ? ", from index" : "") + ")";
+    }
+
+    private void showLoadError(Exception e) {
+        String error = buildErrorMessage(e);
+        statusLabel.setText("Failed: " + shorten(error, 120));
+        MessageDialog.showMessageDialog(gui, "Load error", error, MessageDialogButton.OK);
+    }
+
+    // Publishes unverified rows to the table at most every PUBLISH_INTERVAL_NANOS while a store is read.
+    private final class StreamedRows implements Consumer<StreamedEntry> {
+        private static final long PUBLISH_INTERVAL_NANOS = 200_000_000L;
+
+        private final List<CertificateInfo> rows = new ArrayList<>();
+        private long lastPublished = System.nanoTime();
+        private volatile boolean published;
+
+        @Override
+        public void accept(StreamedEntry entry) {
+            rows.add(certificateViewService.describe(entry.alias(), entry.certificate()));
+            long now = System.nanoTime();
+            boolean last = entry.index() + 1 == entry.total();
+            if (!last && now - lastPublished < PUBLISH_INTERVAL_NANOS) {
+                return;
+            }
+            lastPublished = now;
+            published = true;
+            List<CertificateInfo> snapshot = List.copyOf(rows);
+            String status = "Reading entries: " + snapshot.size() + "/" + entry.total() + " (verifying at the end)";
+            gui.getGUIThread().invokeLater(() -> {
+                if (loading.get()) {
+                    certificateListScreen.setCertificates(snapshot);
+                    statusLabel.setText(status);
+                }
+            });
+        }
+    }
+
+    private static String describeProgress(DownloadProgress progress) {
+        String text = "Downloading: " + formatBytes(progress.receivedBytes());
+        if (progress.totalKnown()) {
+            text += " / " + formatBytes(progress.totalBytes());
+        }
+        if (progress.resumes() > 0) {
+            text += " (resumed " + progress.resumes() + "x)";
+        }
+        return text;
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes < 1024 * 1024) {
+            return String.format(Locale.ROOT, "%.1f KiB", bytes / 1024.0);
+        }
+        return String.format(Locale.ROOT, "%.1f MiB", bytes / (1024.0 * 1024.0));
+    }
+
     private void initializeSourceOnStartup(RadioBoxList<String> sourceType, TextBox sourceInput) {
         String envPath = getTrimmedEnv(ENV_PATH);
         String envUrl = getTrimmedEnv(ENV_URL);
@@ -262,6 +463,14 @@ public class MainScreen {
         return message;
     }
 
+    private String describeOrigin(SourceOrigin origin) {
+        return switch (origin) {
+            case CACHE_NOT_MODIFIED -> ", cached copy is up to date";
+            case CACHE_OFFLINE -> ", offline: cached copy";
+            default -> "";
+        };
+    }
+
     private String shorten(String text, int maxLength) {
         if (text == null) {
             return "";
@@ -311,7 +520,15 @@ public class MainScreen {
             MessageDialog.showMessageDialog(gui, "TLS check", "Load a truststore first", MessageDialogButton.OK);
             return;
         }
-        TlsCheckDialog.show(gui, loadedTruststore.keyStore(), null, tlsValidationService);
+        withKeyStore(truststore -> TlsCheckDialog.show(gui, truststore, null, tlsValidationService, history));
+    }
+
+    private void openBatchCheck() {
+        if (loadedTruststore == null) {
+            MessageDialog.showMessageDialog(gui, "Batch check", "Load a truststore first", MessageDialogButton.OK);
+            return;
+        }
+        withKeyStore(truststore -> BatchCheckDialog.show(gui, truststore, tlsValidationService));
     }
 
     private void openTlsCheckForAliasOnly(String alias) {
@@ -323,6 +540,37 @@ public class MainScreen {
             MessageDialog.showMessageDialog(gui, "TLS check", "Selected alias is empty", MessageDialogButton.OK);
             return;
         }
-        TlsCheckDialog.showSingleAlias(gui, loadedTruststore.keyStore(), alias, tlsValidationService);
+        withKeyStore(truststore -> TlsCheckDialog.showSingleAlias(gui, truststore, alias, tlsValidationService, history));
+    }
+
+    // Stores opened from their index parse the KeyStore on first use; that parse runs here on the loader thread.
+    private void withKeyStore(Consumer<LoadedTruststore> open) {
+        LoadedTruststore truststore = loadedTruststore;
+        if (truststore.keyStoreLoaded()) {
+            open.accept(truststore);
+            return;
+        }
+        if (!loading.compareAndSet(false, true)) {
+            statusLabel.setText("Truststore is already loading");
+            return;
+        }
+        statusLabel.setText("Parsing truststore...");
+        Thread worker = new Thread(() -> {
+            try {
+                truststore.keyStore();
+                gui.getGUIThread().invokeLater(() -> {
+                    statusLabel.setText("Truststore parsed");
+                    if (loadedTruststore == truststore) {
+                        open.accept(truststore);
+                    }
+                });
+            } catch (RuntimeException e) {
+                gui.getGUIThread().invokeLater(() -> showLoadError(e));
+            } finally {
+                finishLoading();
+            }
+        }, "truststore-loader");
+        worker.setDaemon(true);
+        worker.start();
     }
 }
@@ -1,12 +1,27 @@
 package app.ui;
 
+import app.history.AnchorSighting;
+import app.history.ChainChange;
+import app.history.HistoryEntry;
+import app.history.ScanHistory;
+import app.tls.AddressValidationResult;
+import app.tls.AliasScanMode;
 import app.tls.AliasScanProgress;
 import app.tls.AliasScanResult;
+import app.tls.CapturedPeerChain;
 import app.tls.ChainCertificateInfo;
+import app.tls.HandshakeMode;
+import app.tls.PeerChainCacheStats;
+import app.tls.PreparedCertificateFile;
+import app.tls.ProbeStatus;
+import app.tls.ProtocolProbeMatrix;
+import app.tls.ProtocolProbeResult;
+import app.tls.ScanCancellation;
 import app.tls.TlsValidationService;
 import app.tls.ValidationResult;
 import app.truststore.CertificateInfo;
 import app.truststore.CertificateViewService;
+import app.truststore.LoadedTruststore;
 import com.googlecode.lanterna.TerminalSize;
 import com.googlecode.lanterna.gui2.BasicWindow;
 import com.googlecode.lanterna.gui2.Borders;
@@ -25,47 +40,56 @@ import com.googlecode.lanterna.gui2.dialogs.MessageDialogBuilder;
 import com.googlecode.lanterna.gui2.dialogs.MessageDialog;
 import com.googlecode.lanterna.gui2.dialogs.MessageDialogButton;
 import com.googlecode.lanterna.gui2.dialogs.TextInputDialogBuilder;
+import java.io.IOException;
 import java.security.KeyStore;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 public final class TlsCheckDialog {
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd")
         .withZone(ZoneId.systemDefault());
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")
+        .withZone(ZoneId.systemDefault());
 
     private TlsCheckDialog() {
     }
 
     public static void show(
         MultiWindowTextGUI gui,
-        KeyStore keyStore,
+        LoadedTruststore truststore,
         String selectedAlias,
-        TlsValidationService validationService
+        TlsValidationService validationService,
+        ScanHistory history
     ) {
-        showInternal(gui, keyStore, selectedAlias, validationService, false);
+        showInternal(gui, truststore, selectedAlias, validationService, history, false);
     }
 
     public static void showSingleAlias(
         MultiWindowTextGUI gui,
-        KeyStore keyStore,
+        LoadedTruststore truststore,
         String selectedAlias,
-        TlsValidationService validationService
+        TlsValidationService validationService,
+        ScanHistory history
     ) {
-        showInternal(gui, keyStore, selectedAlias, validationService, true);
+        showInternal(gui, truststore, selectedAlias, validationService, history, true);
     }
 
     private static void showInternal(
         MultiWindowTextGUI gui,
-        KeyStore keyStore,
+        LoadedTruststore truststore,
         String selectedAlias,
         TlsValidationService validationService,
+        ScanHistory history,
         boolean aliasOnlyMode
     ) {
         BasicWindow dialog = ModalWindows.escClosable("TLS Check");
         dialog.setHints(java.util.List.of(BasicWindow.Hint.MODAL));
+        ScanCancellation cancellation = new ScanCancellation();
+        KeyStore keyStore = truststore.keyStore();
 
         Panel root = new Panel(new GridLayout(2));
         TextBox hostInput = new TextBox(new TerminalSize(48, 1));
@@ -73,6 +97,8 @@ public final class TlsCheckDialog {
         TextBox certificatePathInput = new TextBox(new TerminalSize(48, 1));
         Label resultLabel = new Label("");
         CheckBox findMatchingCerts = new CheckBox("Find matching certificates");
+        CheckBox reuseCachedChain = new CheckBox("Reuse cached server chain");
+        CheckBox allAddresses = new CheckBox("Check every resolved address");
 
         root.addComponent(new Label("Host"));
         root.addComponent(hostInput);
@@ -95,6 +121,10 @@ public final class TlsCheckDialog {
             root.addComponent(new Label("Options"));
             root.addComponent(findMatchingCerts);
         }
+        root.addComponent(new Label("Cache"));
+        root.addComponent(reuseCachedChain);
+        root.addComponent(new Label("Addresses"));
+        root.addComponent(allAddresses);
 
         Panel actions = new Panel(new LinearLayout(Direction.HORIZONTAL));
         actions.addComponent(new Button("Run check", () -> {
@@ -104,25 +134,80 @@ public final class TlsCheckDialog {
                 return;
             }
 
+            // Without reuse the check does a real handshake and leaves cached chains of other endpoints alone.
+            boolean reuseCache = reuseCachedChain.isChecked();
+            HandshakeMode handshakeMode = reuseCache ? HandshakeMode.CACHED_CHAIN : HandshakeMode.FULL;
             boolean needAliasScan = !aliasOnlyMode && findMatchingCerts.isChecked();
+            if (!needAliasScan && allAddresses.isChecked()) {
+                String alias = aliasOnlyMode ? selectedAlias : null;
+                HandshakeMode addressHandshakeMode = handshakeMode;
+                resultLabel.setText("Checking all addresses...");
+                Thread worker = new Thread(() -> {
+                    List<AddressValidationResult> results = validationService.validateAllAddresses(
+                        host,
+                        port,
+                        keyStore,
+                        alias,
+                        addressHandshakeMode
+                    );
+                    for (AddressValidationResult entry : results) {
+                        recordHistory(history, HistoryEntry.validation(host, port, storeDigest(truststore), alias, entry.result()));
+                    }
+                    if (cancellation.isCancelled()) {
+                        return;
+                    }
+                    gui.getGUIThread().invokeLater(() -> {
+                        long succeeded = results.stream().filter(entry -> entry.result().success()).count();
+                        resultLabel.setText("Addresses OK: " + succeeded + "/" + results.size());
+                        showAddressResults(gui, host, port, results);
+                    });
+                }, "address-check-worker");
+                worker.setDaemon(true);
+                worker.start();
+                return;
+            }
             if (!needAliasScan) {
                 String alias = aliasOnlyMode ? selectedAlias : null;
-                ValidationResult result = validationService.validate(host, port, keyStore, alias);
-                resultLabel.setText(result.success() ? "OK" : "FAIL");
+                ValidationResult result = validationService.validate(host, port, keyStore, alias, handshakeMode);
+                String historyStatus = recordHistory(
+                    history,
+                    HistoryEntry.validation(host, port, storeDigest(truststore), alias, result)
+                );
+                resultLabel.setText(historyStatus + (result.success() ? "OK" : "FAIL") + cacheStatus(validationService));
                 showDetails(gui, result, host, port, null);
                 return;
             }
 
+            HandshakeMode scanHandshakeMode = handshakeMode;
             resultLabel.setText("Checking aliases: 0/?");
             Thread worker = new Thread(() -> {
-                ValidationResult result = validationService.validate(host, port, keyStore, null);
-                AliasScanResult scanResult = validationService.findValidAliases(host, port, keyStore, progress -> {
-                    gui.getGUIThread().invokeLater(() -> showProgress(resultLabel, progress));
-                });
+                ValidationResult result = validationService.validate(host, port, keyStore, null, scanHandshakeMode);
+                Consumer<AliasScanProgress> progressCallback =
+                    progress -> gui.getGUIThread().invokeLater(() -> showProgress(resultLabel, progress));
+                AliasScanResult scanResult = reuseCache
+                    ? validationService.findValidAliases(
+                        host,
+                        port,
+                        keyStore,
+                        truststore.anchorIndex(),
+                        AliasScanMode.SINGLE_HANDSHAKE,
+                        progressCallback,
+                        cancellation
+                    )
+                    : scanFreshChain(validationService, host, port, keyStore, truststore, progressCallback, cancellation);
+                if (cancellation.isCancelled()) {
+                    return;
+                }
+                String historyStatus = recordHistory(
+                    history,
+                    HistoryEntry.aliasScan(host, port, storeDigest(truststore), result.peerChain(), scanResult)
+                );
                 Map<String, CertificateInfo> aliasDetails = buildAliasDetailsMap(keyStore);
                 gui.getGUIThread().invokeLater(() -> {
                     resultLabel.setText(
-                        "Valid aliases: " + scanResult.validAliases().size() + "/" + scanResult.checkedAliases()
+                        historyStatus
+                            + "Valid aliases: " + scanResult.validAliases().size() + "/" + scanResult.checkedAliases()
+                            + cacheStatus(validationService)
                     );
                     showResultWithAliasesDialog(
                         gui,
@@ -131,31 +216,88 @@ public final class TlsCheckDialog {
                         port,
                         scanResult,
                         aliasDetails,
-                        keyStore,
-                        validationService
+                        truststore,
+                        validationService,
+                        history
                     );
                 });
             }, "alias-scan-worker");
             worker.setDaemon(true);
             worker.start();
         }));
+        actions.addComponent(new Button("Probe protocols", () -> {
+            String host = hostInput.getText().trim();
+            Integer port = parsePort(host, portInput.getText().trim(), resultLabel);
+            if (port == null) {
+                return;
+            }
+            String alias = aliasOnlyMode ? selectedAlias : null;
+            resultLabel.setText("Probing protocols...");
+            Thread worker = new Thread(() -> {
+                ProtocolProbeMatrix matrix = validationService.probeProtocols(host, port, keyStore, alias);
+                if (cancellation.isCancelled()) {
+                    return;
+                }
+                gui.getGUIThread().invokeLater(() -> {
+                    resultLabel.setText(matrix.error() == null
+                        ? "Probed " + matrix.results().size() + " combinations in " + matrix.elapsed().toMillis() + " ms"
+                        : "FAIL");
+                    showProbeMatrix(gui, matrix);
+                });
+            }, "protocol-probe-worker");
+            worker.setDaemon(true);
+            worker.start();
+        }));
+        actions.addComponent(new Button("History", () -> {
+            String host = hostInput.getText().trim();
+            Integer port = parsePort(host, portInput.getText().trim(), resultLabel);
+            if (port == null) {
+                return;
+            }
+            if (history == null) {
+                resultLabel.setText("Scan history is disabled");
+                return;
+            }
+            Thread worker = new Thread(() -> {
+                String text;
+                try {
+                    text = describeHistory(
+                        host,
+                        port,
+                        history.lastChainChange(host, port).orElse(null),
+                        history.anchoringAliases(host)
+                    );
+                } catch (IOException e) {
+                    text = "Scan history is not available: " + e.getMessage();
+                }
+                String details = text;
+                gui.getGUIThread().invokeLater(() -> new MessageDialogBuilder()
+                    .setTitle("Scan History")
+                    .setText(details)
+                    .addButton(MessageDialogButton.OK)
+                    .build()
+                    .showDialog(gui));
+            }, "scan-history-worker");
+            worker.setDaemon(true);
+            worker.start();
+        }));
         actions.addComponent(new Button("Check cert file", () -> {
             String certificatePath = certificatePathInput.getText().trim();
-            String password = null;
-            ValidationResult baseResult = validationService.validateCertificateFile(certificatePath, keyStore, null);
-            if (!baseResult.success() && isPkcs12PasswordRequired(baseResult.message())) {
-                password = promptPkcs12Password(gui);
+            PreparedCertificateFile prepared = validationService.prepareCertificateFile(certificatePath, null);
+            if (!prepared.ready() && isPkcs12PasswordRequired(prepared.failure().message())) {
+                String password = promptPkcs12Password(gui);
                 if (password == null) {
                     resultLabel.setText("Cancelled");
                     return;
                 }
-                baseResult = validationService.validateCertificateFile(certificatePath, keyStore, null, password);
+                prepared = validationService.prepareCertificateFile(certificatePath, password);
             }
+            ValidationResult baseResult = validationService.validateCertificateFile(prepared, keyStore, null);
             boolean needAliasScan = !aliasOnlyMode && findMatchingCerts.isChecked();
             if (!needAliasScan) {
                 ValidationResult result;
                 if (aliasOnlyMode) {
-                    result = validationService.validateCertificateFile(certificatePath, keyStore, selectedAlias, password);
+                    result = validationService.validateCertificateFile(prepared, keyStore, selectedAlias);
                 } else {
                     result = baseResult;
                 }
@@ -164,16 +306,19 @@ public final class TlsCheckDialog {
                 return;
             }
 
-            String finalPassword = password;
-            ValidationResult finalBaseResult = baseResult;
+            PreparedCertificateFile finalPrepared = prepared;
             resultLabel.setText("Checking aliases: 0/?");
             Thread worker = new Thread(() -> {
                 AliasScanResult scanResult = validationService.findValidAliasesForCertificateFile(
-                    certificatePath,
+                    finalPrepared,
                     keyStore,
-                    finalPassword,
-                    progress -> gui.getGUIThread().invokeLater(() -> showProgress(resultLabel, progress))
+                    truststore.anchorIndex(),
+                    progress -> gui.getGUIThread().invokeLater(() -> showProgress(resultLabel, progress)),
+                    cancellation
                 );
+                if (cancellation.isCancelled()) {
+                    return;
+                }
                 Map<String, CertificateInfo> aliasDetails = buildAliasDetailsMap(keyStore);
                 gui.getGUIThread().invokeLater(() -> {
                     resultLabel.setText(
@@ -181,12 +326,13 @@ public final class TlsCheckDialog {
                     );
                     showCertificateFileResultWithAliasesDialog(
                         gui,
-                        finalBaseResult,
+                        baseResult,
                         certificatePath,
                         scanResult,
                         aliasDetails,
-                        keyStore,
-                        validationService
+                        truststore,
+                        validationService,
+                        history
                     );
                 });
             }, "cert-file-alias-scan-worker");
@@ -202,6 +348,60 @@ public final class TlsCheckDialog {
 
         dialog.setComponent(wrapper);
         gui.addWindowAndWait(dialog);
+        cancellation.cancel();
+    }
+
+    private static String recordHistory(ScanHistory history, HistoryEntry entry) {
+        if (history == null) {
+            return "";
+        }
+        try {
+            history.record(entry);
+            return "";
+        } catch (IOException e) {
+            return "[history not saved] ";
+        }
+    }
+
+    private static String storeDigest(LoadedTruststore truststore) {
+        return truststore.anchorIndex() == null ? null : truststore.anchorIndex().storeDigest();
+    }
+
+    private static String describeHistory(
+        String host,
+        int port,
+        ChainChange chainChange,
+        List<AnchorSighting> anchors
+    ) {
+        StringBuilder details = new StringBuilder();
+        details.append(host).append(':').append(port).append('\n');
+        if (chainChange == null) {
+            details.append("No recorded server chain.\n");
+        } else {
+            details.append(chainChange.firstSeen() ? "Chain first seen: " : "Chain last changed: ")
+                .append(TIME_FORMATTER.format(chainChange.changedAt())).append('\n')
+                .append("Last checked: ").append(TIME_FORMATTER.format(chainChange.lastSeen()))
+                .append(" (").append(chainChange.observations()).append(" checks)\n");
+            List<String> chain = chainChange.entry().chainFingerprints();
+            if (!chain.isEmpty()) {
+                details.append("Leaf SHA-256: ").append(chain.get(0)).append('\n');
+            }
+            if (!chainChange.previousChain().isEmpty()) {
+                details.append("Previous leaf: ").append(chainChange.previousChain().get(0)).append('\n');
+            }
+        }
+        details.append('\n');
+        if (anchors.isEmpty()) {
+            details.append("No alias has anchored ").append(host).append(" yet.\n");
+        } else {
+            details.append("Aliases that anchored ").append(host).append(":\n");
+            for (AnchorSighting anchor : anchors) {
+                details.append("- ").append(anchor.alias())
+                    .append(" (last ").append(TIME_FORMATTER.format(anchor.lastSeen()))
+                    .append(", ").append(anchor.count()).append("x)\n");
+            }
+        }
+        return details.toString();
     }
 
     private static Integer parsePort(String host, String portText, Label resultLabel) {
@@ -217,6 +417,131 @@ public final class TlsCheckDialog {
         }
     }
 
+    private static void showProbeMatrix(MultiWindowTextGUI gui, ProtocolProbeMatrix matrix) {
+        StringBuilder text = new StringBuilder();
+        text.append("Protocol probe for ").append(matrix.host()).append(':').append(matrix.port()).append('\n');
+        if (matrix.error() != null) {
+            text.append(matrix.error()).append('\n');
+        } else {
+            text.append('\n').append(String.format("%-9s", ""));
+            for (String group : matrix.cipherGroups()) {
+                text.append(String.format("%-13s", group));
+            }
+            text.append('\n');
+            for (String protocol : matrix.protocols()) {
+                text.append(String.format("%-9s", protocol));
+                for (String group : matrix.cipherGroups()) {
+                    ProtocolProbeResult cell = matrix.cell(protocol, group);
+                    text.append(String.format("%-13s", cell == null ? "-" : cell.status().shortLabel()));
+                }
+                text.append('\n');
+            }
+            text.append("\nOK accepted, OK* accepted but chain untrusted, no rejected by server,\n")
+                .append("n/s not enabled in this JVM, err network error, - not applicable\n");
+            for (ProtocolProbeResult result : matrix.results()) {
+                if (result.negotiatedCipherSuite() != null) {
+                    text.append('\n').append(result.protocol()).append(' ').append(result.cipherGroup())
+                        .append(": ").append(result.negotiatedCipherSuite());
+                } else if (result.status() == ProbeStatus.ERROR) {
+                    text.append('\n').append(result.protocol()).append(' ').append(result.cipherGroup())
+                        .append(": ").append(result.detail());
+                }
+            }
+            text.append("\n\nElapsed: ").append(matrix.elapsed().toMillis()).append(" ms\n");
+        }
+        new MessageDialogBuilder()
+            .setTitle("Protocol Probe")
+            .setText(text.toString())
+            .addButton(MessageDialogButton.OK)
+            .build()
+            .showDialog(gui);
+    }
+
+    private static void showAddressResults(
+        MultiWindowTextGUI gui,
+        String host,
+        int port,
+        List<AddressValidationResult> results
+    ) {
+        StringBuilder details = new StringBuilder();
+        details.append("Resolved addresses for ").append(host).append(':').append(port).append('\n');
+        for (AddressValidationResult entry : results) {
+            ValidationResult result = entry.result();
+            details.append('\n').append(entry.addressText()).append(": ")
+                .append(result.success() ? "OK" : "FAIL").append('\n')
+                .append("  ").append(result.message()).append('\n');
+            if (!result.peerChain().isEmpty()) {
+                ChainCertificateInfo leaf = result.peerChain().get(0);
+                details.append("  leaf=").append(leaf.subject())
+                    .append(" notAfter=").append(DATE_FORMATTER.format(leaf.notAfter())).append('\n');
+            }
+            if (!result.timings().isEmpty()) {
+                details.append("  ").append(result.timings().describe()).append('\n');
+            }
+        }
+        new MessageDialogBuilder()
+            .setTitle("TLS Result per Address")
+            .setText(details.toString())
+            .addButton(MessageDialogButton.OK)
+            .build()
+            .showDialog(gui);
+    }
+
+    private static String cacheStatus(TlsValidationService validationService) {
+        PeerChainCacheStats stats = validationService.peerChainCacheStats();
+        return " | chain cache: " + stats.hits() + " hit(s), " + stats.misses() + " miss(es)";
+    }
+
+    private static void appendTimings(StringBuilder text, ValidationResult result) {
+        if (!result.timings().isEmpty()) {
+            text.append("\nTimings: ").append(result.timings().describe()).append('\n');
+        }
+    }
+
+    private static AliasScanResult scanFreshChain(
+        TlsValidationService validationService,
+        String host,
+        int port,
+        KeyStore keyStore,
+        LoadedTruststore truststore,
+        Consumer<AliasScanProgress> progressCallback,
+        ScanCancellation cancellation
+    ) {
+        CapturedPeerChain captured;
+        try {
+            captured = validationService.capturePeerChain(host, port);
+        } catch (Exception e) {
+            return new AliasScanResult(List.of(), 0, 0, validationService.connectionFailure(e, host, port).message());
+        }
+        return validationService.findValidAliases(
+            captured,
+            keyStore,
+            truststore.anchorIndex(),
+            progressCallback,
+            cancellation
+        );
+    }
+
+    private static void appendAliasErrors(StringBuilder text, AliasScanResult scanResult) {
+        if (scanResult.aliasErrors().isEmpty()) {
+            return;
+        }
+        text.append("Alias errors:\n");
+        for (Map.Entry<String, String> error : scanResult.aliasErrors().entrySet()) {
+            text.append("  ").append(error.getKey()).append(": ").append(error.getValue()).append('\n');
+        }
+    }
+
+    private static void appendLatency(StringBuilder text, AliasScanResult scanResult) {
+        if (scanResult.latency().isEmpty()) {
+            return;
+        }
+        text.append("Latency:\n");
+        for (String line : scanResult.latency().describe()) {
+            text.append("  ").append(line).append('\n');
+        }
+    }
+
     private static void showProgress(Label resultLabel, AliasScanProgress progress) {
         resultLabel.setText(
             "Checking aliases: " + progress.checkedAliases() + "/" + progress.totalAliases()
@@ -241,8 +566,9 @@ public final class TlsCheckDialog {
         MultiWindowTextGUI gui,
         AliasScanResult scanResult,
         Map<String, CertificateInfo> aliasDetails,
-        KeyStore keyStore,
-        TlsValidationService validationService
+        LoadedTruststore truststore,
+        TlsValidationService validationService,
+        ScanHistory history
     ) {
         if (scanResult.validAliases().isEmpty()) {
             MessageDialog.showMessageDialog(gui, "Matching aliases", "No valid aliases found.", MessageDialogButton.OK);
@@ -259,12 +585,12 @@ public final class TlsCheckDialog {
             table.setSelectedRow(0);
         }
         table.setSelectAction(() -> openAliasDetailsFromSelection(
-            gui, table, scanResult, aliasDetails, keyStore, validationService
+            gui, table, scanResult, aliasDetails, truststore, validationService, history
         ));
 
         Panel actions = new Panel(new LinearLayout(Direction.HORIZONTAL));
         actions.addComponent(new Button("View details", () -> {
-            openAliasDetailsFromSelection(gui, table, scanResult, aliasDetails, keyStore, validationService);
+            openAliasDetailsFromSelection(gui, table, scanResult, aliasDetails, truststore, validationService, history);
         }));
         actions.addComponent(new Button("Close", dialog::close));
 
@@ -283,8 +609,9 @@ public final class TlsCheckDialog {
         int port,
         AliasScanResult scanResult,
         Map<String, CertificateInfo> aliasDetails,
-        KeyStore keyStore,
-        TlsValidationService validationService
+        LoadedTruststore truststore,
+        TlsValidationService validationService,
+        ScanHistory history
     ) {
         BasicWindow dialog = ModalWindows.escClosable("TLS Result");
         dialog.setHints(java.util.List.of(Window.Hint.MODAL));
@@ -302,6 +629,7 @@ public final class TlsCheckDialog {
                     .append("   notAfter=").append(DATE_FORMATTER.format(cert.notAfter())).append('\n');
             }
         }
+        appendTimings(summary, result);
         summary.append("\nMatching certificates for ").append(host).append(':').append(port).append('\n');
         summary.append("Checked: ").append(scanResult.checkedAliases()).append('\n');
         summary.append("Valid: ").append(scanResult.validAliases().size()).append('\n');
@@ -309,6 +637,8 @@ public final class TlsCheckDialog {
         if (scanResult.error() != null && !scanResult.error().isBlank()) {
             summary.append("Error: ").append(scanResult.error()).append('\n');
         }
+        appendAliasErrors(summary, scanResult);
+        appendLatency(summary, scanResult);
 
         Panel root = new Panel(new LinearLayout(Direction.VERTICAL));
         root.addComponent(new Label(summary.toString()).withBorder(Borders.singleLine("Summary")));
@@ -328,12 +658,12 @@ public final class TlsCheckDialog {
         }
         table.setSelectedRow(0);
         table.setSelectAction(() -> openAliasDetailsFromSelection(
-            gui, table, scanResult, aliasDetails, keyStore, validationService
+            gui, table, scanResult, aliasDetails, truststore, validationService, history
         ));
 
         Panel actions = new Panel(new LinearLayout(Direction.HORIZONTAL));
         actions.addComponent(new Button("View details", () -> openAliasDetailsFromSelection(
-            gui, table, scanResult, aliasDetails, keyStore, validationService
+            gui, table, scanResult, aliasDetails, truststore, validationService, history
         )));
         actions.addComponent(new Button("Close", dialog::close));
 
@@ -350,8 +680,9 @@ public final class TlsCheckDialog {
         String certificatePath,
         AliasScanResult scanResult,
         Map<String, CertificateInfo> aliasDetails,
-        KeyStore keyStore,
-        TlsValidationService validationService
+        LoadedTruststore truststore,
+        TlsValidationService validationService,
+        ScanHistory history
     ) {
         BasicWindow dialog = ModalWindows.escClosable("Certificate File Result");
         dialog.setHints(java.util.List.of(Window.Hint.MODAL));
@@ -362,6 +693,7 @@ public final class TlsCheckDialog {
         if (certificatePath != null && !certificatePath.isBlank()) {
             summary.append("File: ").append(certificatePath).append('\n');
         }
+        appendTimings(summary, result);
         summary.append("\nMatching certificates for file:\n");
         summary.append("Checked: ").append(scanResult.checkedAliases()).append('\n');
         summary.append("Valid: ").append(scanResult.validAliases().size()).append('\n');
@@ -369,6 +701,8 @@ public final class TlsCheckDialog {
         if (scanResult.error() != null && !scanResult.error().isBlank()) {
             summary.append("Error: ").append(scanResult.error()).append('\n');
         }
+        appendAliasErrors(summary, scanResult);
+        appendLatency(summary, scanResult);
 
         Panel root = new Panel(new LinearLayout(Direction.VERTICAL));
         root.addComponent(new Label(summary.toString()).withBorder(Borders.singleLine("Summary")));
@@ -388,12 +722,12 @@ public final class TlsCheckDialog {
         }
         table.setSelectedRow(0);
         table.setSelectAction(() -> openAliasDetailsFromSelection(
-            gui, table, scanResult, aliasDetails, keyStore, validationService
+            gui, table, scanResult, aliasDetails, truststore, validationService, history
         ));
 
         Panel actions = new Panel(new LinearLayout(Direction.HORIZONTAL));
         actions.addComponent(new Button("View details", () -> openAliasDetailsFromSelection(
-            gui, table, scanResult, aliasDetails, keyStore, validationService
+            gui, table, scanResult, aliasDetails, truststore, validationService, history
         )));
         actions.addComponent(new Button("Close", dialog::close));
 
@@ -409,8 +743,9 @@ public final class TlsCheckDialog {
         Table<String> table,
         AliasScanResult scanResult,
         Map<String, CertificateInfo> aliasDetails,
-        KeyStore keyStore,
-        TlsValidationService validationService
+        LoadedTruststore truststore,
+        TlsValidationService validationService,
+        ScanHistory history
     ) {
         int row = table.getSelectedRow();
         if (row < 0 || row >= scanResult.validAliases().size()) {
@@ -427,7 +762,7 @@ public final class TlsCheckDialog {
             );
             return;
         }
-        CertificateDetailsDialog.show(gui, cert, () -> showSingleAlias(gui, keyStore, alias, validationService));
+        CertificateDetailsDialog.show(gui, cert, () -> showSingleAlias(gui, truststore, alias, validationService, history));
     }
 
     private static void showDetails(
@@ -450,6 +785,7 @@ public final class TlsCheckDialog {
                     .append("   notAfter=").append(DATE_FORMATTER.format(cert.notAfter())).append('\n');
             }
         }
+        appendTimings(details, result);
         if (scanResult != null) {
             details.append("\nMatching certificates for ").append(host).append(':').append(port).append('\n');
             details.append("Checked: ").append(scanResult.checkedAliases()).append('\n');
@@ -458,6 +794,8 @@ public final class TlsCheckDialog {
             if (scanResult.error() != null && !scanResult.error().isBlank()) {
                 details.append("Error: ").append(scanResult.error()).append('\n');
             }
+            appendAliasErrors(details, scanResult);
+            appendLatency(details, scanResult);
             if (scanResult.validAliases().isEmpty()) {
                 details.append("No aliases validated successfully.\n");
             } else {
@@ -497,6 +835,7 @@ public final class TlsCheckDialog {
                     .append("   notAfter=").append(DATE_FORMATTER.format(cert.notAfter())).append('\n');
             }
         }
+        appendTimings(details, result);
         new MessageDialogBuilder()
             .setTitle("Certificate File Validation")
             .setText(details.toString())
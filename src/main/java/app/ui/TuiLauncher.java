@@ -0,0 +1,56 @@
+package app.ui;
+
+import app.history.ScanHistory;
+import app.tls.TlsValidationService;
+import app.truststore.CertificateViewService;
+import app.truststore.TruststoreLoader;
+import com.googlecode.lanterna.TerminalSize;
+import com.googlecode.lanterna.gui2.BasicWindow;
+import com.googlecode.lanterna.gui2.MultiWindowTextGUI;
+import com.googlecode.lanterna.input.KeyStroke;
+import com.googlecode.lanterna.screen.Screen;
+import com.googlecode.lanterna.terminal.DefaultTerminalFactory;
+import java.io.IOException;
+
+public final class TuiLauncher {
+    private TuiLauncher() {
+    }
+
+    public static void run(
+        TlsValidationService tlsValidationService,
+        TruststoreLoader truststoreLoader,
+        ScanHistory history
+    ) throws IOException {
+        DefaultTerminalFactory terminalFactory = new DefaultTerminalFactory();
+        terminalFactory.setInitialTerminalSize(new TerminalSize(140, 42));
+
+        Screen screen = terminalFactory.createScreen();
+        screen.startScreen();
+
+        MultiWindowTextGUI gui = new MultiWindowTextGUI(screen);
+        final MainScreen[] mainScreenRef = new MainScreen[1];
+        BasicWindow window = new BasicWindow("Truststore TUI") {
+            @Override
+            public boolean handleInput(KeyStroke keyStroke) {
+                if (mainScreenRef[0] != null && mainScreenRef[0].handleGlobalKey(keyStroke)) {
+                    return true;
+                }
+                return super.handleInput(keyStroke);
+            }
+        };
+
+        MainScreen mainScreen = new MainScreen(
+            gui,
+            window,
+            truststoreLoader,
+            new CertificateViewService(),
+            tlsValidationService,
+            history
+        );
+        mainScreenRef[0] = mainScreen;
+
+        window.setComponent(mainScreen.create());
+        gui.addWindowAndWait(window);
+        screen.stopScreen();
+    }
+}
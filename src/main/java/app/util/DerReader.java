@@ -0,0 +1,82 @@
+package app.util;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+public final class DerReader {
+    public static final int TAG_OCTET_STRING = 0x04;
+    public static final int TAG_SEQUENCE = 0x30;
+
+    private final byte[] data;
+    private final int end;
+    private int position;
+
+    public DerReader(byte[] data) {
+        this(data, 0, data.length);
+    }
+
+    private DerReader(byte[] data, int offset, int length) {
+        this.data = data;
+        this.position = offset;
+        this.end = offset + length;
+    }
+
+    public boolean hasMore() {
+        return position < end;
+    }
+
+    public Element next() throws IOException {
+        if (position + 2 > end) {
+            throw new IOException("Truncated DER element");
+        }
+        int tag = data[position++] & 0xFF;
+        if ((tag & 0x1F) == 0x1F) {
+            throw new IOException("Multi-byte DER tags are not supported");
+        }
+        int length = data[position++] & 0xFF;
+        if ((length & 0x80) != 0) {
+            int lengthBytes = length & 0x7F;
+            if (lengthBytes == 0 || lengthBytes > 4 || position + lengthBytes > end) {
+                throw new IOException("Unsupported DER length encoding");
+            }
+            length = 0;
+            for (int i = 0; i < lengthBytes; i++) {
+                length = (length << 8) | (data[position++] & 0xFF);
+            }
+            if (length < 0) {
+                throw new IOException("DER length overflow");
+            }
+        }
+        if (length > end - position) {
+            throw new IOException("DER element exceeds enclosing data");
+        }
+        Element element = new Element(tag, data, position, length);
+        position += length;
+        return element;
+    }
+
+    public Element next(int expectedTag) throws IOException {
+        Element element = next();
+        if (element.tag() != expectedTag) {
+            throw new IOException(
+                "Unexpected DER tag 0x" + Integer.toHexString(element.tag())
+                    + ", expected 0x" + Integer.toHexString(expectedTag)
+            );
+        }
+        return element;
+    }
+
+    public record Element(int tag, byte[] source, int offset, int length) {
+        public byte[] content() {
+            return Arrays.copyOfRange(source, offset, offset + length);
+        }
+
+        public DerReader reader() {
+            return new DerReader(source, offset, length);
+        }
+
+        public boolean isContextSpecific(int number) {
+            return (tag & 0xC0) == 0x80 && (tag & 0x1F) == number;
+        }
+    }
+}
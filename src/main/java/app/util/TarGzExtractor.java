@@ -1,41 +1,62 @@
 package app.util;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
 import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
 
 public final class TarGzExtractor {
+    private static final String SINGLE_FILE_REQUIRED = "tar.gz must contain exactly one file";
+
     private TarGzExtractor() {
     }
 
-    public static byte[] extractSingleFile(byte[] tarGzBytes) throws IOException {
-        try (
-            ByteArrayInputStream bais = new ByteArrayInputStream(tarGzBytes);
-            GzipCompressorInputStream gzipIn = new GzipCompressorInputStream(bais);
-            TarArchiveInputStream tarIn = new TarArchiveInputStream(gzipIn)
-        ) {
-            TarArchiveEntry entry;
-            int fileCount = 0;
-            byte[] extracted = null;
-            while ((entry = tarIn.getNextTarEntry()) != null) {
-                if (entry.isDirectory()) {
-                    continue;
-                }
-                fileCount++;
-                if (fileCount > 1) {
-                    throw new IOException("tar.gz must contain exactly one file");
-                }
-                ByteArrayOutputStream out = new ByteArrayOutputStream();
-                tarIn.transferTo(out);
-                extracted = out.toByteArray();
+    // Streams the only file of the archive; closing the stream fails if the archive holds another file.
+    public static InputStream openSingleFile(InputStream tarGz) throws IOException {
+        TarArchiveInputStream tarIn = new TarArchiveInputStream(
+            new GzipCompressorInputStream(new BufferedInputStream(tarGz))
+        );
+        try {
+            if (nextFile(tarIn) == null) {
+                throw new IOException(SINGLE_FILE_REQUIRED);
+            }
+            return new SingleEntryStream(tarIn);
+        } catch (IOException | RuntimeException e) {
+            tarIn.close();
+            throw e;
+        }
+    }
+
+    private static TarArchiveEntry nextFile(TarArchiveInputStream tarIn) throws IOException {
+        TarArchiveEntry entry;
+        while ((entry = tarIn.getNextTarEntry()) != null) {
+            if (!entry.isDirectory()) {
+                return entry;
             }
-            if (fileCount != 1 || extracted == null) {
-                throw new IOException("tar.gz must contain exactly one file");
+        }
+        return null;
+    }
+
+    private static final class SingleEntryStream extends FilterInputStream {
+        private final TarArchiveInputStream tarIn;
+
+        private SingleEntryStream(TarArchiveInputStream tarIn) {
+            super(tarIn);
+            this.tarIn = tarIn;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                if (nextFile(tarIn) != null) {
+                    throw new IOException(SINGLE_FILE_REQUIRED);
+                }
+            } finally {
+                super.close();
             }
-            return extracted;
         }
     }
 }
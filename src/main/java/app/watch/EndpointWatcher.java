@@ -0,0 +1,243 @@
+package app.watch;
+
+import app.batch.EndpointTarget;
+import app.tls.CapturedPeerChain;
+import app.tls.TlsValidationService;
+import app.tls.ValidationResult;
+import app.util.TimerWheel;
+import java.security.KeyStore;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+public final class EndpointWatcher implements AutoCloseable {
+    private static final Duration TICK = Duration.ofMillis(100);
+    private static final int WHEEL_SIZE = 512;
+
+    private final TlsValidationService validationService;
+    private final KeyStore sourceStore;
+    private final String alias;
+    private final WatchSettings settings;
+    private final Consumer<WatchEvent> listener;
+    private final ExecutorService checkExecutor;
+    private final TimerWheel timerWheel;
+    private final AtomicLong checks = new AtomicLong();
+    private final AtomicLong skippedEvaluations = new AtomicLong();
+    private volatile boolean closed;
+
+    public EndpointWatcher(
+        TlsValidationService validationService,
+        KeyStore sourceStore,
+        String alias,
+        WatchSettings settings,
+        Consumer<WatchEvent> listener
+    ) {
+        this.validationService = validationService;
+        this.sourceStore = sourceStore;
+        this.alias = alias;
+        this.settings = settings;
+        this.listener = listener;
+        this.checkExecutor = Executors.newFixedThreadPool(settings.concurrency(), new WatchThreadFactory());
+        this.timerWheel = new TimerWheel(TICK, WHEEL_SIZE, checkExecutor, "watch-timer");
+    }
+
+    public void start(List<EndpointTarget> targets) {
+        for (EndpointTarget target : targets) {
+            EndpointState state = new EndpointState(target);
+            // Spread first checks over one interval so a large list does not fire at once.
+            long initialDelay = ThreadLocalRandom.current().nextLong(Math.max(1, settings.interval().toMillis()));
+            timerWheel.schedule(Duration.ofMillis(initialDelay), () -> check(state));
+        }
+    }
+
+    public long checks() {
+        return checks.get();
+    }
+
+    public long skippedEvaluations() {
+        return skippedEvaluations.get();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        timerWheel.close();
+        checkExecutor.shutdownNow();
+    }
+
+    private void check(EndpointState state) {
+        if (closed) {
+            return;
+        }
+        try {
+            observe(state);
+        } catch (RuntimeException e) {
+            // Report the failed round and keep watching.
+            EndpointTarget target = state.target;
+            ValidationResult failure = validationService.connectionFailure(e, target.host(), target.port());
+            update(state, WatchStatus.UNREACHABLE, state.fingerprint, null, failure);
+        } finally {
+            if (!closed) {
+                try {
+                    timerWheel.schedule(nextDelay(), () -> check(state));
+                } catch (IllegalStateException e) {
+                    // close() stopped the timer while this round was finishing.
+                }
+            }
+        }
+    }
+
+    private void observe(EndpointState state) {
+        checks.incrementAndGet();
+        EndpointTarget target = state.target;
+        CapturedPeerChain captured;
+        try {
+            captured = validationService.capturePeerChain(target.host(), target.port());
+        } catch (Exception e) {
+            ValidationResult failure = validationService.connectionFailure(e, target.host(), target.port());
+            update(state, WatchStatus.UNREACHABLE, state.fingerprint, null, failure);
+            return;
+        }
+
+        String fingerprint = fingerprint(captured.chain());
+        ValidationResult result;
+        // A cached verdict only holds until the first certificate of the chain expires.
+        if (fingerprint.equals(state.fingerprint)
+            && state.evaluation != null
+            && Instant.now().isBefore(state.evaluationExpires)) {
+            skippedEvaluations.incrementAndGet();
+            result = state.evaluation;
+        } else {
+            result = validationService.evaluateCapturedChain(captured, sourceStore, alias);
+            state.evaluation = result;
+            state.evaluationExpires = earliestNotAfter(captured.chain());
+        }
+        WatchStatus status = result.success() ? WatchStatus.TRUSTED : WatchStatus.UNTRUSTED;
+        update(state, status, fingerprint, captured.chain().get(0), result);
+    }
+
+    private void update(
+        EndpointState state,
+        WatchStatus status,
+        String fingerprint,
+        X509Certificate leaf,
+        ValidationResult result
+    ) {
+        Instant now = Instant.now();
+        boolean first = state.status == null;
+        boolean expiring = leaf != null
+            ? leaf.getNotAfter().toInstant().isBefore(now.plus(settings.expiryThreshold()))
+            : state.expiring;
+
+        if (first) {
+            emit(state, WatchEventType.FIRST_CHECK, status, result.message(), fingerprint, result, now);
+        } else {
+            if (status != state.status) {
+                emit(state, WatchEventType.STATUS_CHANGED, status, state.status + " -> " + status, fingerprint, result, now);
+            }
+            if (fingerprint != null && state.fingerprint != null && !fingerprint.equals(state.fingerprint)) {
+                emit(
+                    state,
+                    WatchEventType.CHAIN_ROTATED,
+                    status,
+                    "leaf " + leaf.getSubjectX500Principal().getName() + ", serial " + leaf.getSerialNumber().toString(16),
+                    fingerprint,
+                    result,
+                    now
+                );
+            }
+        }
+        if (expiring && !state.expiring && leaf != null) {
+            emit(
+                state,
+                WatchEventType.EXPIRY_THRESHOLD_CROSSED,
+                status,
+                "leaf expires at " + leaf.getNotAfter().toInstant(),
+                fingerprint,
+                result,
+                now
+            );
+        }
+        state.status = status;
+        state.fingerprint = fingerprint;
+        state.expiring = expiring;
+    }
+
+    private void emit(
+        EndpointState state,
+        WatchEventType type,
+        WatchStatus status,
+        String detail,
+        String fingerprint,
+        ValidationResult result,
+        Instant at
+    ) {
+        listener.accept(new WatchEvent(at, state.target, type, status, detail, fingerprint, result));
+    }
+
+    private Duration nextDelay() {
+        long intervalMillis = settings.interval().toMillis();
+        long spread = (long) (intervalMillis * settings.jitter());
+        long offset = spread == 0 ? 0 : ThreadLocalRandom.current().nextLong(-spread, spread + 1);
+        return Duration.ofMillis(Math.max(1, intervalMillis + offset));
+    }
+
+    private static Instant earliestNotAfter(List<X509Certificate> chain) {
+        Instant earliest = Instant.MAX;
+        for (X509Certificate certificate : chain) {
+            Instant notAfter = certificate.getNotAfter().toInstant();
+            if (notAfter.isBefore(earliest)) {
+                earliest = notAfter;
+            }
+        }
+        return earliest;
+    }
+
+    private static String fingerprint(List<X509Certificate> chain) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (X509Certificate certificate : chain) {
+                digest.update(certificate.getEncoded());
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | CertificateEncodingException e) {
+            throw new IllegalStateException("Cannot fingerprint peer chain", e);
+        }
+    }
+
+    private static final class EndpointState {
+        private final EndpointTarget target;
+        private WatchStatus status;
+        private String fingerprint;
+        private ValidationResult evaluation;
+        private Instant evaluationExpires = Instant.MIN;
+        private boolean expiring;
+
+        private EndpointState(EndpointTarget target) {
+            this.target = target;
+        }
+    }
+
+    private static final class WatchThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, "watch-check-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
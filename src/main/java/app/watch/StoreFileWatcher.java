@@ -0,0 +1,101 @@
+package app.watch;
+
+import app.util.TimerWheel;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Watches the parent directory so writers that replace the file by rename are noticed too.
+public final class StoreFileWatcher implements AutoCloseable {
+    public static final Duration DEFAULT_DEBOUNCE = Duration.ofMillis(750);
+    private static final Duration TICK = Duration.ofMillis(50);
+
+    private final Path file;
+    private final Duration debounce;
+    private final Runnable onChange;
+    private final WatchService watchService;
+    private final TimerWheel debounceTimer;
+    private final AtomicLong generation = new AtomicLong();
+    private final Thread worker;
+    private volatile boolean closed;
+
+    public StoreFileWatcher(Path file, Duration debounce, Runnable onChange) throws IOException {
+        this.file = file.toAbsolutePath().normalize();
+        this.debounce = debounce;
+        this.onChange = onChange;
+        Path directory = this.file.getParent();
+        if (directory == null) {
+            throw new IllegalArgumentException("Cannot watch a file without a parent directory: " + file);
+        }
+        this.watchService = FileSystems.getDefault().newWatchService();
+        directory.register(
+            watchService,
+            StandardWatchEventKinds.ENTRY_CREATE,
+            StandardWatchEventKinds.ENTRY_MODIFY,
+            StandardWatchEventKinds.ENTRY_DELETE
+        );
+        this.debounceTimer = new TimerWheel(TICK, 64, Runnable::run, "store-watch-debounce");
+        this.worker = new Thread(this::run, "store-watch");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        debounceTimer.close();
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            // Nothing left to release.
+        }
+    }
+
+    private void run() {
+        try {
+            while (!closed) {
+                WatchKey key = watchService.take();
+                boolean touched = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                        || file.getFileName().equals(event.context())) {
+                        touched = true;
+                    }
+                }
+                key.reset();
+                if (touched) {
+                    scheduleReload();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Closed by close().
+        }
+    }
+
+    // Every event pushes the reload back by one debounce interval; only the last scheduled reload runs.
+    private void scheduleReload() {
+        long scheduled = generation.incrementAndGet();
+        try {
+            debounceTimer.schedule(debounce, () -> {
+                if (!closed && generation.get() == scheduled) {
+                    onChange.run();
+                }
+            });
+        } catch (IllegalStateException e) {
+            // The watcher was closed between the event and the schedule.
+        }
+    }
+}
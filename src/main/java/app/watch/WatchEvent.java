@@ -0,0 +1,16 @@
+package app.watch;
+
+import app.batch.EndpointTarget;
+import app.tls.ValidationResult;
+import java.time.Instant;
+
+public record WatchEvent(
+    Instant at,
+    EndpointTarget target,
+    WatchEventType type,
+    WatchStatus status,
+    String detail,
+    String fingerprint,
+    ValidationResult result
+) {
+}
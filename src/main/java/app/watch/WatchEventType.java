@@ -0,0 +1,8 @@
+package app.watch;
+
+public enum WatchEventType {
+    FIRST_CHECK,
+    STATUS_CHANGED,
+    CHAIN_ROTATED,
+    EXPIRY_THRESHOLD_CROSSED
+}
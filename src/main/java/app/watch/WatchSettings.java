@@ -0,0 +1,29 @@
+package app.watch;
+
+import java.time.Duration;
+
+public record WatchSettings(Duration interval, double jitter, Duration expiryThreshold, int concurrency) {
+    public static final Duration DEFAULT_INTERVAL = Duration.ofMinutes(5);
+    public static final double DEFAULT_JITTER = 0.1;
+    public static final Duration DEFAULT_EXPIRY_THRESHOLD = Duration.ofDays(30);
+    public static final int DEFAULT_CONCURRENCY = 16;
+
+    public WatchSettings {
+        if (interval == null || interval.isZero() || interval.isNegative()) {
+            throw new IllegalArgumentException("Watch interval must be positive: " + interval);
+        }
+        if (jitter < 0 || jitter >= 1) {
+            throw new IllegalArgumentException("Watch jitter must be in [0, 1): " + jitter);
+        }
+        if (expiryThreshold == null || expiryThreshold.isNegative()) {
+            throw new IllegalArgumentException("Expiry threshold must not be negative: " + expiryThreshold);
+        }
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Watch concurrency must be positive: " + concurrency);
+        }
+    }
+
+    public static WatchSettings defaults() {
+        return new WatchSettings(DEFAULT_INTERVAL, DEFAULT_JITTER, DEFAULT_EXPIRY_THRESHOLD, DEFAULT_CONCURRENCY);
+    }
+}
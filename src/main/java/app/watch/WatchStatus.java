@@ -0,0 +1,7 @@
+package app.watch;
+
+public enum WatchStatus {
+    TRUSTED,
+    UNTRUSTED,
+    UNREACHABLE
+}
@@ -0,0 +1,39 @@
+package app.batch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+class EndpointTargetTest {
+    @Test
+    void parsesHostWithAndWithoutPort() {
+        assertEquals(new EndpointTarget("example.com", 443), EndpointTarget.parse("example.com"));
+        assertEquals(new EndpointTarget("example.com", 8443), EndpointTarget.parse(" example.com:8443 "));
+    }
+
+    @Test
+    void parsesBracketedAndBareIpv6() {
+        assertEquals(new EndpointTarget("::1", 8443), EndpointTarget.parse("[::1]:8443"));
+        assertEquals(new EndpointTarget("::1", 443), EndpointTarget.parse("[::1]"));
+        assertEquals(new EndpointTarget("2001:db8::1", 443), EndpointTarget.parse("2001:db8::1"));
+        assertEquals("[::1]:8443", EndpointTarget.parse("[::1]:8443").toString());
+    }
+
+    @Test
+    void rejectsMalformedEndpoints() {
+        assertThrows(IllegalArgumentException.class, () -> EndpointTarget.parse(""));
+        assertThrows(IllegalArgumentException.class, () -> EndpointTarget.parse(":443"));
+        assertThrows(IllegalArgumentException.class, () -> EndpointTarget.parse("example.com:https"));
+        assertThrows(IllegalArgumentException.class, () -> EndpointTarget.parse("example.com:0"));
+        assertThrows(IllegalArgumentException.class, () -> EndpointTarget.parse("example.com:65536"));
+        assertThrows(IllegalArgumentException.class, () -> EndpointTarget.parse("[::1"));
+        assertThrows(IllegalArgumentException.class, () -> EndpointTarget.parse("[::1]443"));
+    }
+
+    @Test
+    void stripsCommentsAndWhitespace() {
+        assertEquals("example.com:443", EndpointTarget.stripComment("  example.com:443  # primary"));
+        assertEquals("", EndpointTarget.stripComment("# only a comment"));
+    }
+}
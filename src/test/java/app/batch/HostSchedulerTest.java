@@ -0,0 +1,64 @@
+package app.batch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class HostSchedulerTest {
+    @Test
+    void waitingEntriesOfABusyHostDoNotHoldGlobalSlots() throws Exception {
+        List<String> started = new ArrayList<>();
+        HostScheduler scheduler = new HostScheduler(2, 1, 100, Runnable::run);
+
+        for (int i = 0; i < 5; i++) {
+            int entry = i;
+            scheduler.submit("hot.example", () -> started.add("hot-" + entry));
+        }
+        scheduler.submit("cold.example", () -> started.add("cold"));
+
+        assertEquals(List.of("hot-0", "cold"), started);
+        assertEquals(2, scheduler.running());
+    }
+
+    @Test
+    void freedSlotsAreSharedRoundRobinAcrossHosts() throws Exception {
+        List<String> started = new ArrayList<>();
+        HostScheduler scheduler = new HostScheduler(1, 1, 100, Runnable::run);
+
+        scheduler.submit("a.example", () -> started.add("a1"));
+        scheduler.submit("a.example", () -> started.add("a2"));
+        scheduler.submit("b.example", () -> started.add("b1"));
+        scheduler.finished("a.example");
+        scheduler.finished("b.example");
+        scheduler.finished("a.example");
+
+        assertEquals(List.of("a1", "b1", "a2"), started);
+        assertEquals(0, scheduler.running());
+    }
+
+    @Test
+    void hostNamesAreCaseInsensitive() throws Exception {
+        List<String> started = new ArrayList<>();
+        HostScheduler scheduler = new HostScheduler(4, 1, 100, Runnable::run);
+
+        scheduler.submit("Example.COM", () -> started.add("first"));
+        scheduler.submit("example.com", () -> started.add("second"));
+
+        assertEquals(List.of("first"), started);
+    }
+
+    @Test
+    void awaitIdleReturnsOnceEveryEntryFinished() throws Exception {
+        HostScheduler scheduler = new HostScheduler(2, 2, 100, task -> new Thread(task).start());
+
+        for (int i = 0; i < 6; i++) {
+            String host = "host-" + (i % 3);
+            scheduler.submit(host, () -> scheduler.finished(host));
+        }
+        scheduler.awaitIdle();
+
+        assertEquals(0, scheduler.running());
+    }
+}
@@ -0,0 +1,38 @@
+package app.cli;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import app.tls.TlsValidationService;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+class CliApplicationTest {
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+    private final CliApplication application = new CliApplication(
+        new TlsValidationService(),
+        new PrintStream(out, true, StandardCharsets.UTF_8),
+        new PrintStream(err, true, StandardCharsets.UTF_8)
+    );
+
+    @Test
+    void unknownCommandIsAUsageError() {
+        assertEquals(CliApplication.EXIT_USAGE, application.run(new String[] {"frobnicate"}));
+        assertTrue(err.toString(StandardCharsets.UTF_8).contains("Unknown command: frobnicate"));
+    }
+
+    @Test
+    void historyCommandExplainsHowToEnableHistory() {
+        assertEquals(CliApplication.EXIT_USAGE, application.run(new String[] {"history", "--host", "example.com"}));
+        assertTrue(err.toString(StandardCharsets.UTF_8).contains("TRUSTSTORE_HISTORY_DIR"));
+    }
+
+    @Test
+    void helpPrintsUsage() {
+        assertEquals(CliApplication.EXIT_OK, application.run(new String[] {"--help"}));
+        assertTrue(out.toString(StandardCharsets.UTF_8).startsWith("Usage:"));
+    }
+}
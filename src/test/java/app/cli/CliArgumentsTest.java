@@ -0,0 +1,45 @@
+package app.cli;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class CliArgumentsTest {
+    private static final Set<String> OPTIONS = Set.of("host", "port", "mode");
+
+    @Test
+    void parsesCommandSeparateAndInlineValuesAndFlags() {
+        CliArguments arguments = CliArguments.parse(
+            new String[] {"check", "--host", "example.com", "--port=8443", "--certificate-only"},
+            OPTIONS
+        );
+
+        assertEquals("check", arguments.command());
+        assertEquals("example.com", arguments.required("host"));
+        assertEquals(8443, arguments.intOption("port", 443));
+        assertTrue(arguments.has("certificate-only"));
+        assertFalse(arguments.has("all-addresses"));
+        assertNull(arguments.option("mode"));
+        assertEquals("single", arguments.option("mode", "single"));
+    }
+
+    @Test
+    void rejectsUnknownOptionsMissingValuesAndExtraArguments() {
+        assertThrows(IllegalArgumentException.class, () -> CliArguments.parse(new String[] {"--nope"}, OPTIONS));
+        assertThrows(IllegalArgumentException.class, () -> CliArguments.parse(new String[] {"check", "--host"}, OPTIONS));
+        assertThrows(IllegalArgumentException.class, () -> CliArguments.parse(new String[] {"check", "scan"}, OPTIONS));
+    }
+
+    @Test
+    void reportsMissingRequiredAndNonNumericOptions() {
+        CliArguments arguments = CliArguments.parse(new String[] {"check", "--host=", "--port", "x"}, OPTIONS);
+
+        assertThrows(IllegalArgumentException.class, () -> arguments.required("host"));
+        assertThrows(IllegalArgumentException.class, () -> arguments.intOption("port", 443));
+    }
+}
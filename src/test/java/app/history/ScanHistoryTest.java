@@ -0,0 +1,77 @@
+package app.history;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ScanHistoryTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void tornTailIsTruncatedBeforeTheNextAppend() throws IOException {
+        try (ScanHistory history = new ScanHistory(directory)) {
+            history.record(entry("aa", "first"));
+        }
+        Path segment = directory.resolve("history-000001.seg");
+        long intact = Files.size(segment);
+        // A writer that died mid-record leaves a header promising more bytes than were written.
+        Files.write(segment, new byte[] {0, 0, 0, 64, 1, 2, 3, 4, 5}, StandardOpenOption.APPEND);
+
+        try (ScanHistory history = new ScanHistory(directory)) {
+            history.record(entry("bb", "second"));
+        }
+        Files.delete(directory.resolve("history.idx"));
+
+        try (ScanHistory history = new ScanHistory(directory)) {
+            Optional<ChainChange> change = history.lastChainChange("example.com", 443);
+            assertTrue(change.isPresent());
+            assertEquals("second", change.get().entry().message());
+            assertEquals(List.of("aa"), change.get().previousChain());
+            assertEquals(2, change.get().observations());
+        }
+        assertTrue(Files.size(segment) > intact);
+    }
+
+    @Test
+    void readersStopAtATornTailWithoutRepairingIt() throws IOException {
+        try (ScanHistory history = new ScanHistory(directory)) {
+            history.record(entry("aa", "first"));
+        }
+        Files.delete(directory.resolve("history.idx"));
+        Path segment = directory.resolve("history-000001.seg");
+        Files.write(segment, new byte[] {0, 0, 0, 64, 1, 2, 3, 4, 5}, StandardOpenOption.APPEND);
+        long torn = Files.size(segment);
+
+        try (ScanHistory history = new ScanHistory(directory)) {
+            Optional<ChainChange> change = history.lastChainChange("example.com", 443);
+            assertTrue(change.isPresent());
+            assertEquals("first", change.get().entry().message());
+        }
+        assertEquals(torn, Files.size(segment));
+    }
+
+    private static HistoryEntry entry(String fingerprint, String message) {
+        return new HistoryEntry(
+            Instant.now(),
+            HistoryKind.VALIDATION,
+            "example.com",
+            443,
+            "digest",
+            true,
+            message,
+            "root",
+            List.of(fingerprint),
+            List.of("root")
+        );
+    }
+}
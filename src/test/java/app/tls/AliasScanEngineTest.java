@@ -0,0 +1,95 @@
+package app.tls;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import app.truststore.TestCertificates;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class AliasScanEngineTest {
+    @Test
+    void reportsAliasCheckExceptionsSeparatelyFromUntrustedAliases() {
+        AliasScanEngine engine = new AliasScanEngine(2);
+
+        AliasScanResult result = engine.scan(
+            List.of("good", "untrusted", "broken"),
+            alias -> switch (alias) {
+                case "good" -> new ValidationResult(true, "ok", List.of());
+                case "untrusted" -> new ValidationResult(false, "not trusted", List.of());
+                default -> throw new IllegalStateException("boom");
+            },
+            null,
+            new ScanCancellation()
+        );
+
+        assertNull(result.error());
+        assertEquals(List.of("good"), result.validAliases());
+        assertEquals(3, result.checkedAliases());
+        assertEquals(2, result.failedAliases());
+        assertEquals(1, result.aliasErrors().size());
+        assertTrue(result.aliasErrors().get("broken").contains("boom"));
+    }
+
+    @Test
+    void cancellationRunsRegisteredAbortsAndStopsTheScan() throws Exception {
+        AliasScanEngine engine = new AliasScanEngine(1);
+        ScanCancellation cancellation = new ScanCancellation();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch aborted = new CountDownLatch(1);
+
+        Thread canceller = new Thread(() -> {
+            try {
+                started.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            cancellation.cancel();
+        });
+        canceller.start();
+
+        AliasScanResult result = engine.scan(
+            List.of("slow", "never"),
+            alias -> {
+                // Stands in for a blocking socket read that only a close can release.
+                Runnable abort = aborted::countDown;
+                cancellation.onCancel(abort);
+                try {
+                    started.countDown();
+                    aborted.await(5, TimeUnit.SECONDS);
+                    return new ValidationResult(false, "aborted", List.of());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return new ValidationResult(false, "interrupted", List.of());
+                } finally {
+                    cancellation.removeOnCancel(abort);
+                }
+            },
+            null,
+            cancellation
+        );
+        canceller.join();
+
+        assertEquals(0, aborted.getCount());
+        assertEquals("Alias scan cancelled", result.error());
+        assertTrue(result.checkedAliases() <= 1);
+    }
+
+    @Test
+    void keepsThePeerChainSeenByTheAliasChecks() {
+        AliasScanEngine engine = new AliasScanEngine(2);
+        List<ChainCertificateInfo> chain = List.of(ChainCertificateInfo.of(TestCertificates.leaf()));
+
+        AliasScanResult result = engine.scan(
+            List.of("a", "b"),
+            alias -> new ValidationResult(false, "not trusted", chain),
+            null,
+            new ScanCancellation()
+        );
+
+        assertEquals(chain, result.peerChain());
+    }
+}
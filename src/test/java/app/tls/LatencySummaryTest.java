@@ -0,0 +1,43 @@
+package app.tls;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class LatencySummaryTest {
+    @Test
+    void nearestRankPercentilesOverUnsortedSamples() {
+        List<Duration> samples = new ArrayList<>();
+        for (int millis = 100; millis >= 1; millis--) {
+            samples.add(Duration.ofMillis(millis));
+        }
+
+        LatencySummary summary = LatencySummary.of(samples);
+
+        assertEquals(100, summary.samples());
+        assertEquals(Duration.ofMillis(50), summary.p50());
+        assertEquals(Duration.ofMillis(95), summary.p95());
+        assertEquals(Duration.ofMillis(100), summary.max());
+        assertEquals("p50 50.0 ms / p95 95.0 ms / max 100.0 ms (n=100)", summary.describe());
+    }
+
+    @Test
+    void missingPhasesAreIgnored() {
+        LatencySummary summary = LatencySummary.of(Arrays.asList(null, Duration.ofMillis(3), null));
+
+        assertEquals(1, summary.samples());
+        assertEquals(Duration.ofMillis(3), summary.p50());
+        assertEquals(Duration.ofMillis(3), summary.p95());
+    }
+
+    @Test
+    void noSamplesIsEmpty() {
+        assertTrue(LatencySummary.of(List.of()).isEmpty());
+        assertEquals("n/a", LatencySummary.EMPTY.describe());
+    }
+}
@@ -0,0 +1,81 @@
+package app.tls;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.security.KeyStore;
+import java.security.cert.X509Certificate;
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLServerSocket;
+import javax.net.ssl.SSLSocket;
+
+// A loopback TLS server presenting the self-signed localhost certificate from tls/server.p12.
+final class LocalTlsServer implements AutoCloseable {
+    private static final char[] PASSWORD = "changeit".toCharArray();
+
+    private final KeyStore keyStore;
+    private final SSLServerSocket serverSocket;
+    private final Thread acceptor;
+    private final long responseDelayMillis;
+
+    LocalTlsServer() throws Exception {
+        this(0);
+    }
+
+    // The delay holds back the server's first flight, so callers can attach stages before completion.
+    LocalTlsServer(long responseDelayMillis) throws Exception {
+        this.responseDelayMillis = responseDelayMillis;
+        keyStore = KeyStore.getInstance("PKCS12");
+        try (InputStream in = LocalTlsServer.class.getResourceAsStream("/tls/server.p12")) {
+            keyStore.load(in, PASSWORD);
+        }
+        KeyManagerFactory keyManagers = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        keyManagers.init(keyStore, PASSWORD);
+        SSLContext context = SSLContext.getInstance("TLS");
+        context.init(keyManagers.getKeyManagers(), null, null);
+        serverSocket = (SSLServerSocket) context.getServerSocketFactory()
+            .createServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        acceptor = new Thread(this::acceptLoop, "local-tls-server");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    InetAddress address() {
+        return serverSocket.getInetAddress();
+    }
+
+    X509Certificate certificate() throws Exception {
+        return (X509Certificate) keyStore.getCertificate("server");
+    }
+
+    // A store that trusts the server certificate under the alias "server".
+    KeyStore trustStore() throws Exception {
+        KeyStore trustStore = KeyStore.getInstance("PKCS12");
+        trustStore.load(null, null);
+        trustStore.setCertificateEntry("server", certificate());
+        return trustStore;
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try (SSLSocket socket = (SSLSocket) serverSocket.accept()) {
+                Thread.sleep(responseDelayMillis);
+                socket.startHandshake();
+            } catch (IOException e) {
+                // Clients may abort the handshake on purpose; keep serving.
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+}
@@ -0,0 +1,39 @@
+package app.tls;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManagerFactory;
+import org.junit.jupiter.api.Test;
+
+class NioHandshakeEngineTest {
+    @Test
+    void dependentStagesDoNotRunOnTheSelectorThread() throws Exception {
+        try (LocalTlsServer server = new LocalTlsServer(200);
+             NioHandshakeEngine engine = new NioHandshakeEngine(1, 5000, 5000, new DnsCache(Duration.ZERO))) {
+            TrustManagerFactory trustManagers = TrustManagerFactory.getInstance(
+                TrustManagerFactory.getDefaultAlgorithm()
+            );
+            trustManagers.init(server.trustStore());
+            SSLContext context = SSLContext.getInstance("TLS");
+            context.init(null, trustManagers.getTrustManagers(), null);
+
+            CompletableFuture<X509Certificate[]> handshake = engine.handshake(
+                "localhost",
+                server.address(),
+                server.port(),
+                context,
+                new PhaseClock()
+            );
+            CompletableFuture<String> completingThread = handshake.thenApply(chain -> Thread.currentThread().getName());
+
+            assertEquals(server.certificate(), handshake.get(10, TimeUnit.SECONDS)[0]);
+            assertFalse(completingThread.get(10, TimeUnit.SECONDS).startsWith("nio-handshake-selector"));
+        }
+    }
+}
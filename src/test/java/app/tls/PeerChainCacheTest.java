@@ -0,0 +1,47 @@
+package app.tls;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class PeerChainCacheTest {
+    @Test
+    void hostIsMatchedCaseInsensitively() {
+        PeerChainCache cache = new PeerChainCache(Duration.ofMinutes(1));
+        CapturedPeerChain chain = new CapturedPeerChain("Example.COM", 443, List.of(), "RSA");
+        cache.put(chain);
+
+        PeerChainCache.Hit hit = cache.lookup(" example.com ", 443);
+
+        assertNotNull(hit);
+        assertSame(chain, hit.chain());
+        assertNull(cache.lookup("example.com", 8443));
+    }
+
+    @Test
+    void zeroTtlDisablesCaching() {
+        PeerChainCache cache = new PeerChainCache(Duration.ZERO);
+        cache.put(new CapturedPeerChain("example.com", 443, List.of(), "RSA"));
+
+        assertNull(cache.lookup("example.com", 443));
+        assertEquals(0, cache.stats().entries());
+    }
+
+    @Test
+    void invalidateDropsEveryEndpoint() {
+        PeerChainCache cache = new PeerChainCache(Duration.ofMinutes(1));
+        cache.put(new CapturedPeerChain("a.example", 443, List.of(), "RSA"));
+        cache.put(new CapturedPeerChain("b.example", 443, List.of(), "RSA"));
+
+        cache.invalidate();
+
+        assertNull(cache.lookup("a.example", 443));
+        assertNull(cache.lookup("b.example", 443));
+        assertEquals(2, cache.stats().misses());
+    }
+}
@@ -0,0 +1,72 @@
+package app.tls;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import app.truststore.TestCertificates;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class TlsValidationServiceTest {
+    @Test
+    void asyncChecksRunOnTheNioEngineUntilTheServiceIsClosed() throws Exception {
+        try (LocalTlsServer server = new LocalTlsServer()) {
+            TlsValidationService service = new TlsValidationService();
+
+            ValidationResult trusted = service.validateAsync("localhost", server.port(), server.trustStore(), null)
+                .get(10, TimeUnit.SECONDS);
+            service.close();
+            ValidationResult closed = service.validateAsync("localhost", server.port(), server.trustStore(), null)
+                .get(10, TimeUnit.SECONDS);
+
+            assertTrue(trusted.success(), trusted.message());
+            assertFalse(closed.success());
+            assertTrue(closed.message().contains("closed"), closed.message());
+        }
+    }
+
+    @Test
+    void certificateOnlyModeEvaluatesTheCapturedChainAgainstTheStore() throws Exception {
+        try (LocalTlsServer server = new LocalTlsServer(); TlsValidationService service = new TlsValidationService()) {
+            ValidationResult trusted = service.validate(
+                "localhost",
+                server.port(),
+                server.trustStore(),
+                "server",
+                HandshakeMode.CERTIFICATE_ONLY
+            );
+            ValidationResult untrusted = service.validate(
+                "localhost",
+                server.port(),
+                TestCertificates.store("PKCS12", "unrelated", TestCertificates.unrelated()),
+                null,
+                HandshakeMode.CERTIFICATE_ONLY
+            );
+
+            assertTrue(trusted.success(), trusted.message());
+            assertTrue(trusted.message().contains("certificate-only handshake"), trusted.message());
+            assertFalse(untrusted.success());
+            assertEquals(1, untrusted.peerChain().size());
+            assertEquals(ChainCertificateInfo.of(server.certificate()), untrusted.peerChain().get(0));
+        }
+    }
+
+    @Test
+    void fullHandshakeReportsTrustTimeOnItsOwnClock() throws Exception {
+        try (LocalTlsServer server = new LocalTlsServer(); TlsValidationService service = new TlsValidationService()) {
+            ValidationResult first = service.validate("localhost", server.port(), server.trustStore(), null);
+            ValidationResult second = service.validateAsync("localhost", server.port(), server.trustStore(), null)
+                .get(10, TimeUnit.SECONDS);
+
+            for (ValidationResult result : List.of(first, second)) {
+                assertTrue(result.success(), result.message());
+                assertNotNull(result.timings().connect());
+                assertNotNull(result.timings().handshake());
+                assertNotNull(result.timings().trust());
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package app.tls;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.X509TrustManager;
+import org.junit.jupiter.api.Test;
+
+class TrustContextTest {
+    @Test
+    void everyHandshakeSharesOneContext() throws Exception {
+        TrustContext context = new TrustContext(null, new AcceptingTrustManager());
+
+        assertSame(context.sslContext(), context.sslContext());
+    }
+
+    @Test
+    void trustTimeGoesToTheClockRegisteredForTheEngine() throws Exception {
+        TimingTrustManager trustManager = new TimingTrustManager(new AcceptingTrustManager());
+        SSLEngine registered = SSLContext.getDefault().createSSLEngine();
+        SSLEngine other = SSLContext.getDefault().createSSLEngine();
+        PhaseClock clock = new PhaseClock();
+        trustManager.register(registered, clock);
+
+        trustManager.checkServerTrusted(new X509Certificate[0], "RSA", other);
+        assertNull(clock.timings().trust());
+
+        trustManager.checkServerTrusted(new X509Certificate[0], "RSA", registered);
+        assertNotNull(clock.timings().trust());
+
+        Duration recorded = clock.timings().trust();
+        trustManager.unregister(registered);
+        trustManager.checkServerTrusted(new X509Certificate[0], "RSA", registered);
+        assertEquals(recorded, clock.timings().trust());
+    }
+
+    private static final class AcceptingTrustManager implements X509TrustManager {
+        @Override
+        public void checkClientTrusted(X509Certificate[] chain, String authType) {
+        }
+
+        @Override
+        public void checkServerTrusted(X509Certificate[] chain, String authType) {
+        }
+
+        @Override
+        public X509Certificate[] getAcceptedIssuers() {
+            return new X509Certificate[0];
+        }
+    }
+}
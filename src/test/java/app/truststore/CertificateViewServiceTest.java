@@ -0,0 +1,46 @@
+package app.truststore;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.security.KeyStore;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class CertificateViewServiceTest {
+    @Test
+    void listsByExpiryThenAlias() throws Exception {
+        KeyStore keyStore = TestCertificates.store(
+            "PKCS12",
+            "b-root", TestCertificates.root(),
+            "a-root", TestCertificates.root(),
+            "leaf", TestCertificates.leaf(),
+            "intermediate", TestCertificates.intermediate()
+        );
+
+        List<CertificateInfo> certificates = new CertificateViewService().listCertificates(keyStore);
+
+        List<CertificateInfo> expected = new ArrayList<>(certificates);
+        expected.sort((left, right) -> {
+            int byExpiry = left.notAfter().compareTo(right.notAfter());
+            return byExpiry != 0 ? byExpiry : left.alias().compareTo(right.alias());
+        });
+        assertEquals(expected, certificates);
+        assertEquals(4, certificates.size());
+        assertEquals(
+            TestCertificates.root().getSubjectX500Principal().getName(),
+            certificates.stream().filter(info -> info.alias().equals("a-root")).findFirst().orElseThrow().subject()
+        );
+    }
+
+    @Test
+    void statusFollowsTheThirtyDayThreshold() {
+        Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        assertEquals("expired", CertificateViewService.resolveStatus(now.minusSeconds(1), now));
+        assertEquals("expiringSoon", CertificateViewService.resolveStatus(now.plus(Duration.ofDays(30)), now));
+        assertEquals("valid", CertificateViewService.resolveStatus(now.plus(Duration.ofDays(31)), now));
+    }
+}
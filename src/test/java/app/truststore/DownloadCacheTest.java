@@ -0,0 +1,98 @@
+package app.truststore;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DownloadCacheTest {
+    private static final URI FIRST = URI.create("https://example.com/first.tar.gz");
+    private static final URI SECOND = URI.create("https://example.com/second.tar.gz");
+    private static final URI THIRD = URI.create("https://example.com/third.tar.gz");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntryAndItsBody() throws Exception {
+        DownloadCache cache = new DownloadCache(directory, 2, Long.MAX_VALUE);
+        Path firstBody = store(cache, FIRST, 1, 10);
+        Path secondBody = store(cache, SECOND, 2, 10);
+        Thread.sleep(20);
+        assertTrue(cache.lookup(FIRST).isPresent());
+        Thread.sleep(20);
+
+        store(cache, THIRD, 3, 10);
+
+        assertTrue(cache.lookup(FIRST).isPresent());
+        assertFalse(cache.lookup(SECOND).isPresent());
+        assertTrue(cache.lookup(THIRD).isPresent());
+        assertTrue(Files.exists(firstBody));
+        assertFalse(Files.exists(secondBody));
+        assertEquals(2, count("*.entry"));
+    }
+
+    @Test
+    void keepsBodiesWithinTheSizeCap() throws Exception {
+        DownloadCache cache = new DownloadCache(directory, 32, 100);
+        Path firstBody = store(cache, FIRST, 1, 60);
+        Thread.sleep(20);
+
+        store(cache, SECOND, 2, 60);
+
+        assertFalse(cache.lookup(FIRST).isPresent());
+        assertFalse(Files.exists(firstBody));
+        assertTrue(cache.lookup(SECOND).isPresent());
+    }
+
+    @Test
+    void sharedBodyIsKeptWhileAnEntryStillPointsAtIt() throws Exception {
+        DownloadCache cache = new DownloadCache(directory, 32, 100);
+        Path body = store(cache, FIRST, 1, 60);
+        Thread.sleep(20);
+
+        assertEquals(body, store(cache, SECOND, 1, 60));
+        store(cache, FIRST, 2, 30);
+
+        Optional<DownloadCache.Entry> second = cache.lookup(SECOND);
+        assertTrue(second.isPresent());
+        assertEquals(body, second.get().body());
+        assertEquals(2, count("*.body"));
+    }
+
+    @Test
+    void newestEntryIsKeptEvenWhenItAloneExceedsTheCap() throws Exception {
+        DownloadCache cache = new DownloadCache(directory, 32, 10);
+
+        store(cache, FIRST, 1, 60);
+
+        assertTrue(cache.lookup(FIRST).isPresent());
+    }
+
+    private Path store(DownloadCache cache, URI uri, int fill, int size) throws IOException {
+        Path downloaded = cache.newDownloadFile();
+        byte[] bytes = new byte[size];
+        Arrays.fill(bytes, (byte) fill);
+        Files.write(downloaded, bytes);
+        return cache.store(uri, downloaded, "\"etag\"", null);
+    }
+
+    private long count(String glob) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, glob)) {
+            long count = 0;
+            for (Path ignored : files) {
+                count++;
+            }
+            return count;
+        }
+    }
+}
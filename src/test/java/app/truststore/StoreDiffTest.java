@@ -0,0 +1,59 @@
+package app.truststore;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class StoreDiffTest {
+    private static final Instant NOT_BEFORE = Instant.parse("2025-01-01T00:00:00Z");
+    private static final Instant NOT_AFTER = Instant.parse("2030-01-01T00:00:00Z");
+
+    @Test
+    void matchesRowsByAlias() {
+        List<CertificateInfo> previous = List.of(
+            certificate("kept", "aa", "valid"),
+            certificate("removed", "bb", "valid"),
+            certificate("replaced", "cc", "valid")
+        );
+        List<CertificateInfo> current = List.of(
+            certificate("kept", "aa", "valid"),
+            certificate("replaced", "dd", "valid"),
+            certificate("added", "ee", "valid")
+        );
+
+        StoreDiff diff = StoreDiff.between(previous, current);
+
+        assertEquals(List.of("added"), diff.added().stream().map(CertificateInfo::alias).toList());
+        assertEquals(Set.of("removed"), diff.removedAliases());
+        assertEquals(List.of("replaced"), diff.changed().stream().map(CertificateInfo::alias).toList());
+        assertEquals("+1 -1 ~1", diff.summary());
+    }
+
+    @Test
+    void statusChangeCountsAsChanged() {
+        StoreDiff diff = StoreDiff.between(
+            List.of(certificate("root", "aa", "valid")),
+            List.of(certificate("root", "aa", "expiringSoon"))
+        );
+
+        assertEquals(1, diff.changed().size());
+    }
+
+    @Test
+    void identicalListsGiveAnEmptyDiff() {
+        List<CertificateInfo> certificates = List.of(certificate("root", "aa", "valid"));
+
+        StoreDiff diff = StoreDiff.between(certificates, List.of(certificate("root", "aa", "valid")));
+
+        assertTrue(diff.isEmpty());
+        assertEquals("+0 -0 ~0", diff.summary());
+    }
+
+    private static CertificateInfo certificate(String alias, String fingerprint, String status) {
+        return new CertificateInfo(alias, "CN=" + alias, "CN=ca", "01", NOT_BEFORE, NOT_AFTER, status, List.of(), fingerprint);
+    }
+}
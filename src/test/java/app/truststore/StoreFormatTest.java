@@ -0,0 +1,64 @@
+package app.truststore;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.Test;
+
+class StoreFormatTest {
+    @Test
+    void recognisesKeyStoresWrittenByTheJdk() throws Exception {
+        assertEquals(StoreFormat.JKS, sniff(storeBytes("JKS")));
+        assertEquals(StoreFormat.JCEKS, sniff(storeBytes("JCEKS")));
+        assertEquals(StoreFormat.PKCS12, sniff(storeBytes("PKCS12")));
+    }
+
+    @Test
+    void recognisesPkcs12WithIndefiniteLength() {
+        byte[] header = {0x30, (byte) 0x80, 0x02, 0x01, 0x03, 0x30};
+
+        assertEquals(StoreFormat.PKCS12, StoreFormat.sniff(header, header.length));
+    }
+
+    @Test
+    void rejectsDerSequencesThatAreNotPfxVersionThree() {
+        byte[] header = {0x30, 0x05, 0x02, 0x01, 0x01, 0x30};
+
+        assertEquals(StoreFormat.UNKNOWN, StoreFormat.sniff(header, header.length));
+    }
+
+    @Test
+    void recognisesGzip() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(1);
+        }
+
+        assertEquals(StoreFormat.GZIP, sniff(bytes.toByteArray()));
+    }
+
+    @Test
+    void recognisesPemAfterLeadingWhitespace() {
+        assertEquals(StoreFormat.PEM, sniff("\r\n  -----BEGIN CERTIFICATE-----".getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    @Test
+    void shortOrUnknownInputIsUnknown() {
+        assertEquals(StoreFormat.UNKNOWN, StoreFormat.sniff(new byte[StoreFormat.HEADER_BYTES], 0));
+        assertEquals(StoreFormat.UNKNOWN, sniff(new byte[] {(byte) 0xFE, (byte) 0xED}));
+        assertEquals(StoreFormat.UNKNOWN, sniff("-----BEGI".getBytes(StandardCharsets.US_ASCII)));
+        assertEquals(StoreFormat.UNKNOWN, sniff("not a truststore".getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    private static StoreFormat sniff(byte[] bytes) {
+        byte[] header = Arrays.copyOf(bytes, StoreFormat.HEADER_BYTES);
+        return StoreFormat.sniff(header, Math.min(bytes.length, StoreFormat.HEADER_BYTES));
+    }
+
+    private static byte[] storeBytes(String type) throws Exception {
+        return TestCertificates.storeBytes(TestCertificates.store(type, "root", TestCertificates.root()));
+    }
+}
@@ -0,0 +1,92 @@
+package app.truststore;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class StoreIndexTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void unchangedStoreReopensFromItsIndex() throws Exception {
+        Path store = writeStore("root", TestCertificates.root(), "leaf", TestCertificates.leaf());
+        TruststoreLoader loader = new TruststoreLoader(directory.resolve("cache"));
+
+        LoadedTruststore parsed = loader.load(StoreSourceType.FILE, store.toString(), TestCertificates.PASSWORD);
+        LoadedTruststore indexed = loader.load(StoreSourceType.FILE, store.toString(), TestCertificates.PASSWORD);
+
+        assertFalse(parsed.indexed());
+        assertTrue(indexed.indexed());
+        assertFalse(indexed.keyStoreLoaded());
+        CertificateViewService view = new CertificateViewService();
+        assertEquals(view.listCertificates(parsed), view.listCertificates(indexed));
+        assertEquals(parsed.anchorIndex().aliases(), indexed.anchorIndex().aliases());
+        assertEquals(StoreFormat.PKCS12, indexed.format());
+        assertEquals(2, indexed.keyStore().size());
+    }
+
+    @Test
+    void wrongPasswordDoesNotOpenTheIndex() throws Exception {
+        Path store = writeStore("root", TestCertificates.root());
+        StoreIndex index = new StoreIndex(directory.resolve("index"));
+        LoadedTruststore loaded = new TruststoreLoader().load(StoreSourceType.FILE, store.toString(), TestCertificates.PASSWORD);
+        index.write(
+            store,
+            StoreIndex.Stamp.of(store),
+            StoreIndex.sha256(store),
+            TestCertificates.PASSWORD,
+            loaded,
+            new CertificateViewService().listCertificates(loaded)
+        );
+
+        assertNotNull(open(index, store, TestCertificates.PASSWORD));
+        assertNull(open(index, store, "wrong".toCharArray()));
+    }
+
+    @Test
+    void changedStoreIsParsedAgain() throws Exception {
+        Path store = writeStore("root", TestCertificates.root());
+        TruststoreLoader loader = new TruststoreLoader(directory.resolve("cache"));
+        loader.load(StoreSourceType.FILE, store.toString(), TestCertificates.PASSWORD);
+
+        writeStore("root", TestCertificates.root(), "other", TestCertificates.unrelated());
+        LoadedTruststore reloaded = loader.load(StoreSourceType.FILE, store.toString(), TestCertificates.PASSWORD);
+
+        assertFalse(reloaded.indexed());
+        assertEquals(2, reloaded.keyStore().size());
+    }
+
+    @Test
+    void deferredParseRejectsAStoreChangedAfterOpening() throws Exception {
+        Path store = writeStore("root", TestCertificates.root());
+        TruststoreLoader loader = new TruststoreLoader(directory.resolve("cache"));
+        loader.load(StoreSourceType.FILE, store.toString(), TestCertificates.PASSWORD);
+        LoadedTruststore indexed = loader.load(StoreSourceType.FILE, store.toString(), TestCertificates.PASSWORD);
+
+        writeStore("root", TestCertificates.root(), "other", TestCertificates.unrelated());
+
+        IllegalStateException error = assertThrows(IllegalStateException.class, indexed::keyStore);
+        assertTrue(error.getMessage().contains("the store changed"));
+    }
+
+    private static LoadedTruststore open(StoreIndex index, Path store, char[] password) {
+        return index.open(store, password, store.toString(), SourceOrigin.FILE, System.nanoTime(), sha256 -> () -> {
+            throw new AssertionError("not parsed in this test");
+        });
+    }
+
+    private Path writeStore(Object... aliasCertificatePairs) throws Exception {
+        Path store = directory.resolve("trust.p12");
+        Files.write(store, TestCertificates.storeBytes(TestCertificates.store("PKCS12", aliasCertificatePairs)));
+        return store;
+    }
+}
@@ -0,0 +1,79 @@
+package app.truststore;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.security.KeyStore;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class StreamingStoreReaderTest {
+    @Test
+    void emitsEveryJksEntryAndReturnsTheVerifiedStore() throws Exception {
+        byte[] store = jks();
+        List<StreamedEntry> entries = new ArrayList<>();
+
+        KeyStore keyStore = StreamingStoreReader.read(
+            StoreFormat.JKS,
+            new ByteArrayInputStream(store),
+            TestCertificates.PASSWORD,
+            entries::add
+        );
+
+        assertEquals(2, keyStore.size());
+        assertEquals(2, entries.size());
+        assertEquals(2, entries.get(0).total());
+        assertEquals(TestCertificates.root(), keyStore.getCertificate("root"));
+    }
+
+    @Test
+    void rejectsJksWithTheWrongPassword() throws Exception {
+        IOException error = assertThrows(
+            IOException.class,
+            () -> StreamingStoreReader.read(StoreFormat.JKS, new ByteArrayInputStream(jks()), "wrong".toCharArray(), entry -> { })
+        );
+
+        assertTrue(error.getMessage().contains("tampered"));
+    }
+
+    @Test
+    void rejectsJksWhoseContentNoLongerMatchesTheDigest() throws Exception {
+        byte[] store = jks();
+        // Flip a byte inside the last certificate, ahead of the 20-byte SHA-1 digest.
+        store[store.length - 40] ^= 0x01;
+
+        assertThrows(
+            Exception.class,
+            () -> StreamingStoreReader.read(StoreFormat.JKS, new ByteArrayInputStream(store), TestCertificates.PASSWORD, entry -> { })
+        );
+    }
+
+    @Test
+    void rejectsJksWithADamagedDigest() throws Exception {
+        byte[] store = jks();
+        store[store.length - 1] ^= 0x01;
+
+        IOException error = assertThrows(
+            IOException.class,
+            () -> StreamingStoreReader.read(StoreFormat.JKS, new ByteArrayInputStream(store), TestCertificates.PASSWORD, entry -> { })
+        );
+        assertTrue(error.getMessage().contains("tampered"));
+    }
+
+    @Test
+    void streamsOnlyJks() {
+        assertTrue(StreamingStoreReader.supports(StoreFormat.JKS));
+        assertFalse(StreamingStoreReader.supports(StoreFormat.PKCS12));
+    }
+
+    private static byte[] jks() throws Exception {
+        return TestCertificates.storeBytes(
+            TestCertificates.store("JKS", "root", TestCertificates.root(), "leaf", TestCertificates.leaf())
+        );
+    }
+}
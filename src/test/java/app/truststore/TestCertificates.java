@@ -0,0 +1,67 @@
+package app.truststore;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.KeyStore;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+
+// Fixed EC certificates: a root, an intermediate it issued, a leaf the intermediate issued,
+// an unrelated root and an expired self-signed certificate.
+public final class TestCertificates {
+    public static final char[] PASSWORD = "changeit".toCharArray();
+
+    private TestCertificates() {
+    }
+
+    public static X509Certificate root() {
+        return load("root.pem");
+    }
+
+    public static X509Certificate intermediate() {
+        return load("intermediate.pem");
+    }
+
+    public static X509Certificate leaf() {
+        return load("leaf.pem");
+    }
+
+    public static X509Certificate unrelated() {
+        return load("unrelated.pem");
+    }
+
+    // Self-signed, valid only during January 2020.
+    public static X509Certificate expired() {
+        return load("expired.pem");
+    }
+
+    public static KeyStore store(String type, Object... aliasCertificatePairs) throws Exception {
+        KeyStore keyStore = KeyStore.getInstance(type);
+        keyStore.load(null, null);
+        for (int i = 0; i < aliasCertificatePairs.length; i += 2) {
+            keyStore.setCertificateEntry(
+                (String) aliasCertificatePairs[i],
+                (X509Certificate) aliasCertificatePairs[i + 1]
+            );
+        }
+        return keyStore;
+    }
+
+    public static byte[] storeBytes(KeyStore keyStore) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        keyStore.store(out, PASSWORD);
+        return out.toByteArray();
+    }
+
+    private static X509Certificate load(String name) {
+        try (InputStream in = TestCertificates.class.getResourceAsStream("/certs/" + name)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing test certificate " + name);
+            }
+            return (X509Certificate) CertificateFactory.getInstance("X.509").generateCertificate(in);
+        } catch (IOException | java.security.cert.CertificateException e) {
+            throw new IllegalStateException("Cannot load test certificate " + name, e);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package app.truststore;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.security.KeyStore;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class TrustAnchorIndexTest {
+    @Test
+    void candidatesAreTheIssuersOfTheChainAndNotUnrelatedAnchors() throws Exception {
+        KeyStore store = TestCertificates.store(
+            "PKCS12",
+            "root", TestCertificates.root(),
+            "intermediate", TestCertificates.intermediate(),
+            "unrelated", TestCertificates.unrelated()
+        );
+        TrustAnchorIndex index = TrustAnchorIndex.build(store);
+
+        Set<String> candidates = index.candidateAliases(List.of(
+            TestCertificates.leaf(),
+            TestCertificates.intermediate()
+        ));
+
+        assertEquals(Set.of("root", "intermediate"), candidates);
+    }
+
+    @Test
+    void anAnchorPresentedInTheChainIsACandidateByPublicKey() throws Exception {
+        KeyStore store = TestCertificates.store("PKCS12", "pinned-leaf", TestCertificates.leaf());
+        TrustAnchorIndex index = TrustAnchorIndex.build(store);
+
+        assertEquals(Set.of("pinned-leaf"), index.candidateAliases(List.of(TestCertificates.leaf())));
+    }
+
+    @Test
+    void unrelatedChainHasNoCandidates() throws Exception {
+        KeyStore store = TestCertificates.store("PKCS12", "root", TestCertificates.root());
+        TrustAnchorIndex index = TrustAnchorIndex.build(store);
+
+        assertTrue(index.candidateAliases(List.of(TestCertificates.unrelated())).isEmpty());
+    }
+
+    @Test
+    void storeDigestTracksContentNotInsertionOrder() throws Exception {
+        TrustAnchorIndex first = TrustAnchorIndex.build(TestCertificates.store(
+            "PKCS12",
+            "root", TestCertificates.root(),
+            "unrelated", TestCertificates.unrelated()
+        ));
+        TrustAnchorIndex reordered = TrustAnchorIndex.build(TestCertificates.store(
+            "PKCS12",
+            "unrelated", TestCertificates.unrelated(),
+            "root", TestCertificates.root()
+        ));
+        TrustAnchorIndex changed = TrustAnchorIndex.build(TestCertificates.store(
+            "PKCS12",
+            "root", TestCertificates.root()
+        ));
+
+        assertEquals(first.storeDigest(), reordered.storeDigest());
+        assertNotEquals(first.storeDigest(), changed.storeDigest());
+    }
+}
@@ -0,0 +1,47 @@
+package app.truststore;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TruststoreLoaderTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void reloadsAStoreThatWasRewrittenInPlace() throws Exception {
+        Path file = directory.resolve("trust.p12");
+        Files.write(file, TestCertificates.storeBytes(
+            TestCertificates.store("PKCS12", "root", TestCertificates.root(), "other", TestCertificates.unrelated())
+        ));
+        TruststoreLoader loader = new TruststoreLoader();
+
+        LoadedTruststore first = loader.load(StoreSourceType.FILE, file.toString(), TestCertificates.PASSWORD);
+        Files.write(file, TestCertificates.storeBytes(TestCertificates.store("JKS", "root", TestCertificates.root())));
+        LoadedTruststore second = loader.load(StoreSourceType.FILE, file.toString(), TestCertificates.PASSWORD);
+
+        assertEquals(StoreFormat.PKCS12, first.format());
+        assertEquals(2, first.keyStore().size());
+        assertEquals(StoreFormat.JKS, second.format());
+        assertEquals(1, second.keyStore().size());
+    }
+
+    @Test
+    void truncatedStoreFailsWithAnError() throws Exception {
+        Path file = directory.resolve("trust.jks");
+        byte[] bytes = TestCertificates.storeBytes(TestCertificates.store("JKS", "root", TestCertificates.root()));
+        Files.write(file, Arrays.copyOf(bytes, bytes.length / 2));
+
+        IllegalArgumentException error = assertThrows(
+            IllegalArgumentException.class,
+            () -> new TruststoreLoader().load(StoreSourceType.FILE, file.toString(), TestCertificates.PASSWORD)
+        );
+        assertTrue(error.getMessage().startsWith("Failed to load truststore"));
+    }
+}
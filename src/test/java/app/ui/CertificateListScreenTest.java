@@ -0,0 +1,120 @@
+package app.ui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import app.truststore.CertificateInfo;
+import app.truststore.StoreDiff;
+import com.googlecode.lanterna.TerminalSize;
+import com.googlecode.lanterna.gui2.BasicWindow;
+import com.googlecode.lanterna.gui2.Component;
+import com.googlecode.lanterna.gui2.MultiWindowTextGUI;
+import com.googlecode.lanterna.gui2.table.Table;
+import com.googlecode.lanterna.input.KeyStroke;
+import com.googlecode.lanterna.screen.TerminalScreen;
+import com.googlecode.lanterna.terminal.virtual.DefaultVirtualTerminal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CertificateListScreenTest {
+    private CertificateListScreen screen;
+    private Table<String> table;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MultiWindowTextGUI gui = new MultiWindowTextGUI(
+            new TerminalScreen(new DefaultVirtualTerminal(new TerminalSize(120, 40)))
+        );
+        screen = new CertificateListScreen(gui, alias -> { }, () -> { });
+        table = findTable();
+        BasicWindow window = new BasicWindow();
+        window.setComponent(screen.component());
+        gui.addWindow(window);
+        window.setFocusedInteractable(table);
+        screen.setCertificates(List.of(
+            certificate("alpha", "2030-01-01", "valid", "a1"),
+            certificate("bravo", "2031-01-01", "valid", "b1"),
+            certificate("charlie", "2032-01-01", "valid", "c1"),
+            certificate("old", "2020-01-01", "expired", "o1")
+        ));
+    }
+
+    @Test
+    void diffKeepsFilterSortAndSelection() {
+        press('e');
+        press('x');
+        table.setSelectedRow(rowOf("bravo"));
+
+        screen.applyDiff(new StoreDiff(
+            List.of(certificate("delta", "2033-01-01", "valid", "d1"), certificate("older", "2019-01-01", "expired", "o2")),
+            Set.of("charlie"),
+            List.of(certificate("alpha", "2034-01-01", "valid", "a2"))
+        ));
+
+        assertEquals(List.of("alpha", "delta", "bravo"), rows());
+        assertEquals("bravo", screen.getSelectedAlias());
+    }
+
+    @Test
+    void removingTheSelectedRowKeepsTheSelectionInPlace() {
+        table.setSelectedRow(rowOf("bravo"));
+
+        screen.applyDiff(new StoreDiff(List.of(), Set.of("bravo"), List.of()));
+
+        assertEquals(List.of("old", "alpha", "charlie"), rows());
+        assertEquals("charlie", screen.getSelectedAlias());
+    }
+
+    @Test
+    void hiddenExpiredRowsStayHiddenWhenTheyChange() {
+        press('e');
+
+        screen.applyDiff(new StoreDiff(List.of(), Set.of(), List.of(certificate("old", "2021-01-01", "expired", "o3"))));
+
+        assertEquals(List.of("alpha", "bravo", "charlie"), rows());
+        assertEquals(3, screen.size());
+    }
+
+    private void press(char key) {
+        screen.handleGlobalKey(new KeyStroke(key, true, false));
+    }
+
+    private int rowOf(String alias) {
+        return rows().indexOf(alias);
+    }
+
+    private List<String> rows() {
+        List<String> aliases = new ArrayList<>();
+        for (List<String> row : table.getTableModel().getRows()) {
+            aliases.add(row.get(0));
+        }
+        return aliases;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Table<String> findTable() {
+        for (Component component : screen.component().getChildren()) {
+            if (component instanceof Table<?> found) {
+                return (Table<String>) found;
+            }
+        }
+        throw new IllegalStateException("No table in the certificate list");
+    }
+
+    private static CertificateInfo certificate(String alias, String notAfter, String status, String fingerprint) {
+        return new CertificateInfo(
+            alias,
+            "CN=" + alias,
+            "CN=ca",
+            "01",
+            Instant.parse("2015-01-01T00:00:00Z"),
+            Instant.parse(notAfter + "T00:00:00Z"),
+            status,
+            List.of(),
+            fingerprint
+        );
+    }
+}
@@ -0,0 +1,66 @@
+package app.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class TimerWheelTest {
+    @Test
+    void runsTasksInDeadlineOrder() throws InterruptedException {
+        List<String> fired = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(3);
+        try (TimerWheel wheel = new TimerWheel(Duration.ofMillis(5), 8, Runnable::run, "test-timer")) {
+            wheel.schedule(Duration.ofMillis(150), () -> {
+                fired.add("late");
+                done.countDown();
+            });
+            wheel.schedule(Duration.ofMillis(10), () -> {
+                fired.add("early");
+                done.countDown();
+            });
+            wheel.schedule(Duration.ofMillis(60), () -> {
+                fired.add("middle");
+                done.countDown();
+            });
+
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+        }
+        assertEquals(List.of("early", "middle", "late"), fired);
+    }
+
+    @Test
+    void delaysLongerThanOneRotationWaitForLaterRounds() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        long start = System.nanoTime();
+        // Four slots of 10 ms make one rotation 40 ms, so this task must survive several rounds.
+        try (TimerWheel wheel = new TimerWheel(Duration.ofMillis(10), 4, Runnable::run, "test-timer")) {
+            wheel.schedule(Duration.ofMillis(150), done::countDown);
+
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+        }
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(150));
+    }
+
+    @Test
+    void rejectsSchedulingAfterClose() {
+        TimerWheel wheel = new TimerWheel(Duration.ofMillis(10), 4, Runnable::run, "test-timer");
+        wheel.close();
+
+        assertThrows(IllegalStateException.class, () -> wheel.schedule(Duration.ZERO, () -> { }));
+    }
+
+    @Test
+    void rejectsNonPositiveTick() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> new TimerWheel(Duration.ZERO, 4, Runnable::run, "test-timer")
+        );
+    }
+}
@@ -0,0 +1,92 @@
+package app.watch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import app.batch.EndpointTarget;
+import app.tls.CapturedPeerChain;
+import app.tls.TlsValidationService;
+import app.tls.ValidationResult;
+import app.truststore.TestCertificates;
+import java.security.KeyStore;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class EndpointWatcherTest {
+    private static final WatchSettings FAST = new WatchSettings(Duration.ofMillis(50), 0, Duration.ofDays(30), 1);
+
+    @Test
+    void unchangedChainReusesItsEvaluation() throws Exception {
+        CountingService service = new CountingService(TestCertificates.root());
+
+        try (EndpointWatcher watcher = new EndpointWatcher(service, null, null, FAST, event -> { })) {
+            watcher.start(List.of(new EndpointTarget("example.com", 443)));
+            awaitChecks(watcher, 4);
+        }
+
+        assertEquals(1, service.evaluations.get());
+    }
+
+    @Test
+    void chainWithAnExpiredCertificateIsEvaluatedAgain() throws Exception {
+        CountingService service = new CountingService(TestCertificates.expired());
+
+        try (EndpointWatcher watcher = new EndpointWatcher(service, null, null, FAST, event -> { })) {
+            watcher.start(List.of(new EndpointTarget("example.com", 443)));
+            awaitChecks(watcher, 4);
+            assertEquals(0, watcher.skippedEvaluations());
+        }
+
+        assertTrue(service.evaluations.get() >= 4);
+    }
+
+    @Test
+    void failedRoundIsReportedAsUnreachable() throws Exception {
+        TlsValidationService service = new CountingService(TestCertificates.root()) {
+            @Override
+            public ValidationResult evaluateCapturedChain(CapturedPeerChain captured, KeyStore sourceStore, String alias) {
+                throw new IllegalStateException("evaluation broke");
+            }
+        };
+        List<WatchEvent> events = new CopyOnWriteArrayList<>();
+
+        try (EndpointWatcher watcher = new EndpointWatcher(service, null, null, FAST, events::add)) {
+            watcher.start(List.of(new EndpointTarget("example.com", 443)));
+            awaitChecks(watcher, 2);
+        }
+
+        assertEquals(WatchStatus.UNREACHABLE, events.get(0).status());
+    }
+
+    private static void awaitChecks(EndpointWatcher watcher, long checks) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (watcher.checks() < checks && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(watcher.checks() >= checks, "only " + watcher.checks() + " checks ran");
+    }
+
+    private static class CountingService extends TlsValidationService {
+        private final X509Certificate certificate;
+        private final AtomicInteger evaluations = new AtomicInteger();
+
+        private CountingService(X509Certificate certificate) {
+            this.certificate = certificate;
+        }
+
+        @Override
+        public CapturedPeerChain capturePeerChain(String host, int port) {
+            return new CapturedPeerChain(host, port, List.of(certificate), "EC");
+        }
+
+        @Override
+        public ValidationResult evaluateCapturedChain(CapturedPeerChain captured, KeyStore sourceStore, String alias) {
+            evaluations.incrementAndGet();
+            return new ValidationResult(true, "trusted", List.of());
+        }
+    }
+}
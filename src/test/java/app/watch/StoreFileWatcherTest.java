@@ -0,0 +1,75 @@
+package app.watch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class StoreFileWatcherTest {
+    private static final Duration DEBOUNCE = Duration.ofMillis(300);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void burstOfWritesTriggersOneReload() throws Exception {
+        Path file = directory.resolve("trust.jks");
+        Files.write(file, new byte[] {0});
+        AtomicInteger reloads = new AtomicInteger();
+
+        try (StoreFileWatcher watcher = new StoreFileWatcher(file, DEBOUNCE, reloads::incrementAndGet)) {
+            for (int i = 1; i <= 5; i++) {
+                Files.write(file, new byte[i]);
+                Thread.sleep(50);
+            }
+
+            assertTrue(awaitAtLeast(reloads, 1, Duration.ofSeconds(5)));
+            Thread.sleep(DEBOUNCE.toMillis() * 2);
+        }
+        assertEquals(1, reloads.get());
+    }
+
+    @Test
+    void otherFilesInTheDirectoryAreIgnored() throws Exception {
+        Path file = directory.resolve("trust.jks");
+        Files.write(file, new byte[] {0});
+        AtomicInteger reloads = new AtomicInteger();
+
+        try (StoreFileWatcher watcher = new StoreFileWatcher(file, DEBOUNCE, reloads::incrementAndGet)) {
+            Files.write(directory.resolve("other.jks"), new byte[] {1});
+            Thread.sleep(DEBOUNCE.toMillis() * 3);
+        }
+        assertEquals(0, reloads.get());
+    }
+
+    @Test
+    void replacingTheFileByRenameIsNoticed() throws Exception {
+        Path file = directory.resolve("trust.jks");
+        Files.write(file, new byte[] {0});
+        AtomicInteger reloads = new AtomicInteger();
+
+        try (StoreFileWatcher watcher = new StoreFileWatcher(file, DEBOUNCE, reloads::incrementAndGet)) {
+            Path temp = Files.write(directory.resolve("trust.jks.tmp"), new byte[] {1, 2});
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            assertTrue(awaitAtLeast(reloads, 1, Duration.ofSeconds(5)));
+        }
+    }
+
+    private static boolean awaitAtLeast(AtomicInteger counter, int expected, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (counter.get() < expected) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(20);
+        }
+        return true;
+    }
+}